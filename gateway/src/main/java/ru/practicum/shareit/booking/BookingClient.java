@@ -1,14 +1,19 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -24,22 +29,67 @@ public class BookingClient extends BaseClient {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> createBookings(long userId, List<BookItemRequestDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
     public ResponseEntity<Object> approveBooking(long ownerId, Boolean approved, long bookingId) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", ownerId, parameters);
     }
 
+    public ResponseEntity<Object> approveBookings(long ownerId, Boolean approved, BookingBulkDecisionDto decision) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("/bulk?approved={approved}", ownerId, parameters, decision);
+    }
+
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsWithState(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name().toUpperCase());
-        return get("?state={state}", userId, parameters);
+    public ResponseEntity<Object> countBookingsByState(long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> countBookingsOfItemsForOwnerByState(long ownerId) {
+        return get("/owner/summary", ownerId);
+    }
+
+    public ResponseEntity<Object> getAllBookingsWithState(long userId, BookingState state, String cursor, Integer size) {
+        return getBookingPage("", userId, state, cursor, size);
     }
 
-    public ResponseEntity<Object> getAllBookingsOfItemsForOwner(long ownerId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name().toUpperCase());
-        return get("/owner?state={state}", ownerId, parameters);
+    public ResponseEntity<Object> getAllBookingsOfItemsForOwner(long ownerId, BookingState state, String cursor,
+                                                                Integer size) {
+        return getBookingPage("/owner", ownerId, state, cursor, size);
+    }
+
+    public void streamAllBookingsWithState(long userId, BookingState state, HttpServletResponse response)
+            throws IOException {
+        stream("?state={state}", userId, Map.of("state", state.name()), response);
+    }
+
+    public void streamAllBookingsOfItemsForOwner(long ownerId, BookingState state, HttpServletResponse response)
+            throws IOException {
+        stream("/owner?state={state}", ownerId, Map.of("state", state.name()), response);
+    }
+
+    private ResponseEntity<Object> getBookingPage(String path, long userId, BookingState state, String cursor,
+                                                  Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder(path).append("?state={state}");
+        parameters.put("state", state.name().toUpperCase());
+
+        if (cursor != null) {
+            query.append("&cursor={cursor}");
+            parameters.put("cursor", cursor);
+        }
+
+        if (size != null) {
+            query.append("&size={size}");
+            parameters.put("size", size);
+        }
+
+        return get(query.toString(), userId, parameters);
     }
 }
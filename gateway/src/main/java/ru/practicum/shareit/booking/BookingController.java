@@ -1,9 +1,16 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -17,8 +24,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.io.IOException;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -26,6 +36,8 @@ import ru.practicum.shareit.booking.dto.BookingState;
 @Slf4j
 @Validated
 public class BookingController {
+	private static final int MAX_BATCH_SIZE = 200;
+
 	private final BookingClient bookingClient;
 
 	@PostMapping
@@ -34,14 +46,20 @@ public class BookingController {
 									@Valid @RequestBody BookItemRequestDto bookingCreateDto) {
 		log.info("Request from user {} to book item: {}", userId, bookingCreateDto);
 
-		if (bookingCreateDto.getStart().isAfter(bookingCreateDto.getEnd())) {
-			throw new IllegalArgumentException(String.format("Incorrect data times: " +
-					"start date %s is after then end date %s", bookingCreateDto.getStart(), bookingCreateDto.getEnd()));
-		}
-
+		checkDates(bookingCreateDto);
 		return bookingClient.createBooking(userId, bookingCreateDto);
 	}
 
+	@PostMapping("/batch")
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<Object> createBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+												 @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE)
+												 List<@NotNull @Valid BookItemRequestDto> bookingCreateDtos) {
+		log.info("Request from user {} to book {} items", userId, bookingCreateDtos.size());
+		bookingCreateDtos.forEach(this::checkDates);
+		return bookingClient.createBookings(userId, bookingCreateDtos);
+	}
+
 	@PatchMapping("/{bookingId}")
 	@ResponseStatus(HttpStatus.OK)
 	public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") long ownerId,
@@ -51,6 +69,34 @@ public class BookingController {
 		return bookingClient.approveBooking(ownerId, approved, bookingId);
 	}
 
+	@PatchMapping("/bulk")
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<Object> approveBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+												  @RequestParam Boolean approved,
+												  @Valid @RequestBody BookingBulkDecisionDto decision) {
+		log.info("Request to set bookings approve to '{}' from owner {}: {}", approved, ownerId, decision);
+
+		if ((decision.getBookingIds() == null) == (decision.getItemId() == null)) {
+			throw new IllegalArgumentException("Either 'bookingIds' or 'itemId' should be set");
+		}
+
+		return bookingClient.approveBookings(ownerId, approved, decision);
+	}
+
+	@GetMapping("/summary")
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<Object> countBookingsByState(@RequestHeader("X-Sharer-User-Id") long userId) {
+		log.info("Request to count bookings by state for user {}", userId);
+		return bookingClient.countBookingsByState(userId);
+	}
+
+	@GetMapping("/owner/summary")
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<Object> countBookingsOfItemsForOwnerByState(@RequestHeader("X-Sharer-User-Id") long ownerId) {
+		log.info("Request to count bookings by state for owner {}", ownerId);
+		return bookingClient.countBookingsOfItemsForOwnerByState(ownerId);
+	}
+
 	@GetMapping("/{bookingId}")
 	@ResponseStatus(HttpStatus.OK)
 	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -62,20 +108,53 @@ public class BookingController {
 	@GetMapping
 	@ResponseStatus(HttpStatus.OK)
 	public ResponseEntity<Object> getAllBookingsWithState(@RequestHeader("X-Sharer-User-Id") long userId,
-													@RequestParam(defaultValue = "all", name = "state") String stateParam) {
+													@RequestParam(defaultValue = "all", name = "state") String stateParam,
+													@RequestParam(required = false) String cursor,
+													@RequestParam(required = false) @Positive @Max(100) Integer size) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown booking state: " + stateParam));
-		log.info("Request to get all bookings with state '{}' for user {}", state, userId);
-		return bookingClient.getAllBookingsWithState(userId, state);
+		log.info("Request to get all bookings with state '{}' for user {} from cursor '{}' with size {}",
+				state, userId, cursor, size);
+		return bookingClient.getAllBookingsWithState(userId, state, cursor, size);
 	}
 
 	@GetMapping("/owner")
 	@ResponseStatus(HttpStatus.OK)
 	public ResponseEntity<Object> getAllBookingsOfItemsForOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
-														  @RequestParam(defaultValue = "all", name = "state") String stateParam) {
+														  @RequestParam(defaultValue = "all", name = "state") String stateParam,
+														  @RequestParam(required = false) String cursor,
+														  @RequestParam(required = false) @Positive @Max(100) Integer size) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown booking state: " + stateParam));
-		log.info("Request to get all bookings with state '{}' for owner {}", state, ownerId);
-		return bookingClient.getAllBookingsOfItemsForOwner(ownerId, state);
+		log.info("Request to get all bookings with state '{}' for owner {} from cursor '{}' with size {}",
+				state, ownerId, cursor, size);
+		return bookingClient.getAllBookingsOfItemsForOwner(ownerId, state, cursor, size);
+	}
+
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void streamAllBookingsWithState(@RequestHeader("X-Sharer-User-Id") long userId,
+										   @RequestParam(defaultValue = "all", name = "state") String stateParam,
+										   HttpServletResponse response) throws IOException {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown booking state: " + stateParam));
+		log.info("Request to stream all bookings with state '{}' for user {}", state, userId);
+		bookingClient.streamAllBookingsWithState(userId, state, response);
+	}
+
+	@GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public void streamAllBookingsOfItemsForOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+												 @RequestParam(defaultValue = "all", name = "state") String stateParam,
+												 HttpServletResponse response) throws IOException {
+		BookingState state = BookingState.from(stateParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown booking state: " + stateParam));
+		log.info("Request to stream all bookings with state '{}' for owner {}", state, ownerId);
+		bookingClient.streamAllBookingsOfItemsForOwner(ownerId, state, response);
+	}
+
+	private void checkDates(BookItemRequestDto bookingCreateDto) {
+		if (bookingCreateDto.getStart().isAfter(bookingCreateDto.getEnd())) {
+			throw new IllegalArgumentException(String.format("Incorrect data times: " +
+					"start date %s is after then end date %s", bookingCreateDto.getStart(), bookingCreateDto.getEnd()));
+		}
 	}
 }
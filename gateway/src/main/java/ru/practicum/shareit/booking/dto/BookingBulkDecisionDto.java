@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBulkDecisionDto {
+	@Size(min = 1, max = 1000)
+	private List<@NotNull Long> bookingIds;
+
+	@Positive
+	private Long itemId;
+}
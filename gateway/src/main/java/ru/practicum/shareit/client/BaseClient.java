@@ -1,5 +1,6 @@
 package ru.practicum.shareit.client;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -8,10 +9,15 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -35,7 +41,12 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null);
+    }
+
+    // the client's validator is passed through, so an unchanged resource comes back as 304 without a body
+    protected ResponseEntity<Object> conditionalGet(String path, @Nullable String ifNoneMatch) {
+        return makeAndSendRequest(HttpMethod.GET, path, null, null, ifNoneMatch, null);
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -47,7 +58,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, null, body);
     }
 
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
@@ -55,7 +66,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, null, body);
     }
 
     protected <T> ResponseEntity<Object> patch(String path, T body) {
@@ -75,7 +86,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, null, body);
     }
 
     protected ResponseEntity<Object> delete(String path) {
@@ -87,15 +98,76 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
+    }
+
+    protected void stream(String path,
+                          Long userId,
+                          @Nullable Map<String, Object> parameters,
+                          HttpServletResponse servletResponse) throws IOException {
+        stream(HttpMethod.GET, path, userId, parameters, null, null, servletResponse);
+    }
+
+    // the request body is copied through as it arrives, so uploads are never buffered by the gateway
+    protected void stream(HttpMethod method,
+                          String path,
+                          Long userId,
+                          @Nullable Map<String, Object> parameters,
+                          @Nullable MediaType contentType,
+                          @Nullable InputStream body,
+                          HttpServletResponse servletResponse) throws IOException {
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+            if (userId != null) {
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            }
+
+            if (body != null) {
+                request.getHeaders().setContentType(contentType);
+                StreamUtils.copy(body, request.getBody());
+            }
+        };
+
+        ResponseExtractor<Void> responseExtractor = response -> {
+            servletResponse.setStatus(response.getStatusCode().value());
+            MediaType responseType = response.getHeaders().getContentType();
+
+            if (responseType != null) {
+                servletResponse.setContentType(responseType.toString());
+            }
+
+            StreamUtils.copy(response.getBody(), servletResponse.getOutputStream());
+            return null;
+        };
+
+        try {
+            rest.execute(path, method, requestCallback, responseExtractor,
+                    parameters != null ? parameters : Map.of());
+        } catch (HttpStatusCodeException e) {
+            servletResponse.setStatus(e.getStatusCode().value());
+
+            if (e.getResponseHeaders() != null && e.getResponseHeaders().getContentType() != null) {
+                servletResponse.setContentType(e.getResponseHeaders().getContentType().toString());
+            }
+
+            servletResponse.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method,
                                                           String path,
                                                           Long userId,
                                                           @Nullable Map<String, Object> parameters,
+                                                          @Nullable String ifNoneMatch,
                                                           @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        HttpHeaders headers = defaultHeaders(userId);
+
+        if (ifNoneMatch != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
         ResponseEntity<Object> shareitServerResponse;
 
         try {
@@ -137,6 +209,10 @@ public class BaseClient {
 
         ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
 
+        if (response.getHeaders().getETag() != null) {
+            responseBuilder.eTag(response.getHeaders().getETag());
+        }
+
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
         }
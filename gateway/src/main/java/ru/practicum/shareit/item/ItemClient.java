@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.client.BaseClient;
@@ -10,6 +13,10 @@ import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -25,23 +32,61 @@ public class ItemClient extends BaseClient {
         return post("", ownerId, itemDto);
     }
 
-    ResponseEntity<Object> get(Long id) {
-        return get("/" + id);
+    ResponseEntity<Object> get(Long id, String ifNoneMatch) {
+        return conditionalGet("/" + id, ifNoneMatch);
     }
 
     ResponseEntity<Object> update(Long ownerId, Long itemId, ItemUpdateDto itemUpdateDto) {
         return patch("/" + itemId, ownerId, itemUpdateDto);
     }
 
-    ResponseEntity<Object> search(String searchText) {
-        Map<String, Object> parameters = Map.of("text", searchText);
-        return get("/search?text={text}", parameters);
+    ResponseEntity<Object> search(String searchText, int from, int size, boolean fuzzy) {
+        Map<String, Object> parameters = Map.of("text", searchText, "from", from, "size", size, "fuzzy", fuzzy);
+        return get("/search?text={text}&from={from}&size={size}&fuzzy={fuzzy}", parameters);
+    }
+
+    ResponseEntity<Object> suggest(String prefix, int size) {
+        Map<String, Object> parameters = Map.of("prefix", prefix, "size", size);
+        return get("/suggest?prefix={prefix}&size={size}", parameters);
+    }
+
+    ResponseEntity<Object> getComments(Long itemId, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder query = new StringBuilder("/" + itemId + "/comments");
+        String separator = "?";
+
+        if (cursor != null) {
+            query.append(separator).append("cursor={cursor}");
+            parameters.put("cursor", cursor);
+            separator = "&";
+        }
+
+        if (size != null) {
+            query.append(separator).append("size={size}");
+            parameters.put("size", size);
+        }
+
+        return get(query.toString(), parameters);
+    }
+
+    ResponseEntity<Object> getAvailability(Long itemId, LocalDate from, LocalDate to) {
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", parameters);
     }
 
     ResponseEntity<Object> getByOwner(Long ownerId) {
         return get("", ownerId);
     }
 
+    void streamByOwner(Long ownerId, HttpServletResponse response) throws IOException {
+        stream("", ownerId, null, response);
+    }
+
+    void importItems(Long ownerId, MediaType contentType, InputStream body, HttpServletResponse response)
+            throws IOException {
+        stream(HttpMethod.POST, "/import", ownerId, null, contentType, body, response);
+    }
+
     ResponseEntity<Object> addComment(Long userId, Long itemId, CommentCreateDto commentCreateDto) {
         return post("/" + itemId + "/comment", userId, commentCreateDto);
     }
@@ -1,9 +1,17 @@
 package ru.practicum.shareit.item;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -20,6 +28,9 @@ import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Controller
@@ -28,6 +39,9 @@ import java.util.List;
 @Slf4j
 @Validated
 public class ItemController {
+    private static final long MAX_AVAILABILITY_DAYS = 366;
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final ItemClient itemClient;
 
     @PostMapping
@@ -38,6 +52,16 @@ public class ItemController {
         return itemClient.create(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        log.info("Request from user {} to import items from {}", userId, request.getContentType());
+        itemClient.importItems(userId, MediaType.parseMediaType(request.getContentType()), request.getInputStream(),
+                response);
+    }
+
     @PatchMapping("/{itemId}")
     @ResponseStatus(HttpStatus.OK)
     public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -68,9 +92,41 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     @ResponseStatus(HttpStatus.OK)
-    public  ResponseEntity<Object> getItem(@PathVariable Long itemId) {
+    public  ResponseEntity<Object> getItem(@PathVariable Long itemId,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                           String ifNoneMatch) {
         log.info("Request to get item {}", itemId);
-        return itemClient.get(itemId);
+        return itemClient.get(itemId, ifNoneMatch);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<Object> getComments(@PathVariable Long itemId,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) @Positive @Max(100) Integer size) {
+        log.info("Request to get comments of item {} from cursor '{}' with size {}", itemId, cursor, size);
+        return itemClient.getComments(itemId, cursor, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<Object> getItemAvailability(@PathVariable Long itemId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                      LocalDate from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                      LocalDate to) {
+        log.info("Request to get availability of item {} from {} to {}", itemId, from, to);
+
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException(String.format("Incorrect dates: from %s is after to %s", from, to));
+        }
+
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_AVAILABILITY_DAYS) {
+            throw new IllegalArgumentException(
+                    String.format("Availability may be requested for at most %d days", MAX_AVAILABILITY_DAYS));
+        }
+
+        return itemClient.getAvailability(itemId, from, to);
     }
 
     @GetMapping
@@ -80,10 +136,20 @@ public class ItemController {
         return itemClient.getByOwner(userId);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                      HttpServletResponse response) throws IOException {
+        log.info("Request to stream all items for user: {}", userId);
+        itemClient.streamByOwner(userId, response);
+    }
+
     @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
-    public ResponseEntity<Object> searchItems(@RequestParam String text) {
-        log.info("Request to search items with text: {}", text);
+    public ResponseEntity<Object> searchItems(@RequestParam String text,
+                                              @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                              @RequestParam(defaultValue = "20") @Positive int size,
+                                              @RequestParam(defaultValue = "false") boolean fuzzy) {
+        log.info("Request to search items with text: {} from {} size {} fuzzy {}", text, from, size, fuzzy);
 
         if (text == null || text.isBlank()) {
             return ResponseEntity
@@ -91,6 +157,21 @@ public class ItemController {
                     .body(List.of());
         }
 
-        return itemClient.search(text);
+        return itemClient.search(text, from, size, fuzzy);
+    }
+
+    @GetMapping("/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<Object> suggestItemNames(@RequestParam String prefix,
+                                                   @RequestParam(defaultValue = "10") @Positive int size) {
+        log.info("Request to suggest item names with prefix: {} size {}", prefix, size);
+
+        if (prefix == null || prefix.isBlank()) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(List.of());
+        }
+
+        return itemClient.suggest(prefix, size);
     }
 }
@@ -29,7 +29,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all", userId);
     }
 
-    ResponseEntity<Object> getRequestById(long requestId) {
-        return get("/" + requestId);
+    ResponseEntity<Object> getRequestById(long requestId, String ifNoneMatch) {
+        return conditionalGet("/" + requestId, ifNoneMatch);
     }
 }
@@ -22,8 +22,8 @@ public class UserClient extends BaseClient {
         return post("", userCreateDto);
     }
 
-    ResponseEntity<Object> get(Long userId) {
-        return get("/" + userId);
+    ResponseEntity<Object> get(Long userId, String ifNoneMatch) {
+        return conditionalGet("/" + userId, ifNoneMatch);
     }
 
     ResponseEntity<Object> update(UserDto userDto, Long userId) {
@@ -1,8 +1,15 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,18 +20,28 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.util.NdjsonWriter;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -34,6 +51,14 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingCreateDto);
     }
 
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BookingBatchResultDto> createBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @RequestBody List<BookingCreateDto> bookingCreateDtos) {
+        log.info("Request from user {} to book {} items", userId, bookingCreateDtos.size());
+        return bookingService.createBookings(userId, bookingCreateDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     @ResponseStatus(HttpStatus.OK)
     public BookingDto processBookingByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
@@ -43,6 +68,29 @@ public class BookingController {
         return bookingService.processBookingByOwner(ownerId, approved, bookingId);
     }
 
+    @PatchMapping("/bulk")
+    @ResponseStatus(HttpStatus.OK)
+    public List<BookingDto> processBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                   @RequestParam Boolean approved,
+                                                   @RequestBody BookingBulkDecisionDto decision) {
+        log.info("Request to set bookings approve to '{}' from owner {}: {}", approved, ownerId, decision);
+        return bookingService.processBookingsByOwner(ownerId, approved, decision);
+    }
+
+    @GetMapping("/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingStateCountsDto countBookingsByState(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Request to count bookings by state for user {}", userId);
+        return bookingService.countBookingsByState(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    @ResponseStatus(HttpStatus.OK)
+    public BookingStateCountsDto countBookingsOfItemsForOwnerByState(@RequestHeader("X-Sharer-User-Id") long ownerId) {
+        log.info("Request to count bookings by state for owner {}", ownerId);
+        return bookingService.countBookingsOfItemsForOwnerByState(ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     @ResponseStatus(HttpStatus.OK)
     public BookingDto getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -53,17 +101,57 @@ public class BookingController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<BookingDto> getAllBookingsWithState(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                    @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("Request to get all bookings with state '{}' for user {}", state, userId);
-        return bookingService.getAllBookingsWithState(userId, state);
+    public ResponseEntity<List<BookingDto>> getAllBookingsWithState(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestParam(defaultValue = "ALL") BookingState state,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) @Positive @Max(100)
+                                                    Integer size) {
+        log.info("Request to get all bookings with state '{}' for user {} from cursor '{}' with size {}",
+                state, userId, cursor, size);
+        return toPageResponse(bookingService.getAllBookingsWithState(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
     @ResponseStatus(HttpStatus.OK)
-    public List<BookingDto> getAllBookingsOfItemsForOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                              @RequestParam(defaultValue = "ALL") BookingState state) {
-        log.info("Request to get all bookings with state '{}' for owner {}", state, ownerId);
-        return bookingService.getAllBookingsOfItemsForOwner(ownerId, state);
+    public ResponseEntity<List<BookingDto>> getAllBookingsOfItemsForOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                              @RequestParam(defaultValue = "ALL") BookingState state,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) @Positive @Max(100)
+                                              Integer size) {
+        log.info("Request to get all bookings with state '{}' for owner {} from cursor '{}' with size {}",
+                state, ownerId, cursor, size);
+        return toPageResponse(bookingService.getAllBookingsOfItemsForOwner(ownerId, state, cursor, size));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public void streamAllBookingsWithState(@RequestHeader("X-Sharer-User-Id") long userId,
+                                           @RequestParam(defaultValue = "ALL") BookingState state,
+                                           HttpServletResponse response) throws IOException {
+        log.info("Request to stream all bookings with state '{}' for user {}", state, userId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        NdjsonWriter writer = new NdjsonWriter(response.getOutputStream(), objectMapper);
+        bookingService.streamAllBookingsWithState(userId, state, writer::write);
+    }
+
+    @GetMapping(path = "/owner", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public void streamAllBookingsOfItemsForOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                 @RequestParam(defaultValue = "ALL") BookingState state,
+                                                 HttpServletResponse response) throws IOException {
+        log.info("Request to stream all bookings with state '{}' for owner {}", state, ownerId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        NdjsonWriter writer = new NdjsonWriter(response.getOutputStream(), objectMapper);
+        bookingService.streamAllBookingsOfItemsForOwner(ownerId, state, writer::write);
+    }
+
+    private ResponseEntity<List<BookingDto>> toPageResponse(BookingPageDto page) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+
+        if (page.getNextCursor() != null) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+
+        return responseBuilder.body(page.getBookings());
     }
 }
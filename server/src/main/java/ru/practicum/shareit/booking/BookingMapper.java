@@ -8,20 +8,15 @@ import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.dto.UserDto;
-
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import ru.practicum.shareit.util.DateTimeCodec;
 
 @Component
 public class BookingMapper {
-    private static final DateTimeFormatter dateTimeFormatter
-            = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-
     public BookingDto toBookingDto(Booking booking, ItemDto item, UserDto booker) {
         return BookingDto.builder()
                 .id(booking.getId())
-                .start(dateTimeFormatter.format(booking.getStart()))
-                .end(dateTimeFormatter.format(booking.getEnd()))
+                .start(booking.getStart())
+                .end(booking.getEnd())
                 .item(item)
                 .booker(booker)
                 .status(booking.getStatus())
@@ -30,8 +25,8 @@ public class BookingMapper {
 
     public Booking fromBookingCreateDto(BookingCreateDto bookingCreateDto, Item item, User booker) {
         return Booking.builder()
-                .start(LocalDateTime.parse(bookingCreateDto.getStart(), dateTimeFormatter))
-                .end(LocalDateTime.parse(bookingCreateDto.getEnd(), dateTimeFormatter))
+                .start(DateTimeCodec.parse(bookingCreateDto.getStart()))
+                .end(DateTimeCodec.parse(bookingCreateDto.getEnd()))
                 .booker(booker)
                 .item(item)
                 .build();
@@ -40,8 +35,32 @@ public class BookingMapper {
     public BookingOnlyDatesDto toBookingOnlyDatesDto(Booking booking) {
         return BookingOnlyDatesDto.builder()
                 .id(booking.getId())
-                .start(dateTimeFormatter.format(booking.getStart()))
-                .end(dateTimeFormatter.format(booking.getEnd()))
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
+
+    public BookingOnlyDatesDto toLastBookingOnlyDatesDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getLastBookingId() == null) {
+            return null;
+        }
+
+        return BookingOnlyDatesDto.builder()
+                .id(summary.getLastBookingId())
+                .start(summary.getLastStart())
+                .end(summary.getLastEnd())
+                .build();
+    }
+
+    public BookingOnlyDatesDto toNextBookingOnlyDatesDto(ItemBookingSummary summary) {
+        if (summary == null || summary.getNextBookingId() == null) {
+            return null;
+        }
+
+        return BookingOnlyDatesDto.builder()
+                .id(summary.getNextBookingId())
+                .start(summary.getNextStart())
+                .end(summary.getNextEnd())
                 .build();
     }
 }
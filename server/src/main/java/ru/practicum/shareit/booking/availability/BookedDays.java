@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+public class BookedDays {
+    private final long originEpochDay;
+    private final BitSet days = new BitSet();
+
+    public BookedDays(LocalDate origin) {
+        this.originEpochDay = origin.toEpochDay();
+    }
+
+    public synchronized void book(LocalDateTime start, LocalDateTime end) {
+        int from = indexOf(start.toLocalDate());
+        int to = indexOf(lastDay(end)) + 1;
+
+        if (to > from) {
+            days.set(from, to);
+        }
+    }
+
+    public synchronized void release(LocalDateTime start,
+                                     LocalDateTime end,
+                                     BiPredicate<LocalDateTime, LocalDateTime> stillBooked) {
+        for (int index = indexOf(start.toLocalDate()); index <= indexOf(lastDay(end)); index++) {
+            LocalDateTime dayStart = LocalDate.ofEpochDay(originEpochDay + index).atStartOfDay();
+
+            if (!stillBooked.test(dayStart, dayStart.plusDays(1))) {
+                days.clear(index);
+            }
+        }
+    }
+
+    public synchronized List<LocalDate> freeDays(LocalDate from, LocalDate to) {
+        List<LocalDate> freeDays = new ArrayList<>();
+        int last = indexOf(to);
+
+        for (int index = days.nextClearBit(indexOf(from)); index <= last; index = days.nextClearBit(index + 1)) {
+            freeDays.add(LocalDate.ofEpochDay(originEpochDay + index));
+        }
+
+        return freeDays;
+    }
+
+    private int indexOf(LocalDate day) {
+        return (int) Math.max(0, day.toEpochDay() - originEpochDay);
+    }
+
+    private static LocalDate lastDay(LocalDateTime end) {
+        LocalDate day = end.toLocalDate();
+        return end.toLocalTime().equals(LocalTime.MIDNIGHT) ? day.minusDays(1) : day;
+    }
+}
@@ -0,0 +1,229 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public class BookingIntervalTree {
+    private static final Comparator<Long> ID_COMPARATOR = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private Node root;
+    private int size;
+
+    public synchronized void add(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, bookingId, start, end);
+    }
+
+    public synchronized void remove(Long bookingId, LocalDateTime start) {
+        root = delete(root, bookingId, start);
+    }
+
+    public synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+
+        while (node != null) {
+            if (node.start.isBefore(end) && start.isBefore(node.end)) {
+                return true;
+            }
+
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else if (node.start.isBefore(end)) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // drops the intervals ending not after now, returns how many were dropped
+    public synchronized int removeEnded(LocalDateTime now) {
+        List<Node> ended = new ArrayList<>();
+        collectEnded(root, now, ended);
+        ended.forEach(node -> root = delete(root, node.bookingId, node.start));
+        return ended.size();
+    }
+
+    public synchronized void forEach(BiConsumer<LocalDateTime, LocalDateTime> action) {
+        forEach(root, action);
+    }
+
+    private static void collectEnded(Node node, LocalDateTime now, List<Node> ended) {
+        if (node == null) {
+            return;
+        }
+
+        collectEnded(node.left, now, ended);
+
+        if (!node.end.isAfter(now)) {
+            ended.add(node);
+        }
+
+        collectEnded(node.right, now, ended);
+    }
+
+    private static void forEach(Node node, BiConsumer<LocalDateTime, LocalDateTime> action) {
+        if (node == null) {
+            return;
+        }
+
+        forEach(node.left, action);
+        action.accept(node.start, node.end);
+        forEach(node.right, action);
+    }
+
+    private Node insert(Node node, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (node == null) {
+            size++;
+            return new Node(bookingId, start, end);
+        }
+
+        int cmp = compare(start, bookingId, node);
+
+        if (cmp < 0) {
+            node.left = insert(node.left, bookingId, start, end);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, bookingId, start, end);
+        } else {
+            node.end = end;
+        }
+
+        return balance(node);
+    }
+
+    private Node delete(Node node, Long bookingId, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = compare(start, bookingId, node);
+
+        if (cmp < 0) {
+            node.left = delete(node.left, bookingId, start);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, bookingId, start);
+        } else {
+            size--;
+
+            if (node.left == null) {
+                return node.right;
+            }
+
+            if (node.right == null) {
+                return node.left;
+            }
+
+            Node successor = node.right;
+
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+
+            Node right = deleteMin(node.right);
+            successor.left = node.left;
+            successor.right = right;
+            node = successor;
+        }
+
+        return balance(node);
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+
+            return rotateRight(node);
+        }
+
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int compare(LocalDateTime start, Long bookingId, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : ID_COMPARATOR.compare(bookingId, node.bookingId);
+    }
+
+    private static class Node {
+        private final Long bookingId;
+        private final LocalDateTime start;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
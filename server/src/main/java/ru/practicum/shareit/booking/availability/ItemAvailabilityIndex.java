@@ -0,0 +1,187 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.util.Util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// the bookings of an item are changed only while holding the lock of its interval tree; a tree is dropped
+// from the map under that lock, so a writer that finds its tree no longer mapped takes a fresh one
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityIndex {
+    public static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, BookingIntervalTree> itemIntervals = new ConcurrentHashMap<>();
+    private final Map<Long, BookedDays> itemBookedDays = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        List<Booking> bookings = bookingRepository.findAllByStatusInAndEndAfter(BLOCKING_STATUSES, now);
+        bookings.forEach(booking -> reserve(booking, false));
+        log.info("Availability index loaded with {} bookings of {} items", bookings.size(), itemIntervals.size());
+    }
+
+    public void clear() {
+        itemIntervals.clear();
+        itemBookedDays.clear();
+    }
+
+    public boolean isAvailable(long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree intervals = itemIntervals.get(itemId);
+        return intervals == null || !intervals.overlaps(start, end);
+    }
+
+    public List<LocalDate> getFreeDays(long itemId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate firstDay = from.isBefore(today) ? today : from;
+
+        if (firstDay.isAfter(to)) {
+            return List.of();
+        }
+
+        BookedDays bookedDays = itemBookedDays.get(itemId);
+
+        if (bookedDays == null) {
+            return firstDay.datesUntil(to.plusDays(1)).toList();
+        }
+
+        return bookedDays.freeDays(firstDay, to);
+    }
+
+    // checks the interval and books it in one step, so of two concurrent overlapping bookings only one gets it;
+    // a saved booking is expected, it is taken out again if the transaction saving it doesn't commit
+    public boolean tryReserve(Booking booking) {
+        if (!reserve(booking, true)) {
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(booking);
+                    }
+                }
+            });
+        }
+
+        return true;
+    }
+
+    // frees the interval of a rejected or deleted booking once the change is committed
+    public void release(Booking booking) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(booking);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(booking);
+            }
+        });
+    }
+
+    // ended bookings can't block anything anymore; items left without bookings are dropped,
+    // the booked days of the others are rebuilt from today so the bitsets don't grow with the past
+    @Scheduled(fixedDelayString = "${shareit.availability.evict-interval:PT1H}")
+    public void evictEnded() {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        int evicted = 0;
+
+        for (Map.Entry<Long, BookingIntervalTree> entry : itemIntervals.entrySet()) {
+            Long itemId = entry.getKey();
+            BookingIntervalTree intervals = entry.getValue();
+
+            synchronized (intervals) {
+                int ended = intervals.removeEnded(now);
+
+                if (ended == 0) {
+                    continue;
+                }
+
+                evicted += ended;
+
+                if (intervals.size() == 0) {
+                    itemIntervals.remove(itemId, intervals);
+                    itemBookedDays.remove(itemId);
+                } else {
+                    BookedDays bookedDays = new BookedDays(now.toLocalDate());
+                    intervals.forEach(bookedDays::book);
+                    itemBookedDays.put(itemId, bookedDays);
+                }
+            }
+        }
+
+        if (evicted > 0) {
+            log.info("Evicted {} ended bookings from the availability index", evicted);
+        }
+    }
+
+    private boolean reserve(Booking booking, boolean checked) {
+        if (!BLOCKING_STATUSES.contains(booking.getStatus())) {
+            return true;
+        }
+
+        Long itemId = booking.getItem().getId();
+
+        while (true) {
+            BookingIntervalTree intervals = itemIntervals.computeIfAbsent(itemId, id -> new BookingIntervalTree());
+
+            synchronized (intervals) {
+                if (itemIntervals.get(itemId) != intervals) {
+                    continue;
+                }
+
+                if (checked && intervals.overlaps(booking.getStart(), booking.getEnd())) {
+                    return false;
+                }
+
+                intervals.add(booking.getId(), booking.getStart(), booking.getEnd());
+                itemBookedDays.computeIfAbsent(itemId, id -> new BookedDays(LocalDate.now()))
+                        .book(booking.getStart(), booking.getEnd());
+                return true;
+            }
+        }
+    }
+
+    private void remove(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        BookingIntervalTree intervals = itemIntervals.get(itemId);
+
+        if (intervals == null) {
+            return;
+        }
+
+        synchronized (intervals) {
+            intervals.remove(booking.getId(), booking.getStart());
+            BookedDays bookedDays = itemBookedDays.get(itemId);
+
+            if (bookedDays != null) {
+                bookedDays.release(booking.getStart(), booking.getEnd(), intervals::overlaps);
+            }
+        }
+    }
+}
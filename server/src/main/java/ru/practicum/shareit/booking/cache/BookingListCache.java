@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.cache;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Component
+public class BookingListCache {
+    private final long horizonSeconds;
+    private final int maxUsers;
+    private final int maxEntriesPerUser;
+    private final Map<Scope, Map<Key, BookingPageDto>> scopes;
+
+    private long generation;
+
+    public BookingListCache(@Value("${shareit.booking-list-cache.horizon:PT5S}") String horizon,
+                            @Value("${shareit.booking-list-cache.max-users:10000}") int maxUsers,
+                            @Value("${shareit.booking-list-cache.max-entries-per-user:16}") int maxEntriesPerUser) {
+        this.horizonSeconds = Duration.parse(horizon).toSeconds();
+        this.maxUsers = maxUsers;
+        this.maxEntriesPerUser = maxEntriesPerUser;
+        this.scopes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Scope, Map<Key, BookingPageDto>> eldest) {
+                return size() > BookingListCache.this.maxUsers;
+            }
+        };
+    }
+
+    public BookingPageDto get(BookingRole role,
+                              long userId,
+                              BookingState state,
+                              String cursor,
+                              Integer size,
+                              LocalDateTime now,
+                              Supplier<BookingPageDto> loader) {
+        if (horizonSeconds <= 0) {
+            return loader.get();
+        }
+
+        Scope scope = new Scope(role, userId);
+        Key key = new Key(state, cursor, size, now.toEpochSecond(ZoneOffset.UTC) / horizonSeconds);
+        long loadGeneration;
+
+        synchronized (this) {
+            Map<Key, BookingPageDto> pages = scopes.get(scope);
+            BookingPageDto page = pages == null ? null : pages.get(key);
+
+            if (page != null) {
+                return page;
+            }
+
+            loadGeneration = generation;
+        }
+
+        BookingPageDto page = loader.get();
+
+        synchronized (this) {
+            // an eviction while loading may have made the page stale
+            if (loadGeneration == generation) {
+                Map<Key, BookingPageDto> pages = scopes.computeIfAbsent(scope, s -> newPages());
+                pages.keySet().removeIf(cached -> cached.bucket != key.bucket);
+                pages.put(key, page);
+            }
+        }
+
+        return page;
+    }
+
+    public void evict(BookingRole role, Collection<Long> userIds) {
+        evictNowAndAfterCommit(() -> evictNow(role, userIds));
+    }
+
+    public void evictAll() {
+        evictNowAndAfterCommit(this::clear);
+    }
+
+    private void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private synchronized void evictNow(BookingRole role, Collection<Long> userIds) {
+        generation++;
+        userIds.forEach(userId -> scopes.remove(new Scope(role, userId)));
+    }
+
+    private synchronized void clear() {
+        generation++;
+        scopes.clear();
+    }
+
+    private Map<Key, BookingPageDto> newPages() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, BookingPageDto> eldest) {
+                return size() > maxEntriesPerUser;
+            }
+        };
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Scope {
+        private final BookingRole role;
+        private final long userId;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final BookingState state;
+        private final String cursor;
+        private final Integer size;
+        private final long bucket;
+    }
+}
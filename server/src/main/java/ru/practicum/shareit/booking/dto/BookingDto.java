@@ -1,19 +1,31 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.DateTimeCodec;
+
+import java.time.LocalDateTime;
 
 @Data
 @Builder(toBuilder = true)
 @AllArgsConstructor
 public class BookingDto {
     private Long id;
-    private String start;
-    private String end;
+
+    @JsonSerialize(using = DateTimeCodec.Serializer.class)
+    @JsonDeserialize(using = DateTimeCodec.Deserializer.class)
+    private LocalDateTime start;
+
+    @JsonSerialize(using = DateTimeCodec.Serializer.class)
+    @JsonDeserialize(using = DateTimeCodec.Deserializer.class)
+    private LocalDateTime end;
+
     private ItemDto item;
     private UserDto booker;
     private BookingStatus status;
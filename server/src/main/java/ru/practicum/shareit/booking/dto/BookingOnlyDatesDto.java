@@ -1,14 +1,25 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import ru.practicum.shareit.util.DateTimeCodec;
+
+import java.time.LocalDateTime;
 
 @Data
 @Builder(toBuilder = true)
 @AllArgsConstructor
 public class BookingOnlyDatesDto {
     private Long id;
-    private String start;
-    private String end;
+
+    @JsonSerialize(using = DateTimeCodec.Serializer.class)
+    @JsonDeserialize(using = DateTimeCodec.Deserializer.class)
+    private LocalDateTime start;
+
+    @JsonSerialize(using = DateTimeCodec.Serializer.class)
+    @JsonDeserialize(using = DateTimeCodec.Deserializer.class)
+    private LocalDateTime end;
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface BookingArchiveService {
+    int archive();
+
+    boolean mayContain(BookingState state, LocalDateTime endFrom);
+
+    List<Booking> findPage(BookingRole role, long userId, BookingState state, BookingCursor cursor, Integer size);
+
+    Stream<Booking> stream(BookingRole role, long userId, BookingState state);
+
+    Map<BookingState, Long> count(BookingRole role, long userId);
+
+    Optional<Booking> findBooking(long bookingId);
+
+    boolean hasStartedBooking(long bookerId, long itemId, LocalDateTime now);
+}
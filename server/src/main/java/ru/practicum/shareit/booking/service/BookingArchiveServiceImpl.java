@@ -0,0 +1,190 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.ArchivedBooking;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.storage.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.util.Util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class BookingArchiveServiceImpl implements BookingArchiveService {
+    // WAITING is never archived and CURRENT/FUTURE bookings end in the future, so only these states reach history
+    private static final Set<BookingState> ARCHIVED_STATES
+            = EnumSet.of(BookingState.ALL, BookingState.PAST, BookingState.REJECTED);
+
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration hotWindow;
+    private final int chunkSize;
+
+    private volatile LocalDateTime newestArchivedEnd;
+
+    public BookingArchiveServiceImpl(BookingRepository bookingRepository,
+                                     ArchivedBookingRepository archivedBookingRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${shareit.booking-archive.hot-window:P365D}") String hotWindow,
+                                     @Value("${shareit.booking-archive.chunk-size:1000}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hotWindow = Duration.parse(hotWindow);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.interval:PT1H}")
+    public int archive() {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        LocalDateTime cutoff = now.minus(hotWindow);
+        int archived = 0;
+        int moved;
+
+        // every chunk commits on its own, so the archiver never holds locks on a large part of the table
+        do {
+            moved = Objects.requireNonNullElse(transactionTemplate.execute(status -> archiveChunk(cutoff, now)), 0);
+            archived += moved;
+        } while (moved == chunkSize);
+
+        loadNewestArchivedEnd();
+
+        if (archived > 0) {
+            log.info("Archived {} bookings ended before {}", archived, cutoff);
+        }
+
+        return archived;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadNewestArchivedEnd() {
+        newestArchivedEnd = archivedBookingRepository.findNewestEnd().orElse(null);
+    }
+
+    @Override
+    public boolean mayContain(BookingState state, LocalDateTime endFrom) {
+        LocalDateTime newestEnd = newestArchivedEnd;
+        return newestEnd != null
+                && ARCHIVED_STATES.contains(state)
+                && (endFrom == null || !newestEnd.isBefore(endFrom));
+    }
+
+    @Override
+    public List<Booking> findPage(BookingRole role,
+                                  long userId,
+                                  BookingState state,
+                                  BookingCursor cursor,
+                                  Integer size) {
+        BookingStatus status = getArchivedStatus(state);
+        LocalDateTime endBefore = cursor == null ? null : cursor.getEnd();
+        Long idBefore = cursor == null ? null : cursor.getId();
+        Limit limit = size == null ? Limit.unlimited() : Limit.of(size);
+
+        List<ArchivedBooking> bookings = role == BookingRole.BOOKER
+                ? archivedBookingRepository.findPageOfBooker(userId, status, endBefore, idBefore, limit)
+                : archivedBookingRepository.findPageOfOwner(userId, status, endBefore, idBefore, limit);
+
+        return bookings.stream()
+                .map(ArchivedBooking::toBooking)
+                .toList();
+    }
+
+    @Override
+    public Stream<Booking> stream(BookingRole role, long userId, BookingState state) {
+        BookingStatus status = getArchivedStatus(state);
+
+        Stream<ArchivedBooking> bookings = role == BookingRole.BOOKER
+                ? archivedBookingRepository.streamAllOfBooker(userId, status)
+                : archivedBookingRepository.streamAllOfOwner(userId, status);
+
+        return bookings.map(ArchivedBooking::toBooking);
+    }
+
+    @Override
+    public Map<BookingState, Long> count(BookingRole role, long userId) {
+        List<Object[]> rows = role == BookingRole.BOOKER
+                ? archivedBookingRepository.countByStatusOfBooker(userId)
+                : archivedBookingRepository.countByStatusOfOwner(userId);
+
+        Map<BookingState, Long> counts = new EnumMap<>(BookingState.class);
+        ARCHIVED_STATES.forEach(state -> counts.put(state, 0L));
+
+        for (Object[] row : rows) {
+            BookingStatus status = (BookingStatus) row[0];
+            long count = ((Number) row[1]).longValue();
+
+            counts.merge(BookingState.ALL, count, Long::sum);
+
+            if (status == BookingStatus.APPROVED) {
+                counts.merge(BookingState.PAST, count, Long::sum);
+            } else if (status == BookingStatus.REJECTED) {
+                counts.merge(BookingState.REJECTED, count, Long::sum);
+            }
+        }
+
+        return counts;
+    }
+
+    @Override
+    public Optional<Booking> findBooking(long bookingId) {
+        return archivedBookingRepository.findWithItemAndBookerById(bookingId)
+                .map(ArchivedBooking::toBooking);
+    }
+
+    @Override
+    public boolean hasStartedBooking(long bookerId, long itemId, LocalDateTime now) {
+        return newestArchivedEnd != null && archivedBookingRepository
+                .existsByBookerIdAndItemIdAndStatusAndStartBefore(bookerId, itemId, BookingStatus.APPROVED, now);
+    }
+
+    private int archiveChunk(LocalDateTime cutoff, LocalDateTime now) {
+        List<Long> ids = bookingRepository.findIdsEndedBeforeWithStatusNot(cutoff, BookingStatus.WAITING,
+                Limit.of(chunkSize));
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        archivedBookingRepository.copyFromBookings(ids, now);
+        bookingRepository.deleteAllByIds(ids);
+        return ids.size();
+    }
+
+    private static BookingStatus getArchivedStatus(BookingState state) {
+        return switch (state) {
+            case ALL -> null;
+            case PAST -> BookingStatus.APPROVED;
+            case REJECTED -> BookingStatus.REJECTED;
+            default -> throw new IllegalArgumentException(String.format("Bookings in state '%s' are never archived",
+                    state));
+        };
+    }
+}
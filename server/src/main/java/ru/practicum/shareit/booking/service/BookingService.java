@@ -1,19 +1,36 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(long userId, BookingCreateDto bookingCreateDto);
 
+    List<BookingBatchResultDto> createBookings(long userId, List<BookingCreateDto> bookingCreateDtos);
+
     BookingDto processBookingByOwner(long ownerId, Boolean approved, long bookingId);
 
+    List<BookingDto> processBookingsByOwner(long ownerId, Boolean approved, BookingBulkDecisionDto decision);
+
     BookingDto getBooking(long userId, long bookingId);
 
-    List<BookingDto> getAllBookingsWithState(long userId, BookingState state);
+    BookingPageDto getAllBookingsWithState(long userId, BookingState state, String cursor, Integer size);
+
+    BookingPageDto getAllBookingsOfItemsForOwner(long ownerId, BookingState state, String cursor, Integer size);
+
+    BookingStateCountsDto countBookingsByState(long userId);
+
+    BookingStateCountsDto countBookingsOfItemsForOwnerByState(long ownerId);
+
+    void streamAllBookingsWithState(long userId, BookingState state, Consumer<BookingDto> consumer);
 
-    List<BookingDto> getAllBookingsOfItemsForOwner(long ownerId, BookingState state);
+    void streamAllBookingsOfItemsForOwner(long ownerId, BookingState state, Consumer<BookingDto> consumer);
 }
@@ -1,23 +1,38 @@
 package ru.practicum.shareit.booking.service;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRole;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.QBooking;
+import ru.practicum.shareit.booking.availability.BookingIntervalTree;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.cache.BookingListCache;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.BookingUnavailable;
 import ru.practicum.shareit.exception.IllegalOwner;
 import ru.practicum.shareit.exception.NotFound;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.storage.UserRepository;
@@ -25,20 +40,45 @@ import ru.practicum.shareit.util.RepositoryUtil;
 import ru.practicum.shareit.util.Util;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "end", "id");
+    private static final Comparator<Booking> KEYSET_ORDER
+            = Comparator.comparing(Booking::getEnd).thenComparing(Booking::getId).reversed();
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final BookingMapper bookingMapper;
     private final UserMapper userMapper;
     private final ItemMapper itemMapper;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final EntityManager entityManager;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingListCache bookingListCache;
+    private final OutboxService outboxService;
+    private final BookingArchiveService bookingArchiveService;
+    private final ItemDetailCache itemDetailCache;
 
     @Override
     public BookingDto createBooking(long userId, BookingCreateDto bookingCreateDto) {
@@ -46,35 +86,144 @@ public class BookingServiceImpl implements BookingService {
         User user = RepositoryUtil.getUserWithCheck(userRepository, userId);
         Item item = RepositoryUtil.getItemWithCheck(itemRepository, bookingCreateDto.getItemId());
         Booking booking = bookingMapper.fromBookingCreateDto(bookingCreateDto, item, user);
+        checkBookingAvailable(now, booking);
+        Booking savedBooking = bookingRepository.save(booking);
+        reserve(savedBooking);
+        itemBookingSummaryService.refresh(now, List.of(item.getId()));
+        evictCaches(List.of(savedBooking));
+        return publishBookingEvent(OutboxEventType.BOOKING_CREATED, savedBooking);
+    }
 
-        if (booking.getStart().isBefore(now)) {
-            throw new BookingUnavailable(String.format("Incorrect data times: " +
-                    "start date %s in past rel now %s", booking.getStart(), now));
+    @Override
+    public List<BookingBatchResultDto> createBookings(long userId, List<BookingCreateDto> bookingCreateDtos) {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        User user = RepositoryUtil.getUserWithCheck(userRepository, userId);
+
+        List<Long> itemIds = bookingCreateDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .distinct()
+                .toList();
+
+        Map<Long, Item> items = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        Map<Long, BookingIntervalTree> acceptedIntervals = new HashMap<>();
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingCreateDtos.size());
+        List<Booking> accepted = new ArrayList<>();
+
+        for (int index = 0; index < bookingCreateDtos.size(); index++) {
+            BookingCreateDto bookingCreateDto = bookingCreateDtos.get(index);
+            Item item = items.get(bookingCreateDto.getItemId());
+
+            if (item == null) {
+                results.add(failedBatchEntry(index,
+                        String.format("Item with id %d not found.", bookingCreateDto.getItemId())));
+                continue;
+            }
+
+            try {
+                Booking booking = bookingMapper.fromBookingCreateDto(bookingCreateDto, item, user);
+                checkBookingAvailable(now, booking);
+                BookingIntervalTree intervals = acceptedIntervals
+                        .computeIfAbsent(item.getId(), id -> new BookingIntervalTree());
+
+                if (intervals.overlaps(booking.getStart(), booking.getEnd())) {
+                    throw new BookingUnavailable(String.format("Item with id %d is booked twice in the batch " +
+                            "between %s and %s", item.getId(), booking.getStart(), booking.getEnd()));
+                }
+
+                intervals.add((long) index, booking.getStart(), booking.getEnd());
+                accepted.add(booking);
+                results.add(new BookingBatchResultDto(index, null, null));
+            } catch (BookingUnavailable | DateTimeParseException e) {
+                results.add(failedBatchEntry(index, e.getMessage()));
+            }
         }
 
-        if (!item.getAvailable()) {
-            throw new BookingUnavailable(String.format("Item with id %d is not available", item.getId()));
+        bookingRepository.insertAll(accepted);
+        accepted.forEach(this::reserve);
+        itemBookingSummaryService.refresh(now, accepted.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .toList());
+        evictCaches(accepted);
+        Iterator<Booking> savedBookings = accepted.iterator();
+
+        for (BookingBatchResultDto result : results) {
+            if (result.getError() == null) {
+                Booking savedBooking = savedBookings.next();
+                result.setBooking(publishBookingEvent(OutboxEventType.BOOKING_CREATED, savedBooking));
+            }
         }
 
-        return buildBookingDto(bookingRepository.save(booking));
+        return results;
     }
 
     @Override
     public BookingDto processBookingByOwner(long ownerId, Boolean approved, long bookingId) {
-        Booking booking = getBookingWithCheck(bookingId);
-        Item item = booking.getItem();
-        User owner = item.getOwner();
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = bookingRepository.updateStatusOfOwnerBookings(ownerId, List.of(bookingId),
+                BookingStatus.WAITING, status);
 
-        if (!owner.getId().equals(ownerId)) {
-            throw new BookingUnavailable("(Un)Approve booking can only the owner");
+        if (updated == 0) {
+            throw getDecisionFailure(ownerId, bookingId);
         }
 
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new BookingUnavailable("Only for booking with status WAITING can set APPROVED or REJECTED status");
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NotFound(String.format("Booking with id %d not found", bookingId)));
+
+        if (!approved) {
+            itemAvailabilityIndex.release(booking);
         }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return buildBookingDto(bookingRepository.save(booking));
+        evictCaches(List.of(booking));
+        return publishBookingEvent(getDecisionEventType(status), booking);
+    }
+
+    @Override
+    public List<BookingDto> processBookingsByOwner(long ownerId, Boolean approved, BookingBulkDecisionDto decision) {
+        User owner = RepositoryUtil.getUserWithCheck(userRepository, ownerId);
+        List<Long> bookingIds = decision.getBookingIds();
+
+        if ((bookingIds == null) == (decision.getItemId() == null)) {
+            throw new BookingUnavailable("Either booking ids or item id should be set for bulk (un)approve");
+        }
+
+        List<Booking> processedBookings;
+
+        if (decision.getItemId() != null) {
+            Item item = RepositoryUtil.getItemWithCheck(itemRepository, decision.getItemId());
+            RepositoryUtil.checkOwnerRightsForItem(item, owner);
+            processedBookings = bookingRepository.findAllWithItemAndBookerOfItemWithStatus(item.getId(),
+                    BookingStatus.WAITING);
+        } else {
+            processedBookings = RepositoryUtil.findAllInChunks(bookingIds.stream().distinct().toList(),
+                    ids -> bookingRepository.findAllWithItemAndBookerOfOwnerWithStatus(ownerId, ids,
+                            BookingStatus.WAITING));
+        }
+
+        if (processedBookings.isEmpty()) {
+            return List.of();
+        }
+
+        // the bookings read are locked, so the update changes exactly them and they needn't be read again
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        RepositoryUtil.updateAllInChunks(processedBookings.stream().map(Booking::getId).toList(),
+                ids -> bookingRepository.updateStatusOfOwnerBookings(ownerId, ids, BookingStatus.WAITING, status));
+        processedBookings.forEach(booking -> booking.setStatus(status));
+
+        if (!approved) {
+            processedBookings.forEach(itemAvailabilityIndex::release);
+        }
+
+        evictCaches(processedBookings);
+
+        OutboxEventType eventType = getDecisionEventType(status);
+
+        return processedBookings.stream()
+                .map(booking -> publishBookingEvent(eventType, booking))
+                .toList();
     }
 
     @Override
@@ -93,48 +242,123 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<BookingDto> getAllBookingsWithState(long userId, BookingState state) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BookingPageDto getAllBookingsWithState(long userId, BookingState state, String cursor, Integer size) {
         LocalDateTime now = Util.getNowTruncatedToSeconds();
-        RepositoryUtil.getUserWithCheck(userRepository, userId);
-        BooleanExpression conditions = QBooking.booking.booker.id.eq(userId);
-        Optional<BooleanExpression> additionalConditions = getBookingConditionsByState(now, state);
 
-        if (additionalConditions.isPresent()) {
-            conditions = conditions.and(additionalConditions.get());
-        }
+        return bookingListCache.get(BookingRole.BOOKER, userId, state, cursor, size, now, () -> {
+            RepositoryUtil.getUserWithCheck(userRepository, userId);
+            BooleanExpression conditions = QBooking.booking.booker.id.eq(userId);
+            return findBookingPage(BookingRole.BOOKER, userId, conditions, now, state, cursor, size);
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public BookingPageDto getAllBookingsOfItemsForOwner(long ownerId, BookingState state, String cursor, Integer size) {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+
+        return bookingListCache.get(BookingRole.OWNER, ownerId, state, cursor, size, now, () -> {
+            RepositoryUtil.getUserWithCheck(userRepository, ownerId);
+
+            if (!itemRepository.existsByOwnerId(ownerId)) {
+                throw new NotFound(String.format("User with id %d have not items", ownerId));
+            }
 
-        Iterable<Booking> bookings = bookingRepository.findAll(conditions, QBooking.booking.end.desc());
-        return toOrderedDtoList(bookings);
+            BooleanExpression conditions = QBooking.booking.item.owner.id.eq(ownerId);
+            return findBookingPage(BookingRole.OWNER, ownerId, conditions, now, state, cursor, size);
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getAllBookingsOfItemsForOwner(long ownerId, BookingState state) {
+    public BookingStateCountsDto countBookingsByState(long userId) {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        RepositoryUtil.getUserWithCheck(userRepository, userId);
+        return countBookingsByState(BookingRole.BOOKER, userId, QBooking.booking.booker.id.eq(userId), now);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingStateCountsDto countBookingsOfItemsForOwnerByState(long ownerId) {
         LocalDateTime now = Util.getNowTruncatedToSeconds();
         RepositoryUtil.getUserWithCheck(userRepository, ownerId);
-        List<Item> userItems = itemRepository.findAllByOwnerId(ownerId);
 
-        if (userItems.isEmpty()) {
+        if (!itemRepository.existsByOwnerId(ownerId)) {
             throw new NotFound(String.format("User with id %d have not items", ownerId));
         }
 
-        BooleanExpression conditions = QBooking.booking.item.in(userItems);
-        Optional<BooleanExpression> additionalConditions = getBookingConditionsByState(now, state);
+        return countBookingsByState(BookingRole.OWNER, ownerId, QBooking.booking.item.owner.id.eq(ownerId), now);
+    }
 
-        if (additionalConditions.isPresent()) {
-            conditions = conditions.and(additionalConditions.get());
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllBookingsWithState(long userId, BookingState state, Consumer<BookingDto> consumer) {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        RepositoryUtil.getUserWithCheck(userRepository, userId);
+        BooleanExpression conditions = QBooking.booking.booker.id.eq(userId);
+        streamBookings(BookingRole.BOOKER, userId, conditions, now, state, consumer);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllBookingsOfItemsForOwner(long ownerId, BookingState state, Consumer<BookingDto> consumer) {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        RepositoryUtil.getUserWithCheck(userRepository, ownerId);
+
+        if (!itemRepository.existsByOwnerId(ownerId)) {
+            throw new NotFound(String.format("User with id %d have not items", ownerId));
         }
 
-        Iterable<Booking> bookings = bookingRepository.findAll(conditions, QBooking.booking.end.desc());
-        return toOrderedDtoList(bookings);
+        BooleanExpression conditions = QBooking.booking.item.owner.id.eq(ownerId);
+        streamBookings(BookingRole.OWNER, ownerId, conditions, now, state, consumer);
     }
 
     private Booking getBookingWithCheck(long bookingId) {
         return bookingRepository.findById(bookingId)
+                .or(() -> bookingArchiveService.findBooking(bookingId))
                 .orElseThrow(() -> new NotFound(String.format("Booking with id %d not found", bookingId)));
     }
 
+    private BookingDto publishBookingEvent(OutboxEventType type, Booking booking) {
+        BookingDto bookingDto = buildBookingDto(booking);
+        outboxService.add(type, booking.getId(), bookingDto);
+        return bookingDto;
+    }
+
+    private static OutboxEventType getDecisionEventType(BookingStatus status) {
+        return status == BookingStatus.APPROVED ? OutboxEventType.BOOKING_APPROVED : OutboxEventType.BOOKING_REJECTED;
+    }
+
+    private BookingUnavailable getDecisionFailure(long ownerId, long bookingId) {
+        Booking booking = getBookingWithCheck(bookingId);
+
+        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
+            return new BookingUnavailable("(Un)Approve booking can only the owner");
+        }
+
+        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+            return new BookingUnavailable("Only for booking with status WAITING can set APPROVED or REJECTED status");
+        }
+
+        return new BookingUnavailable(String.format("Booking with id %d was changed concurrently", bookingId));
+    }
+
+    private void evictCaches(List<Booking> bookings) {
+        itemDetailCache.evict(bookings.stream()
+                .map(booking -> booking.getItem().getId())
+                .distinct()
+                .toList());
+        bookingListCache.evict(BookingRole.BOOKER, bookings.stream()
+                .map(booking -> booking.getBooker().getId())
+                .distinct()
+                .toList());
+        bookingListCache.evict(BookingRole.OWNER, bookings.stream()
+                .map(booking -> booking.getItem().getOwner().getId())
+                .distinct()
+                .toList());
+    }
+
     private BookingDto buildBookingDto(Booking booking) {
         return bookingMapper.toBookingDto(
                 booking,
@@ -149,6 +373,180 @@ public class BookingServiceImpl implements BookingService {
         return result;
     }
 
+    private BookingPageDto findBookingPage(BookingRole role,
+                                           long userId,
+                                           BooleanExpression conditions,
+                                           LocalDateTime now,
+                                           BookingState state,
+                                           String cursor,
+                                           Integer size) {
+        conditions = withStateConditions(conditions, now, state);
+        BookingCursor afterCursor = cursor == null ? null : BookingCursor.decode(cursor);
+
+        if (afterCursor != null) {
+            conditions = conditions.and(getConditionsAfterCursor(afterCursor));
+        }
+
+        List<Booking> bookings = bookingRepository.findAllWithItemAndBooker(conditions, KEYSET_SORT, size);
+        LocalDateTime lastEnd = size != null && bookings.size() == size ? bookings.getLast().getEnd() : null;
+
+        // history is read only when the recent bookings do not fill the page before archived ones
+        if (bookingArchiveService.mayContain(state, lastEnd)) {
+            List<Booking> archived = bookingArchiveService.findPage(role, userId, state, afterCursor, size);
+            bookings = mergeByKeyset(bookings, archived, size);
+        }
+
+        String nextCursor = null;
+
+        if (size != null && bookings.size() == size) {
+            nextCursor = BookingCursor.of(bookings.getLast()).encode();
+        }
+
+        return new BookingPageDto(toOrderedDtoList(bookings), nextCursor);
+    }
+
+    private void checkBookingAvailable(LocalDateTime now, Booking booking) {
+        Item item = booking.getItem();
+
+        if (booking.getStart().isBefore(now)) {
+            throw new BookingUnavailable(String.format("Incorrect data times: " +
+                    "start date %s in past rel now %s", booking.getStart(), now));
+        }
+
+        if (!item.getAvailable()) {
+            throw new BookingUnavailable(String.format("Item with id %d is not available", item.getId()));
+        }
+
+        if (!itemAvailabilityIndex.isAvailable(item.getId(), booking.getStart(), booking.getEnd())) {
+            throw new BookingUnavailable(String.format("Item with id %d is already booked " +
+                    "between %s and %s", item.getId(), booking.getStart(), booking.getEnd()));
+        }
+    }
+
+    // the check above is only a fast path, this one is atomic: a booking that lost a race to an overlapping one
+    // fails, and its insert is rolled back with the transaction
+    private void reserve(Booking booking) {
+        if (!itemAvailabilityIndex.tryReserve(booking)) {
+            throw new BookingUnavailable(String.format("Item with id %d is already booked between %s and %s",
+                    booking.getItem().getId(), booking.getStart(), booking.getEnd()));
+        }
+    }
+
+    private static BookingBatchResultDto failedBatchEntry(int index, String error) {
+        return new BookingBatchResultDto(index, null, error);
+    }
+
+    private BookingStateCountsDto countBookingsByState(BookingRole role,
+                                                       long userId,
+                                                       BooleanExpression conditions,
+                                                       LocalDateTime now) {
+        Map<BookingState, BooleanExpression> stateConditions = new EnumMap<>(BookingState.class);
+
+        for (BookingState state : BookingState.values()) {
+            stateConditions.put(state, getBookingConditionsByState(now, state)
+                    .orElse(QBooking.booking.id.isNotNull()));
+        }
+
+        Map<BookingState, Long> counts = new HashMap<>(bookingRepository.countMatching(conditions, stateConditions));
+
+        if (bookingArchiveService.mayContain(BookingState.ALL, null)) {
+            bookingArchiveService.count(role, userId).forEach((state, count) -> counts.merge(state, count, Long::sum));
+        }
+
+        return BookingStateCountsDto.builder()
+                .all(counts.get(BookingState.ALL))
+                .current(counts.get(BookingState.CURRENT))
+                .past(counts.get(BookingState.PAST))
+                .future(counts.get(BookingState.FUTURE))
+                .waiting(counts.get(BookingState.WAITING))
+                .rejected(counts.get(BookingState.REJECTED))
+                .build();
+    }
+
+    private void streamBookings(BookingRole role,
+                                long userId,
+                                BooleanExpression conditions,
+                                LocalDateTime now,
+                                BookingState state,
+                                Consumer<BookingDto> consumer) {
+        BooleanExpression stateConditions = withStateConditions(conditions, now, state);
+
+        try (Stream<Booking> bookings = bookingRepository.streamAllWithItemAndBooker(stateConditions, KEYSET_SORT);
+             Stream<Booking> archived = bookingArchiveService.mayContain(state, null)
+                     ? bookingArchiveService.stream(role, userId, state)
+                     : Stream.empty()) {
+            Iterator<Booking> iterator = mergeByKeyset(bookings.iterator(), archived.iterator());
+            int streamed = 0;
+
+            while (iterator.hasNext()) {
+                consumer.accept(buildBookingDto(iterator.next()));
+
+                if (++streamed % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    private static List<Booking> mergeByKeyset(List<Booking> bookings, List<Booking> archived, Integer size) {
+        Set<Long> ids = new HashSet<>();
+
+        // a booking moved by a concurrent archiver may be read from both tables
+        return Stream.concat(bookings.stream(), archived.stream())
+                .filter(booking -> ids.add(booking.getId()))
+                .sorted(KEYSET_ORDER)
+                .limit(size == null ? Long.MAX_VALUE : size)
+                .toList();
+    }
+
+    private static Iterator<Booking> mergeByKeyset(Iterator<Booking> bookings, Iterator<Booking> archived) {
+        return new Iterator<>() {
+            private Booking nextBooking = nextOrNull(bookings);
+            private Booking nextArchived = nextOrNull(archived);
+
+            @Override
+            public boolean hasNext() {
+                return nextBooking != null || nextArchived != null;
+            }
+
+            @Override
+            public Booking next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                int order = nextBooking == null ? 1 : nextArchived == null ? -1 : KEYSET_ORDER.compare(nextBooking,
+                        nextArchived);
+                Booking next = order <= 0 ? nextBooking : nextArchived;
+
+                if (order <= 0) {
+                    nextBooking = nextOrNull(bookings);
+                }
+
+                if (order >= 0) {
+                    nextArchived = nextOrNull(archived);
+                }
+
+                return next;
+            }
+        };
+    }
+
+    private static Booking nextOrNull(Iterator<Booking> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private BooleanExpression withStateConditions(BooleanExpression conditions, LocalDateTime now, BookingState state) {
+        Optional<BooleanExpression> additionalConditions = getBookingConditionsByState(now, state);
+        return additionalConditions.map(conditions::and).orElse(conditions);
+    }
+
+    private BooleanExpression getConditionsAfterCursor(BookingCursor cursor) {
+        QBooking qBooking = QBooking.booking;
+        return qBooking.end.before(cursor.getEnd())
+                .or(qBooking.end.eq(cursor.getEnd()).and(qBooking.id.lt(cursor.getId())));
+    }
+
     private Optional<BooleanExpression> getBookingConditionsByState(LocalDateTime now, BookingState state) {
         BooleanExpression dateTimeExpression;
         BooleanExpression statusExpression;
@@ -169,7 +567,8 @@ public class BookingServiceImpl implements BookingService {
                 return Optional.of(dateTimeExpression.and(statusExpression));
 
             case FUTURE:
-                dateTimeExpression = qBooking.start.after(now);
+                // the redundant end bound keeps the scan on the recent range of idx_bookings_end
+                dateTimeExpression = qBooking.start.after(now).and(qBooking.end.after(now));
                 statusExpression = qBooking.status.eq(BookingStatus.APPROVED);
                 return Optional.of(dateTimeExpression.and(statusExpression));
 
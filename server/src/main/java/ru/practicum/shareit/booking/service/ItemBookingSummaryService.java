@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+    Map<Long, ItemBookingSummary> getSummaries(LocalDateTime now, List<Long> itemIds);
+
+    void initialize(Long itemId);
+
+    void initializeAll(List<Long> itemIds);
+
+    void refresh(LocalDateTime now, List<Long> itemIds);
+
+    void refreshExpired();
+}
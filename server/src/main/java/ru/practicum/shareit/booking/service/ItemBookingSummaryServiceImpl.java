@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryRepository;
+import ru.practicum.shareit.util.RepositoryUtil;
+import ru.practicum.shareit.util.Util;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final BookingRepository bookingRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingSummary> getSummaries(LocalDateTime now, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Map<Long, ItemBookingSummary> summaries = RepositoryUtil
+                .findAllInChunks(itemIds, itemBookingSummaryRepository::findAllById)
+                .stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        List<Long> expiredItemIds = summaries.values()
+                .stream()
+                .filter(summary -> summary.isExpired(now))
+                .map(ItemBookingSummary::getItemId)
+                .toList();
+
+        if (!expiredItemIds.isEmpty()) {
+            buildSummaries(now, expiredItemIds).forEach(summary -> summaries.put(summary.getItemId(), summary));
+        }
+
+        return summaries;
+    }
+
+    @Override
+    public void initialize(Long itemId) {
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder().itemId(itemId).build());
+    }
+
+    @Override
+    public void initializeAll(List<Long> itemIds) {
+        RepositoryUtil.updateAllInChunks(itemIds, itemBookingSummaryRepository::insertEmptyForItems);
+    }
+
+    @Override
+    public void refresh(LocalDateTime now, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+
+        // summaries have assigned ids, so saveAll merges them; loading them first in chunks lets every merge
+        // find its entity in the persistence context instead of selecting it on its own
+        RepositoryUtil.findAllInChunks(itemIds, itemBookingSummaryRepository::findAllById);
+        itemBookingSummaryRepository.saveAll(buildSummaries(now, itemIds));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.refresh-interval:PT1M}")
+    public void refreshExpired() {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        List<Long> expiredItemIds = itemBookingSummaryRepository.findExpiredItemIds(now);
+
+        if (!expiredItemIds.isEmpty()) {
+            refresh(now, expiredItemIds);
+            log.debug("Booking summary refreshed for {} items", expiredItemIds.size());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        List<Long> itemIds = itemBookingSummaryRepository.findItemIdsWithoutSummary();
+
+        if (!itemIds.isEmpty()) {
+            refresh(now, itemIds);
+            log.info("Booking summary created for {} items", itemIds.size());
+        }
+    }
+
+    private List<ItemBookingSummary> buildSummaries(LocalDateTime now, List<Long> itemIds) {
+        Map<Long, Booking> lastBookings = RepositoryUtil
+                .findAllInChunks(itemIds, ids -> bookingRepository.findAllLastBookingsForItems(now, ids))
+                .stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+
+        Map<Long, Booking> nextBookings = RepositoryUtil
+                .findAllInChunks(itemIds, ids -> bookingRepository.findAllNearestNextBookingsForItems(now, ids))
+                .stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+
+        return itemIds.stream()
+                .map(itemId -> buildSummary(itemId, lastBookings.get(itemId), nextBookings.get(itemId)))
+                .toList();
+    }
+
+    private static ItemBookingSummary buildSummary(Long itemId, Booking lastBooking, Booking nextBooking) {
+        ItemBookingSummary.ItemBookingSummaryBuilder summary = ItemBookingSummary.builder().itemId(itemId);
+        LocalDateTime validUntil = null;
+
+        if (lastBooking != null) {
+            summary.lastBookingId(lastBooking.getId())
+                    .lastStart(lastBooking.getStart())
+                    .lastEnd(lastBooking.getEnd());
+            validUntil = lastBooking.getEnd();
+        }
+
+        if (nextBooking != null) {
+            summary.nextBookingId(nextBooking.getId())
+                    .nextStart(nextBooking.getStart())
+                    .nextEnd(nextBooking.getEnd());
+
+            if (validUntil == null || nextBooking.getStart().isBefore(validUntil)) {
+                validUntil = nextBooking.getStart();
+            }
+        }
+
+        return summary.validUntil(validUntil).build();
+    }
+}
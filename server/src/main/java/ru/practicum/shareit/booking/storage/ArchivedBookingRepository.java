@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.ArchivedBooking;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    @Query("SELECT a FROM ArchivedBooking a JOIN FETCH a.item JOIN FETCH a.booker " +
+            "WHERE a.booker.id = ?1 AND (?2 IS NULL OR a.status = ?2) " +
+            "AND (?3 IS NULL OR a.end < ?3 OR (a.end = ?3 AND a.id < ?4)) " +
+            "ORDER BY a.end DESC, a.id DESC")
+    List<ArchivedBooking> findPageOfBooker(Long bookerId, BookingStatus status, LocalDateTime endBefore,
+                                           Long idBefore, Limit limit);
+
+    @Query("SELECT a FROM ArchivedBooking a JOIN FETCH a.item JOIN FETCH a.booker " +
+            "WHERE a.item.owner.id = ?1 AND (?2 IS NULL OR a.status = ?2) " +
+            "AND (?3 IS NULL OR a.end < ?3 OR (a.end = ?3 AND a.id < ?4)) " +
+            "ORDER BY a.end DESC, a.id DESC")
+    List<ArchivedBooking> findPageOfOwner(Long ownerId, BookingStatus status, LocalDateTime endBefore,
+                                          Long idBefore, Limit limit);
+
+    @Query("SELECT a FROM ArchivedBooking a JOIN FETCH a.item JOIN FETCH a.booker " +
+            "WHERE a.booker.id = ?1 AND (?2 IS NULL OR a.status = ?2) " +
+            "ORDER BY a.end DESC, a.id DESC")
+    Stream<ArchivedBooking> streamAllOfBooker(Long bookerId, BookingStatus status);
+
+    @Query("SELECT a FROM ArchivedBooking a JOIN FETCH a.item JOIN FETCH a.booker " +
+            "WHERE a.item.owner.id = ?1 AND (?2 IS NULL OR a.status = ?2) " +
+            "ORDER BY a.end DESC, a.id DESC")
+    Stream<ArchivedBooking> streamAllOfOwner(Long ownerId, BookingStatus status);
+
+    @Query("SELECT a.status, COUNT(a) FROM ArchivedBooking a WHERE a.booker.id = ?1 GROUP BY a.status")
+    List<Object[]> countByStatusOfBooker(Long bookerId);
+
+    @Query("SELECT a.status, COUNT(a) FROM ArchivedBooking a WHERE a.item.owner.id = ?1 GROUP BY a.status")
+    List<Object[]> countByStatusOfOwner(Long ownerId);
+
+    @Query("SELECT a FROM ArchivedBooking a JOIN FETCH a.item JOIN FETCH a.booker WHERE a.id = ?1")
+    Optional<ArchivedBooking> findWithItemAndBookerById(Long id);
+
+    boolean existsByBookerIdAndItemIdAndStatusAndStartBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                             LocalDateTime dateTime);
+
+    @Query("SELECT MAX(a.end) FROM ArchivedBooking a")
+    Optional<LocalDateTime> findNewestEnd();
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value
+            = "INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, archived) " +
+            "SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status, ?2 " +
+            "FROM bookings b WHERE b.id IN (?1)")
+    int copyFromBookings(List<Long> ids, LocalDateTime archived);
+}
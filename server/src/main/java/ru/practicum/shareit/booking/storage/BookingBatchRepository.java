@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.storage;
+
+import ru.practicum.shareit.booking.Booking;
+
+import java.util.List;
+
+public interface BookingBatchRepository {
+    void insertAll(List<Booking> bookings);
+}
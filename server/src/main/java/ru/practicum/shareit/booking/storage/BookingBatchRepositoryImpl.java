@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import ru.practicum.shareit.booking.Booking;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class BookingBatchRepositoryImpl implements BookingBatchRepository {
+    private static final String INSERT_BOOKING = "INSERT INTO bookings (start_date, end_date, item_id, booker_id, " +
+            "status) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_BOOKING, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking booking = bookings.get(i);
+                        ps.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+                        ps.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+                        ps.setLong(3, booking.getItem().getId());
+                        ps.setLong(4, booking.getBooker().getId());
+                        ps.setShort(5, (short) booking.getStatus().ordinal());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+
+        for (int i = 0; i < bookings.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            bookings.get(i).setId(id.longValue());
+        }
+    }
+}
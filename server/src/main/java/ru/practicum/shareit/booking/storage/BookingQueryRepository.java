@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.Booking;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface BookingQueryRepository {
+    <K> Map<K, Long> countMatching(Predicate conditions, Map<K, BooleanExpression> subsets);
+
+    List<Booking> findAllWithItemAndBooker(Predicate conditions, Sort sort, Integer limit);
+
+    Stream<Booking> streamAllWithItemAndBooker(Predicate conditions, Sort sort);
+}
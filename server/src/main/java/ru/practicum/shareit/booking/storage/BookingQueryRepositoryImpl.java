@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.CaseBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.PathBuilderFactory;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.QBooking;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class BookingQueryRepositoryImpl implements BookingQueryRepository {
+    private final JPAQueryFactory queryFactory;
+    private final Querydsl querydsl;
+
+    public BookingQueryRepositoryImpl(EntityManager entityManager) {
+        this.queryFactory = new JPAQueryFactory(entityManager);
+        this.querydsl = new Querydsl(entityManager, new PathBuilderFactory().create(Booking.class));
+    }
+
+    @Override
+    public <K> Map<K, Long> countMatching(Predicate conditions, Map<K, BooleanExpression> subsets) {
+        List<K> keys = new ArrayList<>(subsets.keySet());
+
+        Expression<?>[] counters = keys.stream()
+                .map(key -> new CaseBuilder()
+                        .when(subsets.get(key))
+                        .then(Expressions.ONE)
+                        .otherwise(Expressions.ZERO)
+                        .sum())
+                .toArray(Expression<?>[]::new);
+
+        Tuple tuple = queryFactory
+                .select(counters)
+                .from(QBooking.booking)
+                .where(conditions)
+                .fetchOne();
+
+        Map<K, Long> counts = new LinkedHashMap<>();
+
+        for (int i = 0; i < keys.size(); i++) {
+            Number count = tuple == null ? null : tuple.get(i, Number.class);
+            counts.put(keys.get(i), count == null ? 0L : count.longValue());
+        }
+
+        return counts;
+    }
+
+    @Override
+    public List<Booking> findAllWithItemAndBooker(Predicate conditions, Sort sort, Integer limit) {
+        JPQLQuery<Booking> query = selectWithItemAndBooker(conditions, sort);
+        return limit == null ? query.fetch() : query.limit(limit).fetch();
+    }
+
+    @Override
+    public Stream<Booking> streamAllWithItemAndBooker(Predicate conditions, Sort sort) {
+        return selectWithItemAndBooker(conditions, sort).stream();
+    }
+
+    private JPQLQuery<Booking> selectWithItemAndBooker(Predicate conditions, Sort sort) {
+        QBooking booking = QBooking.booking;
+
+        return querydsl.applySorting(sort, queryFactory
+                .selectFrom(booking)
+                .join(booking.item).fetchJoin()
+                .join(booking.booker).fetchJoin()
+                .where(conditions));
+    }
+}
@@ -1,6 +1,11 @@
 package ru.practicum.shareit.booking.storage;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import ru.practicum.shareit.booking.Booking;
@@ -9,10 +14,12 @@ import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Booking> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, QuerydslPredicateExecutor<Booking>,
+        BookingBatchRepository, BookingQueryRepository {
     @Query(nativeQuery = true, value
             = "SELECT * FROM (" +
                 "SELECT *, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC) AS anchor " +
@@ -29,10 +36,54 @@ public interface BookingRepository extends JpaRepository<Booking, Long>, Queryds
             ") WHERE anchor = 1")
     List<Booking> findAllNearestNextBookingsForItems(LocalDateTime dateTime, List<Long> items);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
+
     Optional<Booking> findFirstByBookerAndItemAndStatusAndStartBefore(
             User booker,
             Item item,
             BookingStatus status,
             LocalDateTime now
     );
+
+    List<Booking> findAllByStatusInAndEndAfter(Collection<BookingStatus> statuses, LocalDateTime dateTime);
+
+    // the bookings that go away with the user: their own ones and the ones on their items
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i " +
+            "WHERE (b.booker.id = ?1 OR i.owner.id = ?1) AND b.status IN ?2 AND b.end > ?3")
+    List<Booking> findAllWithItemOfUserWithStatusInAndEndAfter(Long userId, Collection<BookingStatus> statuses,
+                                                              LocalDateTime dateTime);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.booker.id = ?1 AND b.item.owner.id <> ?1 AND b.end > ?2")
+    List<Long> findItemIdsOfOthersBookedByUserEndingAfter(Long userId, LocalDateTime dateTime);
+
+    // the bookings are locked until the end of the transaction, so a decision taken on them can't be overtaken
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE b.id IN ?2 AND i.owner.id = ?1 AND b.status = ?3 " +
+            "ORDER BY b.id")
+    List<Booking> findAllWithItemAndBookerOfOwnerWithStatus(Long ownerId, List<Long> ids, BookingStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.item.id = ?1 AND b.status = ?2 " +
+            "ORDER BY b.id")
+    List<Booking> findAllWithItemAndBookerOfItemWithStatus(Long itemId, BookingStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ?4, b.version = b.version + 1 " +
+            "WHERE b.id IN ?2 AND b.status = ?3 " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = ?1)")
+    int updateStatusOfOwnerBookings(Long ownerId, List<Long> ids, BookingStatus currentStatus,
+                                    BookingStatus newStatus);
+
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.end < ?1 AND b.status <> ?2 " +
+            "ORDER BY b.id")
+    List<Long> findIdsEndedBeforeWithStatusNot(LocalDateTime dateTime, BookingStatus status, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN ?1")
+    int deleteAllByIds(List<Long> ids);
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.validUntil <= ?1")
+    List<Long> findExpiredItemIds(LocalDateTime dateTime);
+
+    @Query(nativeQuery = true, value
+            = "SELECT i.id FROM items i " +
+            "WHERE NOT EXISTS (SELECT 1 FROM item_booking_summary s WHERE s.item_id = i.id)")
+    List<Long> findItemIdsWithoutSummary();
+
+    @Modifying
+    @Query(nativeQuery = true, value
+            = "INSERT INTO item_booking_summary (item_id) SELECT i.id FROM items i WHERE i.id IN (?1)")
+    int insertEmptyForItems(List<Long> itemIds);
+}
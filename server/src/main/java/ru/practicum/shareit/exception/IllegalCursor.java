@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class IllegalCursor extends RuntimeException {
+    public IllegalCursor(String message) {
+        super(message);
+    }
+}
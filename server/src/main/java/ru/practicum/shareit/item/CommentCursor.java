@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.IllegalCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@RequiredArgsConstructor
+public class CommentCursor {
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime created;
+    private final long id;
+
+    public static CommentCursor of(Comment comment) {
+        return new CommentCursor(comment.getCreated(), comment.getId());
+    }
+
+    public static CommentCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR);
+
+            if (parts.length != 2) {
+                throw new IllegalCursor(String.format("Malformed cursor '%s'", cursor));
+            }
+
+            return new CommentCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalCursor(String.format("Malformed cursor '%s'", cursor));
+        }
+    }
+
+    public String encode() {
+        String raw = created + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,8 +1,19 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ValidationException;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,21 +24,39 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.importer.CsvItemImportReader;
+import ru.practicum.shareit.item.importer.ItemImportReader;
+import ru.practicum.shareit.item.importer.NdjsonItemImportReader;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.util.NdjsonWriter;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class ItemController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final long MAX_AVAILABILITY_DAYS = 366;
+
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -37,6 +66,25 @@ public class ItemController {
         return itemService.create(userId, itemDto);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public void importItemsFromNdjson(@RequestHeader("X-Sharer-User-Id") long userId,
+                                      HttpServletRequest request,
+                                      HttpServletResponse response) throws IOException {
+        log.info("Request from user {} to import items from NDJSON", userId);
+        importItems(userId, new NdjsonItemImportReader(request.getInputStream(), objectMapper), response);
+    }
+
+    @PostMapping(path = "/import", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public void importItemsFromCsv(@RequestHeader("X-Sharer-User-Id") long userId,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        log.info("Request from user {} to import items from CSV", userId);
+        importItems(userId, new CsvItemImportReader(request.getInputStream()), response);
+    }
+
     @PatchMapping("/{itemId}")
     @ResponseStatus(HttpStatus.OK)
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
@@ -57,10 +105,54 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    @ResponseStatus(HttpStatus.OK)
-    public ItemWithBookingAndCommentsDto getItem(@PathVariable Long itemId) {
+    public ResponseEntity<ItemWithBookingAndCommentsDto> getItem(@PathVariable Long itemId, WebRequest request) {
         log.info("Request to get item {}", itemId);
-        return itemService.get(itemId);
+
+        // the tag is taken before the body, so a concurrent change can only leave it older than what is sent
+        if (request.checkNotModified(itemService.getETag(itemId))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        return ResponseEntity.ok(itemService.get(itemId));
+    }
+
+    @GetMapping("/{itemId}/comments")
+    @ResponseStatus(HttpStatus.OK)
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long itemId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) @Positive @Max(100)
+                                                        Integer size) {
+        log.info("Request to get comments of item {} from cursor '{}' with size {}", itemId, cursor, size);
+        CommentPageDto page = itemService.getComments(itemId, cursor, size);
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+
+        if (page.getNextCursor() != null) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+
+        return responseBuilder.body(page.getComments());
+    }
+
+    @GetMapping("/{itemId}/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long itemId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                   LocalDate from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                   LocalDate to) {
+        log.info("Request to get availability of item {} from {} to {}", itemId, from, to);
+
+        // the free days are listed one by one, so the range is bounded here as well as in the gateway
+        if (from.isAfter(to)) {
+            throw new ValidationException(String.format("Incorrect dates: from %s is after to %s", from, to));
+        }
+
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_AVAILABILITY_DAYS) {
+            throw new ValidationException(
+                    String.format("Availability may be requested for at most %d days", MAX_AVAILABILITY_DAYS));
+        }
+
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @GetMapping
@@ -70,10 +162,43 @@ public class ItemController {
         return itemService.getByOwner(userId);
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public void streamAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+                                      HttpServletResponse response) throws IOException {
+        log.info("Request to stream all items for user: {}", userId);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        NdjsonWriter writer = new NdjsonWriter(response.getOutputStream(), objectMapper);
+        itemService.streamByOwner(userId, writer::write);
+    }
+
     @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
-    public List<ItemDto> searchItems(@RequestParam String text) {
-        log.info("Request to search items with text: {}", text);
-        return itemService.search(text);
+    public List<ItemDto> searchItems(@RequestParam String text,
+                                     @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                     @RequestParam(defaultValue = "20") @Positive int size,
+                                     @RequestParam(defaultValue = "false") boolean fuzzy) {
+        log.info("Request to search items with text: {} from {} size {} fuzzy {}", text, from, size, fuzzy);
+        return itemService.search(text, from, size, fuzzy);
+    }
+
+    @GetMapping("/suggest")
+    @ResponseStatus(HttpStatus.OK)
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") @Positive int size) {
+        log.info("Request to suggest item names with prefix: {} size {}", prefix, size);
+        return itemService.suggest(prefix, size);
+    }
+
+    private void importItems(long userId, ItemImportReader reader, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        NdjsonWriter writer = new NdjsonWriter(response.getOutputStream(), objectMapper);
+
+        try (reader) {
+            itemImportService.importItems(userId, reader, results -> {
+                results.forEach(writer::write);
+                writer.flush();
+            });
+        }
     }
 }
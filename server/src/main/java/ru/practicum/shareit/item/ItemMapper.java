@@ -34,7 +34,9 @@ public class ItemMapper {
     public ItemWithBookingAndCommentsDto toItemWithBookingDto(Item item,
                                                               BookingOnlyDatesDto lastBooking,
                                                               BookingOnlyDatesDto nearestBooking,
-                                                              List<CommentDto> comments) {
+                                                              List<CommentDto> comments,
+                                                              long commentCount,
+                                                              String commentsCursor) {
         return ItemWithBookingAndCommentsDto.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -43,6 +45,8 @@ public class ItemMapper {
                 .lastBooking(lastBooking)
                 .nextBooking(nearestBooking)
                 .comments(comments)
+                .commentCount(commentCount)
+                .commentsCursor(commentsCursor)
                 .build();
     }
 
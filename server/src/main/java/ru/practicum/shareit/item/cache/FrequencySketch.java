@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.cache;
+
+// count-min sketch of 4-bit counters that are halved periodically, so that popularity fades with time
+class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L,
+            0xD6E8FEB86659FD93L};
+
+    private final byte[] counters;
+    private final int widthMask;
+    private final int sampleSize;
+
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        int width = Integer.highestOneBit(Math.max(expectedEntries, 16) - 1) << 1;
+        this.counters = new byte[DEPTH * width];
+        this.widthMask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    int frequency(long key) {
+        int frequency = MAX_COUNT;
+
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters[index(key, row)]);
+        }
+
+        return frequency;
+    }
+
+    void increment(long key) {
+        int minimum = frequency(key);
+
+        if (minimum == MAX_COUNT) {
+            return;
+        }
+
+        // conservative update: only the counters at the minimum grow, which keeps collisions from inflating them
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(key, row);
+
+            if (counters[index] == minimum) {
+                counters[index]++;
+            }
+        }
+
+        if (++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>= 1;
+        }
+
+        additions /= 2;
+    }
+
+    private int index(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+        hash ^= hash >>> 29;
+        return row * (widthMask + 1) + (int) (hash & widthMask);
+    }
+}
@@ -0,0 +1,262 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// W-TinyLFU: new entries land in a small LRU window and enter the main segmented LRU only if
+// the frequency sketch rates them above the main victim, so one-off reads can't flush popular items
+@Component
+public class ItemDetailCache {
+    private static final double WINDOW_SHARE = 0.01;
+    private static final double PROTECTED_SHARE = 0.8;
+    private static final int AVERAGE_ENTRY_WEIGHT = 1024;
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final long maxWeight;
+    private final long maxWindowWeight;
+    private final long maxProtectedWeight;
+    private final FrequencySketch sketch;
+
+    private final LinkedHashMap<Long, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, Entry> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+    private long generation;
+
+    public ItemDetailCache(@Value("${shareit.item-detail-cache.max-weight:64MB}") String maxWeight) {
+        this.maxWeight = DataSize.parse(maxWeight).toBytes();
+        this.maxWindowWeight = Math.max(1, (long) (this.maxWeight * WINDOW_SHARE));
+        this.maxProtectedWeight = (long) ((this.maxWeight - maxWindowWeight) * PROTECTED_SHARE);
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, this.maxWeight / AVERAGE_ENTRY_WEIGHT));
+    }
+
+    public ItemWithBookingAndCommentsDto get(Long itemId, LocalDateTime now, Supplier<Detail> loader) {
+        if (maxWeight <= 0) {
+            return loader.get().item();
+        }
+
+        long loadGeneration;
+
+        synchronized (this) {
+            sketch.increment(itemId);
+            Entry entry = find(itemId);
+
+            if (entry != null && isFresh(entry, now)) {
+                onHit(itemId, entry);
+                return entry.item;
+            }
+
+            if (entry != null) {
+                remove(itemId);
+            }
+
+            loadGeneration = generation;
+        }
+
+        Detail detail = loader.get();
+
+        synchronized (this) {
+            // an eviction while loading may have made the item stale
+            if (loadGeneration == generation && find(itemId) == null) {
+                add(itemId, new Entry(detail.item(), detail.validUntil(), weigh(detail.item())));
+            }
+        }
+
+        return detail.item();
+    }
+
+    public void evict(Long itemId) {
+        evictNowAndAfterCommit(() -> evictNow(itemId));
+    }
+
+    public void evict(Collection<Long> itemIds) {
+        evictNowAndAfterCommit(() -> itemIds.forEach(this::evictNow));
+    }
+
+    public void evictAll() {
+        evictNowAndAfterCommit(this::clear);
+    }
+
+    synchronized long weight() {
+        return windowWeight + probationWeight + protectedWeight;
+    }
+
+    synchronized boolean contains(Long itemId) {
+        return find(itemId) != null;
+    }
+
+    private void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private synchronized void evictNow(Long itemId) {
+        generation++;
+        remove(itemId);
+    }
+
+    private synchronized void clear() {
+        generation++;
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        windowWeight = 0;
+        probationWeight = 0;
+        protectedWeight = 0;
+    }
+
+    // the last and next bookings shift at the earliest of their boundaries, so the entry is stale from that moment on
+    private static boolean isFresh(Entry entry, LocalDateTime now) {
+        return entry.validUntil == null || now.isBefore(entry.validUntil);
+    }
+
+    private Entry find(Long itemId) {
+        Entry entry = window.get(itemId);
+
+        if (entry == null) {
+            entry = probation.get(itemId);
+        }
+
+        return entry == null ? protectedSegment.get(itemId) : entry;
+    }
+
+    private void onHit(Long itemId, Entry entry) {
+        if (probation.remove(itemId) == null) {
+            return;
+        }
+
+        probationWeight -= entry.weight;
+        protectedSegment.put(itemId, entry);
+        protectedWeight += entry.weight;
+
+        Iterator<Map.Entry<Long, Entry>> eldest = protectedSegment.entrySet().iterator();
+
+        while (protectedWeight > maxProtectedWeight && eldest.hasNext()) {
+            Map.Entry<Long, Entry> demoted = eldest.next();
+            eldest.remove();
+            protectedWeight -= demoted.getValue().weight;
+            probation.put(demoted.getKey(), demoted.getValue());
+            probationWeight += demoted.getValue().weight;
+        }
+    }
+
+    private void add(Long itemId, Entry entry) {
+        if (entry.weight > maxWeight - maxWindowWeight) {
+            return;
+        }
+
+        window.put(itemId, entry);
+        windowWeight += entry.weight;
+
+        Iterator<Map.Entry<Long, Entry>> eldest = window.entrySet().iterator();
+
+        while (windowWeight > maxWindowWeight && eldest.hasNext()) {
+            Map.Entry<Long, Entry> candidate = eldest.next();
+            eldest.remove();
+            windowWeight -= candidate.getValue().weight;
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    // all victims the candidate would displace are picked and rated first, so a rejected candidate evicts nothing
+    private void admit(Long itemId, Entry candidate) {
+        long excess = probationWeight + protectedWeight + candidate.weight - (maxWeight - maxWindowWeight);
+        int candidateFrequency = sketch.frequency(itemId);
+        Iterator<Map.Entry<Long, Entry>> probationVictims = probation.entrySet().iterator();
+        Iterator<Map.Entry<Long, Entry>> protectedVictims = protectedSegment.entrySet().iterator();
+        List<Long> victims = new ArrayList<>();
+
+        while (excess > 0) {
+            Map.Entry<Long, Entry> victim = probationVictims.hasNext()
+                    ? probationVictims.next()
+                    : protectedVictims.next();
+
+            if (sketch.frequency(victim.getKey()) >= candidateFrequency) {
+                return;
+            }
+
+            victims.add(victim.getKey());
+            excess -= victim.getValue().weight;
+        }
+
+        victims.forEach(this::remove);
+        probation.put(itemId, candidate);
+        probationWeight += candidate.weight;
+    }
+
+    private void remove(Long itemId) {
+        Entry entry = window.remove(itemId);
+
+        if (entry != null) {
+            windowWeight -= entry.weight;
+            return;
+        }
+
+        entry = probation.remove(itemId);
+
+        if (entry != null) {
+            probationWeight -= entry.weight;
+            return;
+        }
+
+        entry = protectedSegment.remove(itemId);
+
+        if (entry != null) {
+            protectedWeight -= entry.weight;
+        }
+    }
+
+    // rough retained size: object headers plus two bytes per char of every string
+    static long weigh(ItemWithBookingAndCommentsDto item) {
+        long weight = ENTRY_OVERHEAD + chars(item.getName()) + chars(item.getDescription());
+
+        if (item.getComments() != null) {
+            for (CommentDto comment : item.getComments()) {
+                weight += ENTRY_OVERHEAD + chars(comment.getText()) + chars(comment.getCreated())
+                        + chars(comment.getAuthorName());
+            }
+        }
+
+        return weight;
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : 2L * value.length();
+    }
+
+    public record Detail(ItemWithBookingAndCommentsDto item, LocalDateTime validUntil) {
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final ItemWithBookingAndCommentsDto item;
+        private final LocalDateTime validUntil;
+        private final long weight;
+    }
+}
@@ -18,4 +18,6 @@ public class ItemWithBookingAndCommentsDto {
     private BookingOnlyDatesDto lastBooking;
     private BookingOnlyDatesDto nextBooking;
     private List<CommentDto> comments;
+    private Long commentCount;
+    private String commentsCursor;
 }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+// like BufferedReader.readLine, but the part of a line past maxLength is skipped instead of buffered,
+// so a single huge line of an upload can't exhaust the heap
+class BoundedLineReader implements Closeable {
+    private final BufferedReader reader;
+    private final int maxLength;
+    private final StringBuilder line = new StringBuilder();
+
+    private boolean truncated;
+
+    BoundedLineReader(InputStream inputStream, int maxLength) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.maxLength = maxLength;
+    }
+
+    // null once the input is exhausted
+    String readLine() throws IOException {
+        line.setLength(0);
+        truncated = false;
+        int c = reader.read();
+
+        if (c < 0) {
+            return null;
+        }
+
+        while (c >= 0 && c != '\n' && c != '\r') {
+            if (line.length() < maxLength) {
+                line.append((char) c);
+            } else {
+                truncated = true;
+            }
+
+            c = reader.read();
+        }
+
+        if (c == '\r') {
+            reader.mark(1);
+
+            if (reader.read() != '\n') {
+                reader.reset();
+            }
+        }
+
+        return line.toString();
+    }
+
+    // whether the last line read was longer than maxLength and got cut
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
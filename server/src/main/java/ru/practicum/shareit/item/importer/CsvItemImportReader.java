@@ -0,0 +1,218 @@
+package ru.practicum.shareit.item.importer;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// RFC 4180 records with a header row naming the columns; quoted fields may contain separators and line breaks
+public class CsvItemImportReader implements ItemImportReader {
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String AVAILABLE = "available";
+    private static final String REQUEST_ID = "requestid";
+    private static final List<String> REQUIRED_COLUMNS = List.of(NAME, DESCRIPTION, AVAILABLE);
+
+    private final BoundedLineReader reader;
+
+    private Map<String, Integer> columns;
+    private int columnCount;
+    private long line;
+    private boolean finished;
+
+    public CsvItemImportReader(InputStream inputStream) {
+        this.reader = new BoundedLineReader(inputStream, MAX_RECORD_LENGTH);
+    }
+
+    @Override
+    public ItemImportRow read() {
+        if (finished) {
+            return null;
+        }
+
+        long start = line + 1;
+
+        try {
+            if (columns == null) {
+                ItemImportRow headerError = readHeader();
+
+                if (headerError != null || finished) {
+                    finished = true;
+                    return headerError;
+                }
+            }
+
+            List<String> fields;
+
+            do {
+                start = line + 1;
+                fields = readRecord();
+            } while (fields != null && fields.size() == 1 && fields.getFirst().isBlank());
+
+            if (fields == null) {
+                finished = true;
+                return null;
+            }
+
+            return toRow(start, fields);
+        } catch (MalformedRecord e) {
+            // an unclosed quote swallows the rest of the input, there is no row boundary to resume from
+            finished = true;
+            return ItemImportRow.failed(start, e.getMessage());
+        } catch (RecordTooLong e) {
+            // the rest of the line was skipped, so reading resumes at the next one unless the header was lost
+            finished = columns == null;
+            return ItemImportRow.failed(start, e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ItemImportRow readHeader() throws IOException, MalformedRecord, RecordTooLong {
+        List<String> header = readRecord();
+
+        if (header == null) {
+            finished = true;
+            return null;
+        }
+
+        columns = new HashMap<>();
+        columnCount = header.size();
+
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i);
+
+            if (i == 0 && !column.isEmpty() && column.charAt(0) == BYTE_ORDER_MARK) {
+                column = column.substring(1);
+            }
+
+            columns.putIfAbsent(column.strip().toLowerCase(Locale.ROOT), i);
+        }
+
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                return ItemImportRow.failed(line, String.format("Missing column '%s' in the header", column));
+            }
+        }
+
+        return null;
+    }
+
+    private ItemImportRow toRow(long start, List<String> fields) {
+        if (fields.size() != columnCount) {
+            return ItemImportRow.failed(start, String.format("Expected %d fields but found %d", columnCount,
+                    fields.size()));
+        }
+
+        String available = fields.get(columns.get(AVAILABLE)).strip();
+
+        if (!available.equalsIgnoreCase("true") && !available.equalsIgnoreCase("false")) {
+            return ItemImportRow.failed(start, "Field 'available' should be true or false");
+        }
+
+        Long requestId = null;
+        Integer requestIdColumn = columns.get(REQUEST_ID);
+
+        if (requestIdColumn != null && !fields.get(requestIdColumn).isBlank()) {
+            try {
+                requestId = Long.parseLong(fields.get(requestIdColumn).strip());
+            } catch (NumberFormatException e) {
+                return ItemImportRow.failed(start, "Field 'requestId' should be a number");
+            }
+        }
+
+        return ItemImportRow.parsed(start, ItemDto.builder()
+                .name(fields.get(columns.get(NAME)))
+                .description(fields.get(columns.get(DESCRIPTION)))
+                .available(Boolean.parseBoolean(available))
+                .requestId(requestId)
+                .build());
+    }
+
+    private List<String> readRecord() throws IOException, MalformedRecord, RecordTooLong {
+        String value = reader.readLine();
+
+        if (value == null) {
+            return null;
+        }
+
+        line++;
+        long start = line;
+
+        if (reader.isTruncated()) {
+            throw new RecordTooLong(String.format("Record is longer than %d characters", MAX_RECORD_LENGTH));
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = value.length();
+        boolean quoted = false;
+        int i = 0;
+
+        while (true) {
+            if (i == value.length()) {
+                if (!quoted) {
+                    break;
+                }
+
+                value = reader.readLine();
+                length += value == null ? 0 : value.length();
+
+                if (value == null || reader.isTruncated() || length > MAX_RECORD_LENGTH) {
+                    throw new MalformedRecord(String.format("Quoted field of the record at line %d is not closed",
+                            start));
+                }
+
+                line++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+
+            char c = value.charAt(i++);
+
+            if (quoted && c == QUOTE && i < value.length() && value.charAt(i) == QUOTE) {
+                field.append(QUOTE);
+                i++;
+            } else if (c == QUOTE) {
+                quoted = !quoted;
+            } else if (c == SEPARATOR && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static class MalformedRecord extends Exception {
+        MalformedRecord(String message) {
+            super(message);
+        }
+    }
+
+    private static class RecordTooLong extends Exception {
+        RecordTooLong(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.importer;
+
+import java.io.Closeable;
+
+// parses one row per call, so an import holds no more than the current row of the upload in memory
+public interface ItemImportReader extends Closeable {
+    // null once the input is exhausted
+    ItemImportRow read();
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.importer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+@Getter
+@RequiredArgsConstructor
+public class ItemImportRow {
+    private final long line;
+    private final ItemDto item;
+    private final String error;
+
+    public static ItemImportRow parsed(long line, ItemDto item) {
+        return new ItemImportRow(line, item, null);
+    }
+
+    public static ItemImportRow failed(long line, String error) {
+        return new ItemImportRow(line, null, error);
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+public class NdjsonItemImportReader implements ItemImportReader {
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private final BoundedLineReader reader;
+    private final ObjectMapper objectMapper;
+
+    private long line;
+
+    public NdjsonItemImportReader(InputStream inputStream, ObjectMapper objectMapper) {
+        this.reader = new BoundedLineReader(inputStream, MAX_RECORD_LENGTH);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ItemImportRow read() {
+        try {
+            String value;
+
+            do {
+                value = reader.readLine();
+                line++;
+            } while (value != null && value.isBlank());
+
+            if (value == null) {
+                return null;
+            }
+
+            if (reader.isTruncated()) {
+                return ItemImportRow.failed(line, String.format("Line is longer than %d characters",
+                        MAX_RECORD_LENGTH));
+            }
+
+            try {
+                return ItemImportRow.parsed(line, objectMapper.readValue(value, ItemDto.class));
+            } catch (JsonProcessingException e) {
+                return ItemImportRow.failed(line, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
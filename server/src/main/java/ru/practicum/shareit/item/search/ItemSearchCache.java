@@ -0,0 +1,169 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+@Component
+public class ItemSearchCache {
+    private static final String CACHE_NAME = "item-search";
+
+    private final ItemSearchIndex itemSearchIndex;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier ticker;
+    private final Map<Key, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private long generation;
+
+    @Autowired
+    public ItemSearchCache(ItemSearchIndex itemSearchIndex,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.item-search-cache.ttl:PT1M}") String ttl,
+                           @Value("${shareit.item-search-cache.max-entries:10000}") int maxEntries) {
+        this(itemSearchIndex, meterRegistry, ttl, maxEntries, System::nanoTime);
+    }
+
+    ItemSearchCache(ItemSearchIndex itemSearchIndex,
+                    MeterRegistry meterRegistry,
+                    String ttl,
+                    int maxEntries,
+                    LongSupplier ticker) {
+        this.itemSearchIndex = itemSearchIndex;
+        this.ttlNanos = Duration.parse(ttl).toNanos();
+        this.maxEntries = maxEntries;
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > ItemSearchCache.this.maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("cache.gets")
+                .tag("cache", CACHE_NAME)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets")
+                .tag("cache", CACHE_NAME)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions")
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, ItemSearchCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public List<ItemDto> get(String text, int from, int size, boolean fuzzy, Supplier<List<ItemDto>> loader) {
+        if (ttlNanos <= 0) {
+            return loader.get();
+        }
+
+        List<String> terms = ItemSearchIndex.queryTerms(text);
+        Key key = new Key(String.join(" ", terms), from, size, fuzzy);
+        long loadGeneration;
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+
+            if (entry != null && ticker.getAsLong() - entry.loaded < ttlNanos) {
+                hits.increment();
+                return entry.items;
+            }
+
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        List<ItemDto> items = loader.get();
+
+        synchronized (this) {
+            // an eviction while loading may have made the result stale
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry(terms, fuzzy, ticker.getAsLong(), items));
+            }
+        }
+
+        return items;
+    }
+
+    // a result can only change if the item is a hit for the query before or after the change
+    public void evictMatching(Set<String> previousTerms, Set<String> currentTerms) {
+        evictNowAndAfterCommit(() -> evictNow(previousTerms, currentTerms));
+    }
+
+    public void evictAll() {
+        evictNowAndAfterCommit(this::clear);
+    }
+
+    private void evictNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private synchronized void evictNow(Set<String> previousTerms, Set<String> currentTerms) {
+        generation++;
+        int before = entries.size();
+        entries.values().removeIf(entry ->
+                itemSearchIndex.matches(entry.terms, previousTerms, entry.fuzzy)
+                        || itemSearchIndex.matches(entry.terms, currentTerms, entry.fuzzy));
+        evictions.increment(before - entries.size());
+    }
+
+    private synchronized void clear() {
+        generation++;
+        evictions.increment(entries.size());
+        entries.clear();
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String terms;
+        private final int from;
+        private final int size;
+        private final boolean fuzzy;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final List<String> terms;
+        private final boolean fuzzy;
+        private final long loaded;
+        private final List<ItemDto> items;
+    }
+}
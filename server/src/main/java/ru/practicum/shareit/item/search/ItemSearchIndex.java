@@ -0,0 +1,450 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final float NAME_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_FUZZY_EXPANSIONS = 16;
+    private static final int LOAD_CLEAR_INTERVAL = 1000;
+
+    private static final Comparator<ScoredItem> RANKING = Comparator.comparingDouble(ScoredItem::score)
+            .reversed()
+            .thenComparingLong(ScoredItem::itemId);
+
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+    private final double fuzzyThreshold;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigramTerms = new HashMap<>();
+    private final Object pendingLock = new Object();
+    private double totalLength;
+
+    private List<Runnable> pending = new ArrayList<>();
+
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           EntityManager entityManager,
+                           @Value("${shareit.item-search.fuzzy-threshold:0.3}") double fuzzyThreshold) {
+        this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+        this.fuzzyThreshold = fuzzyThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        int loaded = 0;
+
+        try (Stream<Item> items = itemRepository.streamAllByAvailableIsTrueOrderById()) {
+            Iterator<Item> iterator = items.iterator();
+
+            while (iterator.hasNext()) {
+                put(iterator.next());
+
+                if (++loaded % LOAD_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        synchronized (pendingLock) {
+            pending.forEach(Runnable::run);
+            log.info("Search index loaded with {} items and {} terms, then applied {} updates",
+                    loaded, postings.size(), pending.size());
+            pending = null;
+        }
+
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Item item) {
+        Item snapshot = item.toBuilder().build();
+        afterCommit(() -> put(snapshot));
+    }
+
+    public void indexAll(List<Item> items) {
+        List<Item> snapshots = items.stream()
+                .map(item -> item.toBuilder().build())
+                .toList();
+        afterCommit(() -> snapshots.forEach(this::put));
+    }
+
+    public void remove(Long itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+
+            try {
+                removeDocument(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAllOfOwner(Long ownerId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+
+            try {
+                documents.values().stream()
+                        .filter(document -> ownerId.equals(document.ownerId))
+                        .map(document -> document.itemId)
+                        .toList()
+                        .forEach(this::removeDocument);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        return search(text, from, size, false);
+    }
+
+    public Set<String> getIndexedTerms(Long itemId) {
+        lock.readLock().lock();
+
+        try {
+            Document document = documents.get(itemId);
+            return document == null ? Set.of() : Set.copyOf(document.terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // the terms the item would be indexed with, none for an unavailable item
+    public static Set<String> analyze(Item item) {
+        return termFrequencies(item).keySet();
+    }
+
+    // whether an item with these terms is a hit for the query terms, by the same rules as search
+    public boolean matches(List<String> queryTerms, Set<String> itemTerms, boolean fuzzy) {
+        if (queryTerms.isEmpty() || itemTerms.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < queryTerms.size(); i++) {
+            String queryTerm = queryTerms.get(i);
+            boolean prefix = i == queryTerms.size() - 1 && queryTerm.length() >= MIN_PREFIX_LENGTH;
+            boolean matched = fuzzy
+                    ? itemTerms.stream().anyMatch(term -> similarity(queryTerm, term) >= fuzzyThreshold)
+                    : itemTerms.contains(queryTerm)
+                    || prefix && itemTerms.stream().anyMatch(term -> term.startsWith(queryTerm));
+
+            if (!matched) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // every query term has to match, the last one also as a prefix of longer terms for type-ahead queries;
+    // in fuzzy mode a term matches indexed terms with trigram similarity above the threshold instead
+    public List<Long> search(String text, int from, int size, boolean fuzzy) {
+        List<String> terms = queryTerms(text);
+
+        if (terms.isEmpty() || from < 0 || size <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+
+        try {
+            List<Map<Long, Double>> termScores = new ArrayList<>(terms.size());
+
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Long, Double> scores = fuzzy
+                        ? scoreSimilarTerms(terms.get(i))
+                        : scoreTerm(terms.get(i), i == terms.size() - 1);
+
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+
+                termScores.add(scores);
+            }
+
+            termScores.sort(Comparator.comparingInt(Map::size));
+            PriorityQueue<ScoredItem> top = new PriorityQueue<>(RANKING.reversed());
+            long limit = (long) from + size;
+
+            for (Map.Entry<Long, Double> candidate : termScores.getFirst().entrySet()) {
+                double score = candidate.getValue();
+                boolean matchesAll = true;
+
+                for (int i = 1; i < termScores.size() && matchesAll; i++) {
+                    Double termScore = termScores.get(i).get(candidate.getKey());
+                    matchesAll = termScore != null;
+                    score += matchesAll ? termScore : 0;
+                }
+
+                if (matchesAll) {
+                    top.add(new ScoredItem(candidate.getKey(), score));
+
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<ScoredItem> ranked = new ArrayList<>(top);
+            ranked.sort(RANKING);
+
+            return ranked.stream()
+                    .skip(from)
+                    .map(ScoredItem::itemId)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static List<String> queryTerms(String text) {
+        return new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.analyze(text)));
+    }
+
+    private Map<Long, Double> scoreTerm(String term, boolean prefix) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Map<Long, Float>> matching = prefix && term.length() >= MIN_PREFIX_LENGTH
+                ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+        int expansions = 0;
+
+        for (Map<Long, Float> termPostings : matching.values()) {
+            if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+
+            addScores(scores, termPostings, 1.0);
+        }
+
+        return scores;
+    }
+
+    private Map<Long, Double> scoreSimilarTerms(String term) {
+        Set<String> queryTrigrams = trigrams(term);
+        Map<String, Integer> sharedTrigrams = new HashMap<>();
+
+        for (String trigram : queryTrigrams) {
+            for (String candidate : trigramTerms.getOrDefault(trigram, Set.of())) {
+                sharedTrigrams.merge(candidate, 1, Integer::sum);
+            }
+        }
+
+        // similarity never exceeds shared / query trigrams, which rules out most candidates before counting theirs
+        double minShared = fuzzyThreshold * queryTrigrams.size();
+        PriorityQueue<SimilarTerm> similar = new PriorityQueue<>(Comparator.comparingDouble(SimilarTerm::similarity));
+
+        sharedTrigrams.forEach((candidate, shared) -> {
+            if (shared < minShared) {
+                return;
+            }
+
+            double similarity = (double) shared / (queryTrigrams.size() + trigrams(candidate).size() - shared);
+
+            if (similarity >= fuzzyThreshold) {
+                similar.add(new SimilarTerm(candidate, similarity));
+
+                if (similar.size() > MAX_FUZZY_EXPANSIONS) {
+                    similar.poll();
+                }
+            }
+        });
+
+        Map<Long, Double> scores = new HashMap<>();
+        similar.forEach(similarTerm -> addScores(scores, postings.get(similarTerm.term), similarTerm.similarity));
+        return scores;
+    }
+
+    private void addScores(Map<Long, Double> scores, Map<Long, Float> termPostings, double weight) {
+        double idf = Math.log(1 + (documents.size() - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+
+        termPostings.forEach((itemId, frequency) -> {
+            double score = weight * idf * bm25(frequency, documents.get(itemId).length);
+            scores.merge(itemId, score, Math::max);
+        });
+    }
+
+    private double bm25(float frequency, float length) {
+        double averageLength = totalLength / documents.size();
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private void put(Item item) {
+        lock.writeLock().lock();
+
+        try {
+            removeDocument(item.getId());
+
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return;
+            }
+
+            Map<String, Float> frequencies = termFrequencies(item);
+            float length = 0;
+
+            for (Map.Entry<String, Float> frequency : frequencies.entrySet()) {
+                postings.computeIfAbsent(frequency.getKey(), this::addTermTrigrams)
+                        .put(item.getId(), frequency.getValue());
+                length += frequency.getValue();
+            }
+
+            Long ownerId = item.getOwner() == null ? null : item.getOwner().getId();
+            documents.put(item.getId(), new Document(item.getId(), ownerId, length, frequencies.keySet()));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Map<String, Float> termFrequencies(Item item) {
+        Map<String, Float> frequencies = new HashMap<>();
+
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            TextAnalyzer.analyze(item.getName()).forEach(term -> frequencies.merge(term, NAME_WEIGHT, Float::sum));
+            TextAnalyzer.analyze(item.getDescription())
+                    .forEach(term -> frequencies.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+        }
+
+        return frequencies;
+    }
+
+    private void removeDocument(Long itemId) {
+        Document document = documents.remove(itemId);
+
+        if (document == null) {
+            return;
+        }
+
+        for (String term : document.terms) {
+            Map<Long, Float> termPostings = postings.get(term);
+            termPostings.remove(itemId);
+
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+                removeTermTrigrams(term);
+            }
+        }
+
+        totalLength -= document.length;
+    }
+
+    private Map<Long, Float> addTermTrigrams(String term) {
+        trigrams(term).forEach(trigram -> trigramTerms.computeIfAbsent(trigram, key -> new HashSet<>()).add(term));
+        return new HashMap<>();
+    }
+
+    private void removeTermTrigrams(String term) {
+        for (String trigram : trigrams(term)) {
+            Set<String> terms = trigramTerms.get(trigram);
+            terms.remove(term);
+
+            if (terms.isEmpty()) {
+                trigramTerms.remove(trigram);
+            }
+        }
+    }
+
+    private static double similarity(String term, String other) {
+        Set<String> trigrams = trigrams(term);
+        Set<String> otherTrigrams = trigrams(other);
+        long shared = trigrams.stream().filter(otherTrigrams::contains).count();
+        return (double) shared / (trigrams.size() + otherTrigrams.size() - shared);
+    }
+
+    // padded like pg_trgm, so that word starts weigh more than inner fragments
+    static Set<String> trigrams(String term) {
+        String padded = "  " + term + " ";
+        Set<String> trigrams = new HashSet<>();
+
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+
+        return trigrams;
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(update);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(update);
+            }
+        });
+    }
+
+    // updates committed while the index is loading are held back and replayed over the loaded state,
+    // so a row read before its update can't overwrite it
+    private void apply(Runnable update) {
+        synchronized (pendingLock) {
+            if (pending != null) {
+                pending.add(update);
+                return;
+            }
+        }
+
+        update.run();
+    }
+
+    @RequiredArgsConstructor
+    private static class Document {
+        private final Long itemId;
+        private final Long ownerId;
+        private final float length;
+        private final Set<String> terms;
+    }
+
+    private record ScoredItem(Long itemId, double score) {
+    }
+
+    private record SimilarTerm(String term, double similarity) {
+    }
+}
@@ -0,0 +1,526 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Radix tree over the names of available items. Every node keeps the best suggestions of its subtree, so a lookup
+// is a walk along the prefix and a copy of at most top-k names, however many names share the prefix. A name is
+// keyed from each of its first MAX_WORD_STARTS words, so "Cordless drill" comes up for "dri" as well.
+// With the default top-k of 10 the heap cost measured about 530 bytes per item with a unique name of two or three
+// words, entry in the map of items included, so roughly 550 MB per million such items. Equal names share one
+// suggestion, so an item whose name is already indexed costs only that entry, about 100 bytes.
+// shareit.item-suggest.max-names caps the distinct names and shareit.item-suggest.max-items the indexed items,
+// so with the defaults of a million each the index stays within about 550 MB; names and items past the caps
+// are left out of the suggestions.
+// Updates committed while the index loads are held back and applied after it, so the rows read by the load,
+// which may predate them, don't overwrite them.
+@Slf4j
+@Component
+public class ItemSuggestIndex {
+    private static final int MAX_WORD_STARTS = 3;
+    private static final int LOAD_CLEAR_INTERVAL = 1000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+
+    // names shared by more items first, then alphabetically
+    private static final Comparator<Suggestion> RANKING = Comparator
+            .<Suggestion>comparingInt(suggestion -> suggestion.items)
+            .reversed()
+            .thenComparing(suggestion -> suggestion.key);
+
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+    private final int topK;
+    private final int maxNames;
+    private final int maxItems;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Object pendingLock = new Object();
+
+    private List<Runnable> pending = new ArrayList<>();
+
+    private volatile boolean ready;
+
+    public ItemSuggestIndex(ItemRepository itemRepository,
+                            EntityManager entityManager,
+                            @Value("${shareit.item-suggest.top-k:10}") int topK,
+                            @Value("${shareit.item-suggest.max-names:1000000}") int maxNames,
+                            @Value("${shareit.item-suggest.max-items:1000000}") int maxItems) {
+        this.itemRepository = itemRepository;
+        this.entityManager = entityManager;
+        this.topK = topK;
+        this.maxNames = maxNames;
+        this.maxItems = maxItems;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        int loaded = 0;
+
+        try (Stream<Item> items = itemRepository.streamAllByAvailableIsTrueOrderById()) {
+            Iterator<Item> iterator = items.iterator();
+
+            while (iterator.hasNext()) {
+                put(iterator.next());
+
+                if (++loaded % LOAD_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        synchronized (pendingLock) {
+            pending.forEach(Runnable::run);
+            log.info("Suggest index loaded with {} items and {} names, then applied {} updates",
+                    loaded, suggestions.size(), pending.size());
+            pending = null;
+        }
+
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Item item) {
+        Item snapshot = item.toBuilder().build();
+        afterCommit(() -> put(snapshot));
+    }
+
+    public void indexAll(List<Item> items) {
+        List<Item> snapshots = items.stream()
+                .map(item -> item.toBuilder().build())
+                .toList();
+        afterCommit(() -> snapshots.forEach(this::put));
+    }
+
+    public void remove(Long itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+
+            try {
+                removeItem(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAllOfOwner(Long ownerId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+
+            try {
+                items.entrySet().stream()
+                        .filter(item -> ownerId.equals(item.getValue().ownerId))
+                        .map(Map.Entry::getKey)
+                        .toList()
+                        .forEach(this::removeItem);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // at most top-k names are kept per prefix, so a larger size doesn't give more
+    public List<String> suggest(String prefix, int size) {
+        String key = normalizePrefix(prefix);
+
+        if (key.isEmpty() || size <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+
+        try {
+            Node node = find(key);
+
+            if (node == null) {
+                return List.of();
+            }
+
+            return Arrays.stream(node.top)
+                    .limit(size)
+                    .map(suggestion -> suggestion.name)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Item item) {
+        lock.writeLock().lock();
+
+        try {
+            removeItem(item.getId());
+            String key = normalize(item.getName());
+
+            if (!Boolean.TRUE.equals(item.getAvailable()) || key.isEmpty() || items.size() >= maxItems) {
+                return;
+            }
+
+            Suggestion suggestion = suggestions.get(key);
+
+            if (suggestion == null) {
+                if (suggestions.size() >= maxNames) {
+                    return;
+                }
+
+                String name = WHITESPACE.matcher(item.getName().strip()).replaceAll(" ");
+                suggestion = new Suggestion(name.equals(key) ? key : name, key);
+                suggestions.put(key, suggestion);
+                suggestion.items = 1;
+
+                for (String wordKey : wordKeys(key)) {
+                    insert(root, wordKey, 0, suggestion);
+                }
+            } else {
+                suggestion.items++;
+
+                for (String wordKey : wordKeys(key)) {
+                    promote(root, wordKey, 0, suggestion);
+                }
+            }
+
+            Long ownerId = item.getOwner() == null ? null : item.getOwner().getId();
+            items.put(item.getId(), new IndexedItem(ownerId, suggestion));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeItem(Long itemId) {
+        IndexedItem item = items.remove(itemId);
+
+        if (item == null) {
+            return;
+        }
+
+        Suggestion suggestion = item.suggestion;
+        List<String> wordKeys = wordKeys(suggestion.key);
+
+        // a suggestion that ranks lower may have to give its place to one that no top holds yet, so it's taken out
+        // under its old ranking, which the tops along its other keys are still sorted by, and put back afterwards
+        wordKeys.forEach(wordKey -> delete(root, wordKey, 0, suggestion));
+
+        if (--suggestion.items == 0) {
+            suggestions.remove(suggestion.key);
+        } else {
+            wordKeys.forEach(wordKey -> insert(root, wordKey, 0, suggestion));
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        int position = 0;
+
+        while (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+
+            if (child == null) {
+                return null;
+            }
+
+            int matched = commonPrefixLength(child.label, key, position);
+
+            // a prefix that ends inside an edge still selects the whole subtree below it
+            if (position + matched == key.length()) {
+                return child;
+            }
+
+            if (matched < child.label.length()) {
+                return null;
+            }
+
+            node = child;
+            position += matched;
+        }
+
+        return node;
+    }
+
+    private void insert(Node node, String key, int position, Suggestion suggestion) {
+        if (position == key.length()) {
+            node.terminals = append(node.terminals, suggestion);
+        } else {
+            Node child = node.child(key.charAt(position));
+
+            if (child == null) {
+                child = new Node(key.substring(position));
+                child.terminals = new Suggestion[]{suggestion};
+                child.top = child.terminals;
+                node.addChild(child);
+            } else {
+                int matched = commonPrefixLength(child.label, key, position);
+
+                if (matched < child.label.length()) {
+                    child = split(node, child, matched);
+                }
+
+                insert(child, key, position + matched, suggestion);
+            }
+        }
+
+        node.offer(suggestion, topK);
+    }
+
+    private void delete(Node node, String key, int position, Suggestion suggestion) {
+        if (position == key.length()) {
+            node.terminals = without(node.terminals, suggestion);
+        } else {
+            Node child = node.child(key.charAt(position));
+            delete(child, key, position + child.label.length(), suggestion);
+
+            if (child.terminals.length == 0 && child.children.length == 0) {
+                node.removeChild(child);
+            } else if (child.terminals.length == 0 && child.children.length == 1) {
+                Node grandChild = child.children[0];
+                grandChild.label = child.label + grandChild.label;
+                node.replaceChild(child, grandChild);
+            }
+        }
+
+        node.withdraw(suggestion, topK);
+    }
+
+    private void promote(Node node, String key, int position, Suggestion suggestion) {
+        if (position < key.length()) {
+            Node child = node.child(key.charAt(position));
+            promote(child, key, position + child.label.length(), suggestion);
+        }
+
+        node.offer(suggestion, topK);
+    }
+
+    private static Node split(Node parent, Node child, int at) {
+        Node middle = new Node(child.label.substring(0, at));
+        parent.replaceChild(child, middle);
+        child.label = child.label.substring(at);
+        middle.children = new Node[]{child};
+        middle.top = child.top;
+        return middle;
+    }
+
+    private static int commonPrefixLength(String label, String key, int position) {
+        int length = 0;
+
+        while (length < label.length() && position + length < key.length()
+                && label.charAt(length) == key.charAt(position + length)) {
+            length++;
+        }
+
+        return length;
+    }
+
+    static List<String> wordKeys(String key) {
+        List<String> keys = new ArrayList<>(MAX_WORD_STARTS);
+        keys.add(key);
+
+        for (int space = key.indexOf(' '); space >= 0 && keys.size() < MAX_WORD_STARTS;
+             space = key.indexOf(' ', space + 1)) {
+            keys.add(key.substring(space + 1));
+        }
+
+        return keys;
+    }
+
+    static String normalize(String name) {
+        return name == null ? "" : WHITESPACE.matcher(name.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    // a trailing space is kept, as it tells that the last word is complete
+    private static String normalizePrefix(String prefix) {
+        return prefix == null
+                ? ""
+                : WHITESPACE.matcher(prefix.stripLeading()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Suggestion[] append(Suggestion[] suggestions, Suggestion suggestion) {
+        Suggestion[] appended = Arrays.copyOf(suggestions, suggestions.length + 1);
+        appended[suggestions.length] = suggestion;
+        return appended;
+    }
+
+    private static Suggestion[] without(Suggestion[] suggestions, Suggestion suggestion) {
+        return suggestions.length == 1 && suggestions[0] == suggestion
+                ? NO_SUGGESTIONS
+                : Arrays.stream(suggestions).filter(other -> other != suggestion).toArray(Suggestion[]::new);
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(update);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(update);
+            }
+        });
+    }
+
+    private void apply(Runnable update) {
+        synchronized (pendingLock) {
+            if (pending != null) {
+                pending.add(update);
+                return;
+            }
+        }
+
+        update.run();
+    }
+
+    // arrays are replaced rather than modified, so a split can share the top of the node it moves down
+    private static class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private Suggestion[] terminals = NO_SUGGESTIONS;
+        private Suggestion[] top = NO_SUGGESTIONS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int index = indexOf(first);
+            return index < 0 ? null : children[index];
+        }
+
+        private void addChild(Node child) {
+            int index = -indexOf(child.label.charAt(0)) - 1;
+            Node[] added = new Node[children.length + 1];
+            System.arraycopy(children, 0, added, 0, index);
+            added[index] = child;
+            System.arraycopy(children, index, added, index + 1, children.length - index);
+            children = added;
+        }
+
+        private void replaceChild(Node child, Node replacement) {
+            Node[] replaced = children.clone();
+            replaced[indexOf(child.label.charAt(0))] = replacement;
+            children = replaced;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.label.charAt(0));
+            Node[] removed = new Node[children.length - 1];
+            System.arraycopy(children, 0, removed, 0, index);
+            System.arraycopy(children, index + 1, removed, index, children.length - index - 1);
+            children = removed;
+        }
+
+        // children are kept sorted by the first char of their labels, which are distinct among siblings
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char middleFirst = children[middle].label.charAt(0);
+
+                if (middleFirst < first) {
+                    low = middle + 1;
+                } else if (middleFirst > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+
+            return -low - 1;
+        }
+
+        // a new or more popular suggestion can only move up, so merging it into the current top is enough
+        private void offer(Suggestion suggestion, int topK) {
+            boolean present = Arrays.asList(top).contains(suggestion);
+
+            if (!present && top.length >= topK && RANKING.compare(suggestion, top[top.length - 1]) > 0) {
+                return;
+            }
+
+            Suggestion[] offered = present || top.length >= topK ? top.clone() : Arrays.copyOf(top, top.length + 1);
+
+            if (!present) {
+                offered[offered.length - 1] = suggestion;
+            }
+
+            Arrays.sort(offered, RANKING);
+            top = offered;
+        }
+
+        // only a suggestion that leaves the top makes room for one from below
+        private void withdraw(Suggestion suggestion, int topK) {
+            if (Arrays.asList(top).contains(suggestion)) {
+                updateTop(topK);
+            }
+        }
+
+        private void updateTop(int topK) {
+            if (children.length == 0 && terminals.length <= 1) {
+                top = terminals;
+                return;
+            }
+
+            List<Suggestion> candidates = new ArrayList<>(Arrays.asList(terminals));
+
+            for (Node child : children) {
+                candidates.addAll(Arrays.asList(child.top));
+            }
+
+            // several word keys of one name may end up under the same node
+            top = candidates.stream()
+                    .distinct()
+                    .sorted(RANKING)
+                    .limit(topK)
+                    .toArray(Suggestion[]::new);
+        }
+    }
+
+    private static class Suggestion {
+        private final String name;
+        private final String key;
+        private int items;
+
+        private Suggestion(String name, String key) {
+            this.name = name;
+            this.key = key;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class IndexedItem {
+        private final Long ownerId;
+        private final Suggestion suggestion;
+    }
+}
@@ -0,0 +1,243 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TextAnalyzer {
+    private static final int MIN_STEM_LENGTH = 2;
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+
+        for (String token : tokenize(text)) {
+            terms.add(stem(token));
+        }
+
+        return terms;
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+
+        if (text == null) {
+            return tokens;
+        }
+
+        StringBuilder token = new StringBuilder();
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (Character.isLetterOrDigit(c)) {
+                token.append(normalize(c));
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+
+        return tokens;
+    }
+
+    public static String stem(String token) {
+        if (token.length() <= MIN_STEM_LENGTH) {
+            return token;
+        }
+
+        if (isCyrillic(token.charAt(0))) {
+            return RussianStemmer.stem(token);
+        }
+
+        if (token.charAt(0) >= 'a' && token.charAt(0) <= 'z') {
+            return EnglishStemmer.stem(token);
+        }
+
+        return token;
+    }
+
+    private static char normalize(char c) {
+        char lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+
+    private static boolean isCyrillic(char c) {
+        return Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CYRILLIC;
+    }
+
+    // light suffix stripping after the Snowball Russian algorithm, enough to merge the common inflections
+    static final class RussianStemmer {
+        private static final String VOWELS = "аеиоуыэюя";
+
+        private static final String[] PERFECTIVE_GERUND = {"ившись", "ывшись", "вшись", "ивши", "ывши", "вши", "ив",
+                "ыв", "в"};
+        private static final String[] REFLEXIVE = {"ся", "сь"};
+        private static final String[] ADJECTIVAL = {"ими", "ыми", "его", "ого", "ему", "ому", "ее", "ие", "ые", "ое",
+                "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом", "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"};
+        private static final String[] VERB = {"ейте", "уйте", "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло",
+                "ено", "ует", "уют", "ены", "ить", "ыть", "ишь", "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит",
+                "ыт", "ую", "ю"};
+        private static final String[] VERB_AFTER_A = {"ете", "йте", "ешь", "нно", "ла", "на", "ли", "ем", "ло", "но",
+                "ет", "ют", "ны", "ть", "й", "л", "н"};
+        private static final String[] NOUN = {"иями", "ями", "ами", "ией", "иям", "ием", "иях", "ев", "ов", "ие", "ье",
+                "еи", "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья", "а", "е", "и",
+                "й", "о", "у", "ы", "ь", "ю", "я"};
+        private static final String[] DERIVATIONAL = {"ость", "ост"};
+        private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+
+        private RussianStemmer() {
+        }
+
+        static String stem(String word) {
+            int rv = regionAfterFirstVowel(word);
+
+            if (rv >= word.length()) {
+                return word;
+            }
+
+            StringBuilder stem = new StringBuilder(word);
+
+            if (!removeSuffix(stem, rv, PERFECTIVE_GERUND)) {
+                removeSuffix(stem, rv, REFLEXIVE);
+
+                if (!removeSuffix(stem, rv, ADJECTIVAL) && !removeSuffix(stem, rv, VERB)
+                        && !removeSuffixAfterA(stem, rv, VERB_AFTER_A)) {
+                    removeSuffix(stem, rv, NOUN);
+                }
+            }
+
+            removeSuffix(stem, rv, new String[]{"и"});
+            removeSuffix(stem, rv, DERIVATIONAL);
+
+            if (!removeSuffix(stem, rv, new String[]{"ь"})) {
+                removeSuffix(stem, rv, SUPERLATIVE);
+
+                if (endsWith(stem, "нн")) {
+                    stem.setLength(stem.length() - 1);
+                }
+            }
+
+            return stem.length() < MIN_STEM_LENGTH ? word : stem.toString();
+        }
+
+        private static int regionAfterFirstVowel(String word) {
+            for (int i = 0; i < word.length(); i++) {
+                if (VOWELS.indexOf(word.charAt(i)) >= 0) {
+                    return i + 1;
+                }
+            }
+
+            return word.length();
+        }
+
+        private static boolean removeSuffix(StringBuilder stem, int region, String[] suffixes) {
+            for (String suffix : suffixes) {
+                if (stem.length() - suffix.length() >= region && endsWith(stem, suffix)) {
+                    stem.setLength(stem.length() - suffix.length());
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        // the first Snowball verb group only counts after а or я, which itself stays in the stem
+        private static boolean removeSuffixAfterA(StringBuilder stem, int region, String[] suffixes) {
+            for (String suffix : suffixes) {
+                int offset = stem.length() - suffix.length();
+
+                if (offset - 1 >= region && endsWith(stem, suffix) && "ая".indexOf(stem.charAt(offset - 1)) >= 0) {
+                    stem.setLength(offset);
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static boolean endsWith(StringBuilder stem, String suffix) {
+            int offset = stem.length() - suffix.length();
+            return offset >= 0 && stem.indexOf(suffix, offset) == offset;
+        }
+    }
+
+    // a reduced Porter stemmer covering plurals, -ed/-ing and the frequent derivational suffixes
+    static final class EnglishStemmer {
+        private static final String[][] DERIVATIONAL = {
+                {"ational", "ate"}, {"tional", "tion"}, {"ization", "ize"}, {"iveness", "ive"}, {"fulness", "ful"},
+                {"ousness", "ous"}, {"ation", "ate"}, {"ement", ""}, {"ment", ""}, {"ness", ""}, {"able", ""},
+                {"ible", ""}, {"less", ""}, {"ful", ""}, {"ly", ""}, {"er", ""}
+        };
+
+        private EnglishStemmer() {
+        }
+
+        static String stem(String word) {
+            String stem = word;
+
+            if (stem.endsWith("sses")) {
+                stem = stem.substring(0, stem.length() - 2);
+            } else if (stem.endsWith("ies")) {
+                stem = stem.substring(0, stem.length() - 3) + "y";
+            } else if (stem.endsWith("s") && !stem.endsWith("ss") && !stem.endsWith("us") && stem.length() > 3) {
+                stem = stem.substring(0, stem.length() - 1);
+            }
+
+            if (stem.endsWith("ing") && hasVowel(stem, stem.length() - 3)) {
+                stem = undouble(stem.substring(0, stem.length() - 3));
+            } else if (stem.endsWith("ed") && hasVowel(stem, stem.length() - 2)) {
+                stem = undouble(stem.substring(0, stem.length() - 2));
+            }
+
+            for (String[] rule : DERIVATIONAL) {
+                int base = stem.length() - rule[0].length();
+
+                if (stem.endsWith(rule[0]) && base >= 3 && hasVowel(stem, base)) {
+                    stem = stem.substring(0, base) + rule[1];
+                    break;
+                }
+            }
+
+            if (stem.endsWith("e") && stem.length() > 4) {
+                stem = stem.substring(0, stem.length() - 1);
+            }
+
+            if (stem.endsWith("y") && stem.length() > 3 && !isVowel(stem.charAt(stem.length() - 2))) {
+                stem = stem.substring(0, stem.length() - 1) + "i";
+            }
+
+            return stem.length() < MIN_STEM_LENGTH ? word : stem;
+        }
+
+        private static String undouble(String stem) {
+            int length = stem.length();
+
+            if (length > 2 && stem.charAt(length - 1) == stem.charAt(length - 2)
+                    && !isVowel(stem.charAt(length - 1)) && "lsz".indexOf(stem.charAt(length - 1)) < 0) {
+                return stem.substring(0, length - 1);
+            }
+
+            return stem;
+        }
+
+        private static boolean hasVowel(String word, int end) {
+            for (int i = 0; i < end; i++) {
+                if (isVowel(word.charAt(i))) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private static boolean isVowel(char c) {
+            return "aeiou".indexOf(c) >= 0;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.exception.NotFound;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.importer.ItemImportReader;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ItemImportService {
+    void importItems(long ownerId, ItemImportReader reader, Consumer<List<ItemImportResultDto>> consumer)
+            throws NotFound;
+}
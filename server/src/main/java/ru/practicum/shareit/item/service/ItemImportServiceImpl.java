@@ -0,0 +1,216 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.exception.NotFound;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.importer.ItemImportReader;
+import ru.practicum.shareit.item.importer.ItemImportRow;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.RepositoryUtil;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class ItemImportServiceImpl implements ItemImportService {
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemMapper itemMapper;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final OutboxService outboxService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ItemImportServiceImpl(UserRepository userRepository,
+                                 ItemRepository itemRepository,
+                                 ItemRequestRepository itemRequestRepository,
+                                 ItemMapper itemMapper,
+                                 ItemBookingSummaryService itemBookingSummaryService,
+                                 ItemSearchIndex itemSearchIndex,
+                                 ItemSearchCache itemSearchCache,
+                                 ItemSuggestIndex itemSuggestIndex,
+                                 OutboxService outboxService,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${shareit.item-import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemMapper = itemMapper;
+        this.itemBookingSummaryService = itemBookingSummaryService;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemSearchCache = itemSearchCache;
+        this.itemSuggestIndex = itemSuggestIndex;
+        this.outboxService = outboxService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // every chunk commits on its own and its results are handed out right after, so neither the transaction
+    // nor the memory held grows with the upload; a failing chunk leaves the earlier ones imported
+    @Override
+    public void importItems(long ownerId, ItemImportReader reader, Consumer<List<ItemImportResultDto>> consumer)
+            throws NotFound {
+        User owner = RepositoryUtil.getUserWithCheck(userRepository, ownerId);
+        List<ItemImportRow> chunk = new ArrayList<>(chunkSize);
+        int imported = 0;
+        int failed = 0;
+        ItemImportRow row;
+
+        do {
+            row = reader.read();
+
+            if (row != null) {
+                chunk.add(row);
+            }
+
+            if (chunk.size() == chunkSize || row == null && !chunk.isEmpty()) {
+                List<ItemImportResultDto> results = Objects.requireNonNull(
+                        transactionTemplate.execute(status -> importChunk(owner, chunk)));
+                chunk.clear();
+                consumer.accept(results);
+
+                for (ItemImportResultDto result : results) {
+                    if (result.getError() == null) {
+                        imported++;
+                    } else {
+                        failed++;
+                    }
+                }
+            }
+        } while (row != null);
+
+        log.info("Imported {} items for user {}, {} rows failed", imported, ownerId, failed);
+    }
+
+    private List<ItemImportResultDto> importChunk(User owner, List<ItemImportRow> rows) {
+        Map<Long, ItemRequest> requests = findRequests(rows);
+        List<ItemImportResultDto> results = new ArrayList<>(rows.size());
+        List<Item> accepted = new ArrayList<>();
+
+        for (ItemImportRow row : rows) {
+            String error = row.getError() != null ? row.getError() : validate(row.getItem(), requests);
+
+            if (error != null) {
+                results.add(new ItemImportResultDto(row.getLine(), null, error));
+                continue;
+            }
+
+            ItemDto itemDto = row.getItem().toBuilder().id(null).build();
+            ItemRequest request = itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId());
+            Item item = itemMapper.fromItemDto(itemDto, request);
+            item.setOwner(owner);
+            accepted.add(item);
+            results.add(new ItemImportResultDto(row.getLine(), null, null));
+        }
+
+        itemRepository.insertAll(accepted);
+        List<Long> itemIds = accepted.stream()
+                .map(Item::getId)
+                .toList();
+        itemBookingSummaryService.initializeAll(itemIds);
+        itemSearchIndex.indexAll(accepted);
+        itemSuggestIndex.indexAll(accepted);
+
+        Set<String> terms = new HashSet<>();
+        accepted.forEach(item -> terms.addAll(ItemSearchIndex.analyze(item)));
+        itemSearchCache.evictMatching(Set.of(), terms);
+
+        Iterator<Item> savedItems = accepted.iterator();
+
+        for (ItemImportResultDto result : results) {
+            if (result.getError() == null) {
+                ItemDto itemDto = itemMapper.toItemDto(savedItems.next());
+                outboxService.add(OutboxEventType.ITEM_CREATED, itemDto.getId(), itemDto);
+                result.setItem(itemDto);
+            }
+        }
+
+        // with open-in-view the persistence context outlives the chunk transaction
+        entityManager.flush();
+        entityManager.clear();
+        return results;
+    }
+
+    private Map<Long, ItemRequest> findRequests(List<ItemImportRow> rows) {
+        List<Long> requestIds = rows.stream()
+                .map(ItemImportRow::getItem)
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return itemRequestRepository.findAllById(requestIds)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+
+    private static String validate(ItemDto item, Map<Long, ItemRequest> requests) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            return "Field 'name' can't be blank";
+        }
+
+        if (item.getName().length() > MAX_NAME_LENGTH) {
+            return String.format("Field 'name' is longer than %d characters", MAX_NAME_LENGTH);
+        }
+
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            return "Field 'description' can't be blank";
+        }
+
+        if (item.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return String.format("Field 'description' is longer than %d characters", MAX_DESCRIPTION_LENGTH);
+        }
+
+        if (item.getAvailable() == null) {
+            return "Field 'available' can't be null";
+        }
+
+        if (item.getRequestId() != null && !requests.containsKey(item.getRequestId())) {
+            return String.format("Item request with id %d not found.", item.getRequestId());
+        }
+
+        return null;
+    }
+}
@@ -4,24 +4,38 @@ import ru.practicum.shareit.exception.IllegalOwner;
 import ru.practicum.shareit.exception.NotFound;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemDto create(Long ownerId, ItemDto itemDto) throws NotFound;
 
     ItemWithBookingAndCommentsDto get(Long id) throws NotFound;
 
+    String getETag(Long id) throws NotFound;
+
     ItemDto update(Long ownerId, Long itemId, ItemUpdateDto itemUpdateDto) throws NotFound, IllegalOwner;
 
     ItemDto delete(Long ownerId, Long itemId) throws NotFound, IllegalOwner;
 
-    List<ItemDto> search(String searchText);
+    List<ItemDto> search(String searchText, int from, int size, boolean fuzzy);
+
+    List<String> suggest(String prefix, int size);
 
     List<ItemWithBookingAndCommentsDto> getByOwner(Long ownerId) throws NotFound;
 
+    void streamByOwner(Long ownerId, Consumer<ItemWithBookingAndCommentsDto> consumer) throws NotFound;
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDate from, LocalDate to) throws NotFound;
+
+    CommentPageDto getComments(Long itemId, String cursor, Integer size) throws NotFound;
+
     CommentDto addComment(Long userId, Long itemId, CommentCreateDto commentCreateDto);
 }
@@ -1,44 +1,81 @@
 package ru.practicum.shareit.item.service;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.cache.BookingListCache;
 import ru.practicum.shareit.booking.dto.BookingOnlyDatesDto;
+import ru.practicum.shareit.booking.service.BookingArchiveService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.IllegalComment;
 import ru.practicum.shareit.exception.IllegalOwner;
 import ru.practicum.shareit.exception.NotFound;
 import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentCursor;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemValidator;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.ETags;
+import ru.practicum.shareit.util.ParallelQueries;
 import ru.practicum.shareit.util.RepositoryUtil;
 import ru.practicum.shareit.util.Util;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ItemServiceImpl implements ItemService {
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int LATEST_COMMENTS = 10;
+    private static final int COMMENT_PAGE_SIZE = 20;
+    private static final Comparator<Comment> NEWEST_COMMENTS_FIRST = Comparator
+            .comparing(Comment::getCreated)
+            .thenComparing(Comment::getId)
+            .reversed();
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
@@ -47,6 +84,17 @@ public class ItemServiceImpl implements ItemService {
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
     private final CommentMapper commentMapper;
+    private final EntityManager entityManager;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingListCache bookingListCache;
+    private final OutboxService outboxService;
+    private final BookingArchiveService bookingArchiveService;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemDetailCache itemDetailCache;
+    private final ParallelQueries parallelQueries;
 
     @Override
     public ItemDto create(Long ownerId, ItemDto itemDto) throws NotFound {
@@ -57,57 +105,109 @@ public class ItemServiceImpl implements ItemService {
             itemRequest = RepositoryUtil.getItemRequestWithCheck(itemRequestRepository, itemDto.getRequestId());
         }
 
-        Item item = itemMapper.fromItemDto(itemDto, itemRequest);
+        Item item = itemMapper.fromItemDto(itemDto.toBuilder().id(null).build(), itemRequest);
         item.setOwner(user);
-        return itemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemBookingSummaryService.initialize(savedItem.getId());
+        itemSearchIndex.index(savedItem);
+        itemSuggestIndex.index(savedItem);
+        itemSearchCache.evictMatching(Set.of(), ItemSearchIndex.analyze(savedItem));
+        return publishItemEvent(OutboxEventType.ITEM_CREATED, itemMapper.toItemDto(savedItem));
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemWithBookingAndCommentsDto get(Long id) throws NotFound {
         LocalDateTime now = Util.getNowTruncatedToSeconds();
-        Item item = RepositoryUtil.getItemWithCheck(itemRepository, id);
-        return createItemWithBookingAndCommentsDtoList(now, List.of(item))
-                .getFirst();
+
+        return itemDetailCache.get(id, now, () -> {
+            Item item = RepositoryUtil.getItemWithCheck(itemRepository, id);
+
+            return parallelQueries.fanOut(
+                    () -> itemBookingSummaryService.getSummaries(now, List.of(id)),
+                    () -> summarizeComments(List.of(id)),
+                    (summaries, comments) -> {
+                        ItemBookingSummary summary = summaries.get(id);
+                        ItemWithBookingAndCommentsDto itemDto = createItemWithBookingAndCommentsDtoList(
+                                List.of(item), summaries, comments).getFirst();
+                        return new ItemDetailCache.Detail(itemDto, summary == null ? null : summary.getValidUntil());
+                    }
+            );
+        });
     }
 
     @Override
-    public ItemDto update(Long ownerId, Long itemId, ItemUpdateDto updatedItem) throws NotFound, IllegalOwner {
-        User user = RepositoryUtil.getUserWithCheck(userRepository, ownerId);
-        Item item = RepositoryUtil.getItemWithCheck(itemRepository, itemId);
-        RepositoryUtil.checkOwnerRightsForItem(item, user);
+    @Transactional(readOnly = true)
+    public String getETag(Long id) throws NotFound {
+        ItemValidator validator = itemRepository.findValidatorById(id, Util.getNowTruncatedToSeconds())
+                .orElseThrow(() -> new NotFound(String.format("Item with id %d not found.", id)));
 
-        if (updatedItem.getName() != null) {
-            item.setName(updatedItem.getName());
-        }
+        // the bookings of an expired summary are known only after it is rebuilt, so such an item isn't validated
+        return validator.getExpired() ? null : ETags.strong(id + ":" + validator.getValidator());
+    }
 
-        if (updatedItem.getDescription() != null) {
-            item.setDescription(updatedItem.getDescription());
-        }
+    @Override
+    public ItemDto update(Long ownerId, Long itemId, ItemUpdateDto updatedItem) throws NotFound, IllegalOwner {
+        Set<String> previousTerms = itemSearchIndex.getIndexedTerms(itemId);
+        int updated = itemRepository.updateOwnedItem(
+                itemId,
+                ownerId,
+                updatedItem.getName(),
+                updatedItem.getDescription(),
+                updatedItem.getAvailable()
+        );
 
-        if (updatedItem.getAvailable() != null) {
-            item.setAvailable(updatedItem.getAvailable());
+        if (updated == 0) {
+            throw getOwnedItemMutationFailure(ownerId, itemId);
         }
 
-        return itemMapper.toItemDto(itemRepository.save(item));
+        bookingListCache.evictAll();
+        itemDetailCache.evict(itemId);
+        Item item = RepositoryUtil.getItemWithCheck(itemRepository, itemId);
+        itemSearchIndex.index(item);
+        itemSuggestIndex.index(item);
+        itemSearchCache.evictMatching(previousTerms, ItemSearchIndex.analyze(item));
+        ItemDto itemDto = itemMapper.toItemDto(item);
+        return publishItemEvent(OutboxEventType.ITEM_UPDATED, itemDto);
     }
 
     @Override
     public ItemDto delete(Long ownerId, Long itemId) throws NotFound, IllegalOwner {
-        User user = RepositoryUtil.getUserWithCheck(userRepository, ownerId);
         Item item = RepositoryUtil.getItemWithCheck(itemRepository, itemId);
-        RepositoryUtil.checkOwnerRightsForItem(item, user);
-        itemRepository.deleteById(itemId);
-        return itemMapper.toItemDto(item);
+
+        if (itemRepository.deleteOwnedItem(itemId, ownerId) == 0) {
+            throw getOwnedItemMutationFailure(ownerId, itemId);
+        }
+
+        bookingListCache.evictAll();
+        itemDetailCache.evict(itemId);
+        Set<String> previousTerms = itemSearchIndex.getIndexedTerms(itemId);
+        itemSearchIndex.remove(itemId);
+        itemSuggestIndex.remove(itemId);
+        itemSearchCache.evictMatching(previousTerms, Set.of());
+        return publishItemEvent(OutboxEventType.ITEM_DELETED, itemMapper.toItemDto(item));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> search(String searchText) {
-        return itemRepository.search(searchText)
-                .stream()
-                .map(itemMapper::toItemDto)
-                .toList();
+    public List<ItemDto> search(String searchText, int from, int size, boolean fuzzy) {
+        if (!itemSearchIndex.isReady()) {
+            return itemRepository.search(searchText)
+                    .stream()
+                    .skip(from)
+                    .limit(size)
+                    .map(itemMapper::toItemDto)
+                    .toList();
+        }
+
+        return itemSearchCache.get(searchText, from, size, fuzzy, () -> searchIndexed(searchText, from, size, fuzzy));
+    }
+
+    // suggestions come only from memory, so no connection is taken for them
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<String> suggest(String prefix, int size) {
+        return itemSuggestIndex.isReady() ? itemSuggestIndex.suggest(prefix, size) : List.of();
     }
 
     @Override
@@ -124,6 +224,59 @@ public class ItemServiceImpl implements ItemService {
         return createItemWithBookingAndCommentsDtoList(now, items);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamByOwner(Long ownerId, Consumer<ItemWithBookingAndCommentsDto> consumer) throws NotFound {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        RepositoryUtil.getUserWithCheck(userRepository, ownerId);
+
+        try (Stream<Item> items = itemRepository.streamAllByOwnerIdOrderById(ownerId)) {
+            Iterator<Item> iterator = items.iterator();
+            List<Item> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+
+                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                    createItemWithBookingAndCommentsDtoList(now, chunk).forEach(consumer);
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDate from, LocalDate to) throws NotFound {
+        Item item = RepositoryUtil.getItemWithCheck(itemRepository, itemId);
+        List<LocalDate> freeDays = Boolean.TRUE.equals(item.getAvailable())
+                ? itemAvailabilityIndex.getFreeDays(itemId, from, to)
+                : List.of();
+        return new ItemAvailabilityDto(itemId, from, to, freeDays);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CommentPageDto getComments(Long itemId, String cursor, Integer size) throws NotFound {
+        RepositoryUtil.getItemWithCheck(itemRepository, itemId);
+        CommentCursor afterCursor = cursor == null ? null : CommentCursor.decode(cursor);
+        int limit = size == null ? COMMENT_PAGE_SIZE : size;
+
+        List<Comment> comments = commentRepository.findPageOfItem(
+                itemId,
+                afterCursor == null ? null : afterCursor.getCreated(),
+                afterCursor == null ? null : afterCursor.getId(),
+                Limit.of(limit)
+        );
+
+        String nextCursor = comments.size() == limit ? CommentCursor.of(comments.getLast()).encode() : null;
+        List<CommentDto> commentDtos = comments.stream()
+                .map(commentMapper::toCommentDto)
+                .toList();
+        return new CommentPageDto(commentDtos, nextCursor);
+    }
+
     @Override
     public CommentDto addComment(Long userId, Long itemId, CommentCreateDto commentCreateDto) {
         LocalDateTime now = Util.getNowTruncatedToSeconds();
@@ -137,13 +290,47 @@ public class ItemServiceImpl implements ItemService {
                 now
         );
 
-        if (startedBooking.isEmpty()) {
+        if (startedBooking.isEmpty() && !bookingArchiveService.hasStartedBooking(userId, itemId, now)) {
             throw new IllegalComment("Comment may be created only by user who booked this item");
         }
 
         Comment comment = commentMapper.fromCommentCreateDto(commentCreateDto, user, item);
         commentRepository.save(comment);
-        return commentMapper.toCommentDto(comment);
+        commentRepository.incrementCommentCountOfItem(itemId);
+        itemDetailCache.evict(itemId);
+        CommentDto commentDto = commentMapper.toCommentDto(comment);
+        outboxService.add(OutboxEventType.COMMENT_ADDED, itemId, commentDto);
+        return commentDto;
+    }
+
+    private List<ItemDto> searchIndexed(String searchText, int from, int size, boolean fuzzy) {
+        List<Long> itemIds = itemSearchIndex.search(searchText, from, size, fuzzy);
+
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Item> items = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        return itemIds.stream()
+                .map(items::get)
+                .filter(item -> item != null && Boolean.TRUE.equals(item.getAvailable()))
+                .map(itemMapper::toItemDto)
+                .toList();
+    }
+
+    private ItemDto publishItemEvent(OutboxEventType type, ItemDto itemDto) {
+        outboxService.add(type, itemDto.getId(), itemDto);
+        return itemDto;
+    }
+
+    private RuntimeException getOwnedItemMutationFailure(Long ownerId, Long itemId) {
+        User user = RepositoryUtil.getUserWithCheck(userRepository, ownerId);
+        Item item = RepositoryUtil.getItemWithCheck(itemRepository, itemId);
+        RepositoryUtil.checkOwnerRightsForItem(item, user);
+        return new NotFound(String.format("Item with id %d not found.", itemId));
     }
 
     private List<ItemWithBookingAndCommentsDto> createItemWithBookingAndCommentsDtoList(LocalDateTime now,
@@ -152,32 +339,67 @@ public class ItemServiceImpl implements ItemService {
                 .map(Item::getId)
                 .toList();
 
-        Map<Long, BookingOnlyDatesDto> lastBookingsForItemsMap = bookingRepository
-                .findAllLastBookingsForItems(now, itemIds)
-                .stream()
-                .collect(Collectors.toMap(booking -> booking.getItem().getId(), bookingMapper::toBookingOnlyDatesDto));
+        return parallelQueries.fanOut(
+                () -> itemBookingSummaryService.getSummaries(now, itemIds),
+                () -> summarizeComments(itemIds),
+                (summaries, commentSummaries) ->
+                        createItemWithBookingAndCommentsDtoList(items, summaries, commentSummaries)
+        );
+    }
 
-        Map<Long, BookingOnlyDatesDto> nearestNextBookingsForItemsMap = bookingRepository
-                .findAllNearestNextBookingsForItems(now, itemIds)
-                .stream()
-                .collect(Collectors.toMap(booking -> booking.getItem().getId(), bookingMapper::toBookingOnlyDatesDto));
+    // only the stored count and the latest comments of each item are read, older ones are paged through getComments;
+    // comments are mapped right away, while the session that loaded their authors is still open
+    private Map<Long, CommentSummary> summarizeComments(List<Long> itemIds) {
+        Map<Long, Long> counts = new HashMap<>();
 
-        Map<Long, List<CommentDto>> commentsForItemsMap = commentRepository.findAllByItemIn(items)
+        for (Object[] row : RepositoryUtil.findAllInChunks(itemIds, commentRepository::findCommentCountsOfItems)) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+
+        if (counts.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> latestIds = commentRepository.findLatestIdsForItems(List.copyOf(counts.keySet()), LATEST_COMMENTS);
+        Map<Long, List<Comment>> latestForItems = RepositoryUtil
+                .findAllInChunks(latestIds, commentRepository::findAllByIdIn)
                 .stream()
-                .collect(
-                        Collectors.groupingBy(
-                                comment -> comment.getItem().getId(),
-                                Collectors.mapping(commentMapper::toCommentDto, Collectors.toList())
-                        )
-                );
+                .sorted(NEWEST_COMMENTS_FIRST)
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        Map<Long, CommentSummary> commentSummaries = new HashMap<>();
 
+        counts.forEach((itemId, count) -> {
+            List<Comment> latest = latestForItems.getOrDefault(itemId, List.of());
+            String nextCursor = count > latest.size() && !latest.isEmpty()
+                    ? CommentCursor.of(latest.getLast()).encode()
+                    : null;
+            List<CommentDto> commentDtos = latest.stream()
+                    .map(commentMapper::toCommentDto)
+                    .toList();
+            commentSummaries.put(itemId, new CommentSummary(count, commentDtos, nextCursor));
+        });
+
+        return commentSummaries;
+    }
+
+    private List<ItemWithBookingAndCommentsDto> createItemWithBookingAndCommentsDtoList(
+            List<Item> items,
+            Map<Long, ItemBookingSummary> summaries,
+            Map<Long, CommentSummary> commentSummaries) {
         return items.stream()
                 .map(item -> {
-                    BookingOnlyDatesDto lastBooking = lastBookingsForItemsMap.get(item.getId());
-                    BookingOnlyDatesDto nearestNextBooking = nearestNextBookingsForItemsMap.get(item.getId());
-                    List<CommentDto> comments = commentsForItemsMap.get(item.getId());
-                    return itemMapper.toItemWithBookingDto(item, lastBooking, nearestNextBooking, comments);
+                    ItemBookingSummary summary = summaries.get(item.getId());
+                    BookingOnlyDatesDto lastBooking = bookingMapper.toLastBookingOnlyDatesDto(summary);
+                    BookingOnlyDatesDto nearestNextBooking = bookingMapper.toNextBookingOnlyDatesDto(summary);
+                    CommentSummary comments = commentSummaries.getOrDefault(item.getId(), CommentSummary.EMPTY);
+                    return itemMapper.toItemWithBookingDto(item, lastBooking, nearestNextBooking, comments.latest(),
+                            comments.count(), comments.nextCursor());
                 })
                 .toList();
     }
+
+    private record CommentSummary(long count, List<CommentDto> latest, String nextCursor) {
+        private static final CommentSummary EMPTY = new CommentSummary(0, List.of(), null);
+    }
 }
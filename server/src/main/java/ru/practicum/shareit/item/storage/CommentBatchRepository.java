@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.storage;
+
+import java.util.List;
+
+public interface CommentBatchRepository {
+    // ids of at most limit newest comments of each item, every item is read through its own bounded index range
+    List<Long> findLatestIdsForItems(List<Long> itemIds, int limit);
+}
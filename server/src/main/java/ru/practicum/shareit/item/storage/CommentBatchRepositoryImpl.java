@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.storage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CommentBatchRepositoryImpl implements CommentBatchRepository {
+    public static final String LATEST_IDS_OF_ITEM = "(SELECT c.id FROM comments c WHERE c.item_id = ? " +
+            "ORDER BY c.created DESC, c.id DESC LIMIT ?)";
+
+    private static final int ITEMS_PER_STATEMENT = 100;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Long> findLatestIdsForItems(List<Long> itemIds, int limit) {
+        List<Long> ids = new ArrayList<>();
+
+        for (int from = 0; from < itemIds.size(); from += ITEMS_PER_STATEMENT) {
+            List<Long> chunk = itemIds.subList(from, Math.min(from + ITEMS_PER_STATEMENT, itemIds.size()));
+            Query query = entityManager.createNativeQuery(
+                    String.join(" UNION ALL ", Collections.nCopies(chunk.size(), LATEST_IDS_OF_ITEM)), Long.class);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(2 * i + 1, chunk.get(i));
+                query.setParameter(2 * i + 2, limit);
+            }
+
+            for (Object id : query.getResultList()) {
+                ids.add(((Number) id).longValue());
+            }
+        }
+
+        return ids;
+    }
+}
@@ -1,13 +1,50 @@
 package ru.practicum.shareit.item.storage;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.Comment;
 import ru.practicum.shareit.item.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemIn(List<Item> items);
-
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentBatchRepository {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemIs(Item item);
+
+    @EntityGraph(attributePaths = "author")
+    List<Comment> findAllByIdIn(Collection<Long> ids);
+
+    // counts are kept on items, so they cost one primary key lookup per item instead of a scan of its comments
+    @Query(nativeQuery = true, value
+            = "SELECT i.id, i.comment_count FROM items i WHERE i.id IN (?1) AND i.comment_count > 0")
+    List<Object[]> findCommentCountsOfItems(List<Long> itemIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = "UPDATE items SET comment_count = comment_count + 1 WHERE id = ?1")
+    void incrementCommentCountOfItem(Long itemId);
+
+    // run before the author is deleted, the comments go away with the author through the foreign key cascade
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value
+            = "UPDATE items i SET comment_count = comment_count - (" +
+                "SELECT COUNT(*) FROM comments c WHERE c.item_id = i.id AND c.author_id = ?1" +
+            ") WHERE i.id IN (SELECT c.item_id FROM comments c WHERE c.author_id = ?1)")
+    void decrementCommentCountsOfAuthor(Long authorId);
+
+    // the author's name is shown with the comments, so the items they commented on change with it
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value
+            = "UPDATE items SET version = version + 1 " +
+            "WHERE id IN (SELECT c.item_id FROM comments c WHERE c.author_id = ?1)")
+    void incrementVersionsOfItemsCommentedBy(Long authorId);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author " +
+            "WHERE c.item.id = ?1 AND (?2 IS NULL OR c.created < ?2 OR (c.created = ?2 AND c.id < ?3)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findPageOfItem(Long itemId, LocalDateTime createdBefore, Long idBefore, Limit limit);
 }
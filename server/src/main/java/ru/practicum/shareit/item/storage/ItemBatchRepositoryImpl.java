@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import ru.practicum.shareit.item.Item;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ItemBatchRepositoryImpl implements ItemBatchRepository {
+    private static final String INSERT_ITEM = "INSERT INTO items (name, description, is_available, owner_id, " +
+            "request_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_ITEM, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Item item = items.get(i);
+                        ps.setString(1, item.getName());
+                        ps.setString(2, item.getDescription());
+                        ps.setBoolean(3, item.getAvailable());
+                        ps.setLong(4, item.getOwner().getId());
+
+                        if (item.getRequest() != null) {
+                            ps.setLong(5, item.getRequest().getId());
+                        } else {
+                            ps.setNull(5, Types.BIGINT);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+
+        for (int i = 0; i < items.size(); i++) {
+            Number id = (Number) keys.get(i).values().iterator().next();
+            items.get(i).setId(id.longValue());
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.request.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemBatchRepository {
     @Query("SELECT i FROM Item i " +
             "WHERE i.available " +
             "AND (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%')) " +
@@ -17,5 +21,34 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByOwnerId(Long ownerId);
 
+    Stream<Item> streamAllByOwnerIdOrderById(Long ownerId);
+
+    Stream<Item> streamAllByAvailableIsTrueOrderById();
+
+    boolean existsByOwnerId(Long ownerId);
+
     List<Item> findAllByRequestIn(List<ItemRequest> requests);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.name = COALESCE(?3, i.name), " +
+            "i.description = COALESCE(?4, i.description), " +
+            "i.available = COALESCE(?5, i.available), " +
+            "i.version = i.version + 1 " +
+            "WHERE i.id = ?1 AND i.owner.id = ?2")
+    int updateOwnedItem(Long itemId, Long ownerId, String name, String description, Boolean available);
+
+    // reads only stored columns: comments are counted on the item, and renaming an author bumps the version
+    // of the items they commented on
+    @Query(nativeQuery = true, value
+            = "SELECT CONCAT(i.version, ':', i.comment_count, ':', " +
+                "s.last_booking_id, ':', s.next_booking_id, ':', s.valid_until) AS validator, " +
+                "CASE WHEN s.valid_until <= ?2 THEN TRUE ELSE FALSE END AS expired " +
+            "FROM items i " +
+            "LEFT JOIN item_booking_summary s ON s.item_id = i.id " +
+            "WHERE i.id = ?1")
+    Optional<ItemValidator> findValidatorById(Long itemId, LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Item i WHERE i.id = ?1 AND i.owner.id = ?2")
+    int deleteOwnedItem(Long itemId, Long ownerId);
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.storage;
+
+// everything the item detail is built from: its version, booking summary and comments with their authors
+public interface ItemValidator {
+    String getValidator();
+
+    // the summary is rebuilt lazily once its boundary passes, so until then it can't vouch for the bookings
+    Boolean getExpired();
+}
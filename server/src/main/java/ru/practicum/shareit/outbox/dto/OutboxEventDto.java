@@ -0,0 +1,19 @@
+package ru.practicum.shareit.outbox.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class OutboxEventDto {
+    private Long id;
+    private OutboxEventType type;
+    private Long aggregateId;
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime created;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.outbox.service;
+
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+public interface OutboxService {
+    void add(OutboxEventType type, Long aggregateId, Object payload);
+
+    void addMissingDeliveries();
+
+    int relayPending();
+
+    void purgePublished();
+}
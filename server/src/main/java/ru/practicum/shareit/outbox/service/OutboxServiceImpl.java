@@ -0,0 +1,190 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.outbox.OutboxDelivery;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+import ru.practicum.shareit.outbox.storage.OutboxDeliveryRepository;
+import ru.practicum.shareit.outbox.storage.OutboxEventRepository;
+import ru.practicum.shareit.util.Util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// every event gets a delivery per sink, and each sink is relayed on its own: its due deliveries are claimed
+// in a short transaction that also schedules their retry, the sink is called outside of any transaction,
+// and the outcome is recorded in another one. A sink that fails is retried with a doubling delay until
+// max-attempts, then its delivery is dead-lettered; the other sinks carry on meanwhile. A relay that dies
+// while a sink works leaves the claim to expire at the retry time, so events are delivered at least once,
+// and retry-delay should be longer than a sink may take.
+@Slf4j
+@Service
+@Transactional
+public class OutboxServiceImpl implements OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeliveryRepository outboxDeliveryRepository;
+    private final ObjectMapper objectMapper;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration retryDelay;
+    private final int maxAttempts;
+
+    public OutboxServiceImpl(OutboxEventRepository outboxEventRepository,
+                             OutboxDeliveryRepository outboxDeliveryRepository,
+                             ObjectMapper objectMapper,
+                             List<OutboxSink> sinks,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${shareit.outbox.batch-size:500}") int batchSize,
+                             @Value("${shareit.outbox.retention:P1D}") String retention,
+                             @Value("${shareit.outbox.retry-delay:PT10S}") String retryDelay,
+                             @Value("${shareit.outbox.max-attempts:10}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeliveryRepository = outboxDeliveryRepository;
+        this.objectMapper = objectMapper;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = Duration.parse(retention);
+        this.retryDelay = Duration.parse(retryDelay);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(OutboxEventType type, Long aggregateId, Object payload) {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        OutboxEvent event;
+
+        try {
+            event = outboxEventRepository.save(OutboxEvent.builder()
+                    .type(type)
+                    .aggregateId(aggregateId)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .created(now)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(String.format("Payload of %s event for %d is not serializable",
+                    type, aggregateId), e);
+        }
+
+        outboxDeliveryRepository.saveAll(sinks.stream()
+                .map(sink -> OutboxDelivery.builder()
+                        .eventId(event.getId())
+                        .sink(sink.getName())
+                        .nextAttempt(now)
+                        .build())
+                .toList());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void addMissingDeliveries() {
+        for (OutboxSink sink : sinks) {
+            int added = outboxDeliveryRepository.insertMissingForSink(sink.getName());
+
+            if (added > 0) {
+                log.info("Outbox added {} pending events to sink {}", added, sink.getName());
+            }
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(fixedDelayString = "${shareit.outbox.relay-interval:PT1S}")
+    public int relayPending() {
+        int relayed = 0;
+
+        for (OutboxSink sink : sinks) {
+            relayed += relay(sink);
+        }
+
+        return relayed;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${shareit.outbox.purge-interval:PT1H}")
+    public void purgePublished() {
+        int purged = outboxEventRepository.deletePublishedBefore(Util.getNowTruncatedToSeconds().minus(retention));
+
+        if (purged > 0) {
+            log.info("Outbox purged {} published events", purged);
+        }
+    }
+
+    private int relay(OutboxSink sink) {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        List<OutboxDelivery> deliveries = transactionTemplate.execute(status -> claim(sink, now));
+
+        if (deliveries == null || deliveries.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> deliveryIds = deliveries.stream().map(OutboxDelivery::getId).toList();
+        List<Long> eventIds = deliveries.stream().map(OutboxDelivery::getEventId).toList();
+        List<OutboxEventDto> dtos = outboxEventRepository.findAllById(eventIds).stream()
+                .sorted(Comparator.comparing(OutboxEvent::getId))
+                .map(event -> new OutboxEventDto(event.getId(), event.getType(), event.getAggregateId(),
+                        event.getPayload(), event.getCreated()))
+                .toList();
+
+        try {
+            sink.publish(dtos);
+        } catch (RuntimeException e) {
+            log.warn("Outbox sink {} failed to take {} events", sink.getName(), dtos.size(), e);
+            transactionTemplate.executeWithoutResult(status -> deadLetterExhausted(sink, deliveryIds, eventIds));
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime delivered = Util.getNowTruncatedToSeconds();
+            outboxDeliveryRepository.markDelivered(deliveryIds, delivered);
+            outboxEventRepository.markPublishedIfSettled(eventIds, delivered);
+        });
+        log.debug("Outbox relayed {} events to sink {}", dtos.size(), sink.getName());
+        return dtos.size();
+    }
+
+    // the retry is scheduled before the sink is called, so it also serves as the lease of the claim
+    private List<OutboxDelivery> claim(OutboxSink sink, LocalDateTime now) {
+        List<OutboxDelivery> deliveries = outboxDeliveryRepository.findAllBySinkAndNextAttemptLessThanEqualOrderById(
+                sink.getName(), now, Limit.of(batchSize));
+
+        deliveries.stream()
+                .collect(Collectors.groupingBy(OutboxDelivery::getAttempts,
+                        Collectors.mapping(OutboxDelivery::getId, Collectors.toList())))
+                .forEach((attempts, ids) -> outboxDeliveryRepository.startAttempt(ids,
+                        now.plus(retryDelay.multipliedBy(1L << Math.min(attempts, 20)))));
+
+        return deliveries;
+    }
+
+    private void deadLetterExhausted(OutboxSink sink, List<Long> deliveryIds, List<Long> eventIds) {
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        int deadLettered = outboxDeliveryRepository.markDeadLetteredAfter(deliveryIds, now, maxAttempts);
+
+        if (deadLettered > 0) {
+            log.error("Outbox sink {} gave up on {} events after {} attempts", sink.getName(), deadLettered,
+                    maxAttempts);
+            outboxEventRepository.markPublishedIfSettled(eventIds, now);
+        }
+    }
+}
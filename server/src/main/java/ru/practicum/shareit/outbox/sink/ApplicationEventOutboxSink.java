@@ -0,0 +1,24 @@
+package ru.practicum.shareit.outbox.sink;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventOutboxSink implements OutboxSink {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public String getName() {
+        return "application-event";
+    }
+
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.outbox.sink;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty("shareit.outbox.http-sink.url")
+public class HttpOutboxSink implements OutboxSink {
+    private final RestTemplate rest;
+    private final String url;
+
+    public HttpOutboxSink(@Value("${shareit.outbox.http-sink.url}") String url,
+                          @Value("${shareit.outbox.http-sink.timeout:PT5S}") String timeout,
+                          RestTemplateBuilder builder) {
+        this.url = url;
+        this.rest = builder
+                .setConnectTimeout(Duration.parse(timeout))
+                .setReadTimeout(Duration.parse(timeout))
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public void publish(List<OutboxEventDto> events) {
+        rest.postForEntity(url, events, Void.class);
+    }
+}
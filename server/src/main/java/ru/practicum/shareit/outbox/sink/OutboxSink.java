@@ -0,0 +1,12 @@
+package ru.practicum.shareit.outbox.sink;
+
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+
+import java.util.List;
+
+public interface OutboxSink {
+    // stored with the deliveries, so it has to stay the same across restarts
+    String getName();
+
+    void publish(List<OutboxEventDto> events);
+}
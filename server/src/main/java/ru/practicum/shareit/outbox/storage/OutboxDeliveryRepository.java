@@ -0,0 +1,44 @@
+package ru.practicum.shareit.outbox.storage;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.outbox.OutboxDelivery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxDeliveryRepository extends JpaRepository<OutboxDelivery, Long> {
+    // lock timeout -2 is SKIP LOCKED, so concurrent relays take disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<OutboxDelivery> findAllBySinkAndNextAttemptLessThanEqualOrderById(String sink, LocalDateTime dateTime,
+                                                                         Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxDelivery d SET d.attempts = d.attempts + 1, d.nextAttempt = ?2 WHERE d.id IN ?1")
+    int startAttempt(List<Long> ids, LocalDateTime retryAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxDelivery d SET d.delivered = ?2, d.nextAttempt = NULL WHERE d.id IN ?1")
+    int markDelivered(List<Long> ids, LocalDateTime delivered);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxDelivery d SET d.deadLettered = ?2, d.nextAttempt = NULL " +
+            "WHERE d.id IN ?1 AND d.attempts >= ?3")
+    int markDeadLetteredAfter(List<Long> ids, LocalDateTime deadLettered, int maxAttempts);
+
+    // pending events written before the sink was configured get a delivery to it as well
+    @Modifying
+    @Query(nativeQuery = true, value
+            = "INSERT INTO outbox_deliveries (event_id, sink, attempts, next_attempt) " +
+            "SELECT e.id, ?1, 0, e.created FROM outbox_events e " +
+            "WHERE e.published IS NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_deliveries d WHERE d.event_id = e.id AND d.sink = ?1)")
+    int insertMissingForSink(String sink);
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.outbox.storage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.outbox.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // an event is published once every sink has either taken it or given up on it
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.published = ?2 WHERE e.id IN ?1 AND e.published IS NULL " +
+            "AND NOT EXISTS (SELECT d.id FROM OutboxDelivery d WHERE d.eventId = e.id AND d.nextAttempt IS NOT NULL)")
+    int markPublishedIfSettled(List<Long> ids, LocalDateTime published);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.published < ?1")
+    int deletePublishedBefore(LocalDateTime dateTime);
+}
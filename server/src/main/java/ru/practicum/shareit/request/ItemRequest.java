@@ -9,6 +9,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -20,7 +22,7 @@ import ru.practicum.shareit.user.User;
 import java.time.LocalDateTime;
 
 @Builder(toBuilder = true)
-@AllArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 @NoArgsConstructor
 @Getter
 @Setter
@@ -44,4 +46,12 @@ public class ItemRequest {
     @Builder.Default
     @Column(name = "created")
     private LocalDateTime created = LocalDateTime.now();
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public ItemRequest(Long id, String description, User requestor, LocalDateTime created) {
+        this(id, description, requestor, created, null);
+    }
 }
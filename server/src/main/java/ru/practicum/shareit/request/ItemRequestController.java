@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -48,9 +50,13 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    @ResponseStatus(HttpStatus.OK)
-    public ItemRequestDto getRequestById(@PathVariable long requestId) {
+    public ResponseEntity<ItemRequestDto> getRequestById(@PathVariable long requestId, WebRequest request) {
         log.info("Request to get request {}", requestId);
-        return itemRequestService.getRequestById(requestId);
+
+        if (request.checkNotModified(itemRequestService.getETag(requestId))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        return ResponseEntity.ok(itemRequestService.getRequestById(requestId));
     }
 }
@@ -13,4 +13,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> getAllRequests(long userId);
 
     ItemRequestDto getRequestById(long requestId);
+
+    String getETag(long requestId);
 }
@@ -2,9 +2,13 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFound;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
@@ -12,6 +16,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.ETags;
 import ru.practicum.shareit.util.RepositoryUtil;
 
 import java.util.List;
@@ -26,12 +31,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
     private final ItemRequestMapper itemRequestMapper;
     private final ItemMapper itemMapper;
+    private final OutboxService outboxService;
 
     @Override
+    @Transactional
     public ItemRequestDto createRequest(long userId, ItemRequestCreateDto itemRequestCreateDto) {
         User requestor = RepositoryUtil.getUserWithCheck(userRepository, userId);
         ItemRequest itemRequest = itemRequestMapper.fromItemRequestCreateDto(itemRequestCreateDto, requestor);
-        return itemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest), null);
+        ItemRequestDto itemRequestDto = itemRequestMapper.toItemRequestDto(itemRequestRepository.save(itemRequest), null);
+        outboxService.add(OutboxEventType.REQUEST_CREATED, itemRequestDto.getId(), itemRequestDto);
+        return itemRequestDto;
     }
 
     @Override
@@ -65,9 +74,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .getFirst();
     }
 
+    @Override
+    public String getETag(long requestId) {
+        return itemRequestRepository.findValidatorById(requestId)
+                .map(validator -> ETags.strong(requestId + ":" + validator))
+                .orElseThrow(() -> new NotFound(String.format("Item request with id %d not found.", requestId)));
+    }
+
     private List<ItemRequestDto> createItemRequestDtoList(List<ItemRequest> requests) {
-        Map<Long, List<ItemResponseDto>> requestToResponsesMap = itemRepository
-                .findAllByRequestIn(requests)
+        Map<Long, List<ItemResponseDto>> requestToResponsesMap = RepositoryUtil
+                .findAllInChunks(requests, itemRepository::findAllByRequestIn)
                 .stream()
                 .collect(
                         Collectors.groupingBy(
@@ -1,13 +1,23 @@
 package ru.practicum.shareit.request.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorIsOrderByCreatedDesc(User user);
 
     List<ItemRequest> findAllByRequestorNotOrderByCreatedDesc(User user);
+
+    // ids only grow, so the count, version sum and max id of the answering items change with any of them
+    @Query(nativeQuery = true, value
+            = "SELECT CONCAT(r.version, ':', COUNT(i.id), ':', SUM(i.version), ':', MAX(i.id)) " +
+            "FROM requests r LEFT JOIN items i ON i.request_id = r.id " +
+            "WHERE r.id = ?1 " +
+            "GROUP BY r.id, r.version")
+    Optional<String> findValidatorById(Long requestId);
 }
@@ -6,6 +6,8 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -14,7 +16,7 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Builder(toBuilder = true)
-@AllArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 @NoArgsConstructor
 @Getter
 @Setter
@@ -32,4 +34,12 @@ public class User {
 
     @Column(name = "email", nullable = false, unique = true, length = 512)
     private String email;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public User(Long id, String name, String email) {
+        this(id, name, email, null);
+    }
 }
@@ -9,6 +9,8 @@ public interface UserService {
 
     UserDto get(Long id) throws NotFound;
 
+    String getETag(Long id) throws NotFound;
+
     UserDto update(UserDto userDto, Long userId) throws NotFound;
 
     UserDto delete(Long id) throws NotFound;
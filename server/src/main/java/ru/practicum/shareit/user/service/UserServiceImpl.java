@@ -3,20 +3,44 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.cache.BookingListCache;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.NotFound;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.ETags;
 import ru.practicum.shareit.util.RepositoryUtil;
+import ru.practicum.shareit.util.Util;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
+    private final BookingRepository bookingRepository;
     private final UserMapper userMapper;
+    private final BookingListCache bookingListCache;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
+    private final ItemDetailCache itemDetailCache;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemBookingSummaryService itemBookingSummaryService;
 
     @Override
     public UserDto create(UserCreateDto userCreateDto) {
@@ -32,24 +56,47 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public UserDto update(UserDto userDto, Long userId) throws NotFound {
-        User user = RepositoryUtil.getUserWithCheck(userRepository, userId);
+    @Transactional(readOnly = true)
+    public String getETag(Long id) throws NotFound {
+        return userRepository.findVersionById(id)
+                .map(version -> ETags.strong(id + ":" + version))
+                .orElseThrow(() -> new NotFound(String.format("User with id %d not found.", id)));
+    }
 
-        if (userDto.getEmail() != null) {
-            user.setEmail(userDto.getEmail());
+    @Override
+    public UserDto update(UserDto userDto, Long userId) throws NotFound {
+        if (userRepository.updateUser(userId, userDto.getName(), userDto.getEmail()) == 0) {
+            throw new NotFound(String.format("User with id %d not found.", userId));
         }
 
         if (userDto.getName() != null) {
-            user.setName(userDto.getName());
+            commentRepository.incrementVersionsOfItemsCommentedBy(userId);
         }
 
-        return userMapper.toUserDto(userRepository.save(user));
+        bookingListCache.evictAll();
+        itemDetailCache.evictAll();
+        return userMapper.toUserDto(RepositoryUtil.getUserWithCheck(userRepository, userId));
     }
 
     @Override
     public UserDto delete(Long id) throws NotFound {
         User user = RepositoryUtil.getUserWithCheck(userRepository, id);
+        LocalDateTime now = Util.getNowTruncatedToSeconds();
+        commentRepository.decrementCommentCountsOfAuthor(id);
+        // the bookings are deleted by the cascade, so the ones still blocking an interval are read beforehand,
+        // as are the items of other owners whose summaries may point at a booking of the user
+        List<Booking> activeBookings = bookingRepository.findAllWithItemOfUserWithStatusInAndEndAfter(
+                id, ItemAvailabilityIndex.BLOCKING_STATUSES, now);
+        List<Long> bookedItemIds = bookingRepository.findItemIdsOfOthersBookedByUserEndingAfter(id, now);
         userRepository.deleteById(id);
+        userRepository.flush();
+        itemBookingSummaryService.refresh(now, bookedItemIds);
+        activeBookings.forEach(itemAvailabilityIndex::release);
+        bookingListCache.evictAll();
+        itemSearchIndex.removeAllOfOwner(id);
+        itemSuggestIndex.removeAllOfOwner(id);
+        itemSearchCache.evictAll();
+        itemDetailCache.evictAll();
         return userMapper.toUserDto(user);
     }
 }
@@ -1,8 +1,19 @@
 package ru.practicum.shareit.user.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.User;
 
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.name = COALESCE(?2, u.name), u.email = COALESCE(?3, u.email), " +
+            "u.version = u.version + 1 " +
+            "WHERE u.id = ?1")
+    int updateUser(Long userId, String name, String email);
 
+    @Query("SELECT u.version FROM User u WHERE u.id = ?1")
+    Optional<Long> findVersionById(Long userId);
 }
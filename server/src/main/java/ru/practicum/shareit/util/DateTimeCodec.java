@@ -0,0 +1,158 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+// fixed yyyy-MM-dd'T'HH:mm:ss codec, equivalent to the DateTimeFormatter pattern but without per-call allocations
+public final class DateTimeCodec {
+    public static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+    public static final int LENGTH = 19;
+
+    private static final DateTimeFormatter FALLBACK_FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+    private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[LENGTH]);
+
+    private DateTimeCodec() {
+    }
+
+    public static String format(LocalDateTime dateTime) {
+        char[] buffer = BUFFERS.get();
+        return format(dateTime, buffer) ? new String(buffer) : FALLBACK_FORMATTER.format(dateTime);
+    }
+
+    public static LocalDateTime parse(CharSequence text) {
+        if (text.length() != LENGTH) {
+            throw new DateTimeParseException(String.format("Text '%s' does not match %s", text, PATTERN), text, 0);
+        }
+
+        expect(text, 4, '-');
+        expect(text, 7, '-');
+        expect(text, 10, 'T');
+        expect(text, 13, ':');
+        expect(text, 16, ':');
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31 || hour > 24 || minute > 59 || second > 59
+                || hour == 24 && (minute != 0 || second != 0)) {
+            throw new DateTimeParseException(String.format("Text '%s' is not a valid date time", text), text, 0);
+        }
+
+        // resolved like the formatter's SMART style: a day past the end of its month is moved back to that end,
+        // and 24:00:00 is the midnight that starts the next day
+        int dayOfMonth = Math.min(day, Month.of(month).length(Year.isLeap(year)));
+        LocalDateTime dateTime = LocalDateTime.of(year, month, dayOfMonth, hour % 24, minute, second);
+        return hour == 24 ? dateTime.plusDays(1) : dateTime;
+    }
+
+    // years outside 0001-9999 do not fit the fixed year-of-era layout and are left to the formatter
+    private static boolean format(LocalDateTime dateTime, char[] buffer) {
+        int year = dateTime.getYear();
+
+        if (year < 1 || year > 9999) {
+            return false;
+        }
+
+        writeDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        writeDigits(buffer, 5, dateTime.getMonthValue(), 2);
+        buffer[7] = '-';
+        writeDigits(buffer, 8, dateTime.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        writeDigits(buffer, 11, dateTime.getHour(), 2);
+        buffer[13] = ':';
+        writeDigits(buffer, 14, dateTime.getMinute(), 2);
+        buffer[16] = ':';
+        writeDigits(buffer, 17, dateTime.getSecond(), 2);
+        return true;
+    }
+
+    private static void writeDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int digits(CharSequence text, int offset, int width) {
+        int value = 0;
+
+        for (int i = offset; i < offset + width; i++) {
+            char c = text.charAt(i);
+
+            if (c < '0' || c > '9') {
+                throw new DateTimeParseException(String.format("Unexpected '%c' at index %d in '%s'", c, i, text),
+                        text, i);
+            }
+
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+
+    private static void expect(CharSequence text, int index, char separator) {
+        if (text.charAt(index) != separator) {
+            throw new DateTimeParseException(String.format("Expected '%c' at index %d in '%s'", separator, index,
+                    text), text, index);
+        }
+    }
+
+    public static class Serializer extends StdSerializer<LocalDateTime> {
+        public Serializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            char[] buffer = BUFFERS.get();
+
+            if (format(value, buffer)) {
+                generator.writeString(buffer, 0, LENGTH);
+            } else {
+                generator.writeString(FALLBACK_FORMATTER.format(value));
+            }
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<LocalDateTime> {
+        public Deserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.VALUE_STRING) {
+                return (LocalDateTime) context.handleUnexpectedToken(LocalDateTime.class, parser);
+            }
+
+            CharBuffer text = CharBuffer.wrap(parser.getTextCharacters(), parser.getTextOffset(),
+                    parser.getTextLength());
+
+            try {
+                return parse(text);
+            } catch (DateTimeParseException e) {
+                return (LocalDateTime) context.handleWeirdStringValue(LocalDateTime.class, text.toString(),
+                        e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class ETags {
+    private static final int TAG_BYTES = 16;
+
+    // the validator is hashed so that the ids and counters it is built from don't leak to clients
+    public static String strong(String validator) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(validator.getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, TAG_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
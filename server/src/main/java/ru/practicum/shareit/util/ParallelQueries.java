@@ -0,0 +1,102 @@
+package ru.practicum.shareit.util;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+// runs two independent read-only queries concurrently: the first on the caller's thread and connection, the second
+// on a virtual thread in its own transaction; at most half of the connection pool is lent to second queries,
+// so callers waiting on them always leave connections for the rest of the application
+@Component
+public class ParallelQueries {
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long timeoutNanos;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ParallelQueries(PlatformTransactionManager transactionManager,
+                           @Value("${shareit.parallel-queries.enabled:false}") boolean enabled,
+                           @Value("${shareit.parallel-queries.timeout:PT5S}") String timeout,
+                           @Value("${shareit.parallel-queries.max-concurrent:8}") int maxConcurrent,
+                           @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize) {
+        this.timeoutNanos = Duration.parse(timeout).toNanos();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+        // the statements of a second query get the timeout too, so the database stops one that is never waited for
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, TimeUnit.NANOSECONDS.toSeconds(timeoutNanos)));
+        this.enabled = enabled;
+        this.permits = new Semaphore(Math.min(maxConcurrent, maxPoolSize / 2));
+    }
+
+    // falls back to running both queries in the caller's transaction when disabled or saturated; a second query
+    // still running at the timeout fails the call rather than running again, and keeps its permit until it ends,
+    // as it keeps its connection until then
+    public <A, B, R> R fanOut(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> merge) {
+        if (!enabled || !isOutsideOfWrites() || !permits.tryAcquire()) {
+            return merge.apply(first.get(), second.get());
+        }
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        Future<B> secondResult;
+
+        try {
+            secondResult = executor.submit(() -> {
+                try {
+                    return readOnlyTransaction.execute(status -> second.get());
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        A firstResult = first.get();
+
+        try {
+            return merge.apply(firstResult, secondResult.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException(String.format("Parallel query timed out after %d ms",
+                    TimeUnit.NANOSECONDS.toMillis(timeoutNanos)), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parallel queries", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // other connections can't see writes of the current transaction, so those must stay on its own connection
+    private static boolean isOutsideOfWrites() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
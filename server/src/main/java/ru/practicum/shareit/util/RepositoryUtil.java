@@ -9,7 +9,14 @@ import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
 public class RepositoryUtil {
+    public static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     public static User getUserWithCheck(UserRepository userRepository, Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new NotFound(String.format("User with id %d not found.", id)));
@@ -30,4 +37,30 @@ public class RepositoryUtil {
         return itemRequestRepository.findById(id)
                 .orElseThrow(() -> new NotFound(String.format("Item request with id %d not found.", id)));
     }
+
+    public static <T, R> List<R> findAllInChunks(List<T> values, Function<List<T>, List<R>> query) {
+        if (values.size() <= IN_CLAUSE_CHUNK_SIZE) {
+            return query.apply(values);
+        }
+
+        List<R> result = new ArrayList<>();
+
+        for (int from = 0; from < values.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, values.size());
+            result.addAll(query.apply(values.subList(from, to)));
+        }
+
+        return result;
+    }
+
+    public static <T> int updateAllInChunks(List<T> values, ToIntFunction<List<T>> update) {
+        int updated = 0;
+
+        for (int from = 0; from < values.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, values.size());
+            updated += update.applyAsInt(values.subList(from, to));
+        }
+
+        return updated;
+    }
 }
@@ -2,6 +2,7 @@ CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
 
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT uq_user_email UNIQUE (email)
@@ -12,6 +13,7 @@ CREATE TABLE IF NOT EXISTS requests (
     description VARCHAR(1000) NOT NULL CHECK (description <> ''),
     requestor_id BIGINT NOT NULL,
     created TIMESTAMP,
+    version BIGINT DEFAULT 0 NOT NULL,
 
     CONSTRAINT pk_request PRIMARY KEY (id),
     FOREIGN KEY (requestor_id) REFERENCES users (id) ON DELETE CASCADE
@@ -24,6 +26,8 @@ CREATE TABLE IF NOT EXISTS items (
     is_available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    version BIGINT DEFAULT 0 NOT NULL,
+    comment_count BIGINT DEFAULT 0 NOT NULL,
 
     CONSTRAINT pk_item PRIMARY KEY (id),
     FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE,
@@ -37,6 +41,7 @@ CREATE TABLE IF NOT EXISTS bookings (
     item_id BIGINT NOt NULL,
     booker_id BIGINT NOT NULL,
     status SMALLINT NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
 
     CONSTRAINT pk_booking PRIMARY KEY (id),
     FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
@@ -54,3 +59,84 @@ CREATE TABLE IF NOT EXISTS comments (
     FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
     FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
 );
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    status SMALLINT NOT NULL,
+    archived TIMESTAMP NOT NULL,
+
+    CONSTRAINT pk_booking_archive PRIMARY KEY (id),
+    FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+    FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count BIGINT DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created);
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_end ON bookings (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_end ON bookings (end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_booker_end ON bookings_archive (booker_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_item_end ON bookings_archive (item_id, end_date);
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created, id);
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+
+-- fills comment_count of items commented before the column existed, a no-op on later starts
+UPDATE items SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.item_id = items.id)
+WHERE comment_count = 0 AND EXISTS (SELECT 1 FROM comments c WHERE c.item_id = items.id);
+
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_start_date TIMESTAMP,
+    last_end_date TIMESTAMP,
+    next_booking_id BIGINT,
+    next_start_date TIMESTAMP,
+    next_end_date TIMESTAMP,
+    valid_until TIMESTAMP,
+
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_valid_until ON item_booking_summary (valid_until);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    payload TEXT NOT NULL,
+    created TIMESTAMP NOT NULL,
+    published TIMESTAMP,
+
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_events_published ON outbox_events (published, id);
+
+CREATE TABLE IF NOT EXISTS outbox_deliveries (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    event_id BIGINT NOT NULL,
+    sink VARCHAR(64) NOT NULL,
+    attempts INTEGER DEFAULT 0 NOT NULL,
+    next_attempt TIMESTAMP,
+    delivered TIMESTAMP,
+    dead_lettered TIMESTAMP,
+
+    CONSTRAINT pk_outbox_delivery PRIMARY KEY (id),
+    FOREIGN KEY (event_id) REFERENCES outbox_events (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_deliveries_due ON outbox_deliveries (sink, next_attempt);
+CREATE INDEX IF NOT EXISTS idx_outbox_deliveries_event ON outbox_deliveries (event_id, next_attempt);
@@ -11,20 +11,26 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.BookingUnavailable;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.util.DateTimeCodec;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -44,8 +50,8 @@ class BookingControllerTest {
 
     private final BookingDto bookingDto = new BookingDto(
             1L,
-            LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString(),
-            LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS).toString(),
+            LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS),
+            LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS),
             new ItemDto(1L, "name", "desc", true, null),
             new UserDto(1L, "name", "email"),
             BookingStatus.WAITING
@@ -68,8 +74,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.booker", is(bookingDto.getBooker()), UserDto.class))
                 .andExpect(jsonPath("$.item", is(bookingDto.getItem()), ItemDto.class))
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())))
-                .andExpect(jsonPath("$.end", is(bookingDto.getEnd())))
-                .andExpect(jsonPath("$.start", is(bookingDto.getStart())));
+                .andExpect(jsonPath("$.end", is(DateTimeCodec.format(bookingDto.getEnd()))))
+                .andExpect(jsonPath("$.start", is(DateTimeCodec.format(bookingDto.getStart()))));
         Mockito.verify(bookingService, Mockito.times(1))
                 .createBooking(ArgumentMatchers.anyLong(), ArgumentMatchers.any());
     }
@@ -108,8 +114,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.booker", is(bookingDto.getBooker()), UserDto.class))
                 .andExpect(jsonPath("$.item", is(bookingDto.getItem()), ItemDto.class))
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())))
-                .andExpect(jsonPath("$.end", is(bookingDto.getEnd())))
-                .andExpect(jsonPath("$.start", is(bookingDto.getStart())));
+                .andExpect(jsonPath("$.end", is(DateTimeCodec.format(bookingDto.getEnd()))))
+                .andExpect(jsonPath("$.start", is(DateTimeCodec.format(bookingDto.getStart()))));
         Mockito.verify(bookingService, Mockito.times(1))
                 .processBookingByOwner(1L, true, 1L);
     }
@@ -129,8 +135,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.booker", is(bookingDto.getBooker()), UserDto.class))
                 .andExpect(jsonPath("$.item", is(bookingDto.getItem()), ItemDto.class))
                 .andExpect(jsonPath("$.status", is(bookingDto.getStatus().toString())))
-                .andExpect(jsonPath("$.end", is(bookingDto.getEnd())))
-                .andExpect(jsonPath("$.start", is(bookingDto.getStart())));
+                .andExpect(jsonPath("$.end", is(DateTimeCodec.format(bookingDto.getEnd()))))
+                .andExpect(jsonPath("$.start", is(DateTimeCodec.format(bookingDto.getStart()))));
         Mockito.verify(bookingService, Mockito.times(1))
                 .getBooking(1L, 1L);
     }
@@ -138,8 +144,8 @@ class BookingControllerTest {
     @Test
     void getAllBookingsWithStateTest() throws Exception {
         Mockito
-                .when(bookingService.getAllBookingsWithState(1L, BookingState.ALL))
-                .thenReturn(List.of(bookingDto));
+                .when(bookingService.getAllBookingsWithState(1L, BookingState.ALL, null, null))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), null));
 
         mvc.perform(get(API_PREFIX + "?state=ALL")
                         .header("X-Sharer-User-Id", 1L)
@@ -151,17 +157,17 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].booker", is(bookingDto.getBooker()), UserDto.class))
                 .andExpect(jsonPath("$.[0].item", is(bookingDto.getItem()), ItemDto.class))
                 .andExpect(jsonPath("$.[0].status", is(bookingDto.getStatus().toString())))
-                .andExpect(jsonPath("$.[0].end", is(bookingDto.getEnd())))
-                .andExpect(jsonPath("$.[0].start", is(bookingDto.getStart())));
+                .andExpect(jsonPath("$.[0].end", is(DateTimeCodec.format(bookingDto.getEnd()))))
+                .andExpect(jsonPath("$.[0].start", is(DateTimeCodec.format(bookingDto.getStart()))));
         Mockito.verify(bookingService, Mockito.times(1))
-                .getAllBookingsWithState(1L, BookingState.ALL);
+                .getAllBookingsWithState(1L, BookingState.ALL, null, null);
     }
 
     @Test
     void getAllBookingsOfItemsForOwnerTest() throws Exception {
         Mockito
-                .when(bookingService.getAllBookingsOfItemsForOwner(1L, BookingState.ALL))
-                .thenReturn(List.of(bookingDto));
+                .when(bookingService.getAllBookingsOfItemsForOwner(1L, BookingState.ALL, null, null))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), null));
 
         mvc.perform(get(API_PREFIX + "/owner?state=ALL")
                         .header("X-Sharer-User-Id", 1L)
@@ -173,9 +179,85 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.[0].booker", is(bookingDto.getBooker()), UserDto.class))
                 .andExpect(jsonPath("$.[0].item", is(bookingDto.getItem()), ItemDto.class))
                 .andExpect(jsonPath("$.[0].status", is(bookingDto.getStatus().toString())))
-                .andExpect(jsonPath("$.[0].end", is(bookingDto.getEnd())))
-                .andExpect(jsonPath("$.[0].start", is(bookingDto.getStart())));
+                .andExpect(jsonPath("$.[0].end", is(DateTimeCodec.format(bookingDto.getEnd()))))
+                .andExpect(jsonPath("$.[0].start", is(DateTimeCodec.format(bookingDto.getStart()))));
         Mockito.verify(bookingService, Mockito.times(1))
-                .getAllBookingsOfItemsForOwner(1L, BookingState.ALL);
+                .getAllBookingsOfItemsForOwner(1L, BookingState.ALL, null, null);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllBookingsWithState_whenNextPageExists_thenReturnCursorHeader() throws Exception {
+        Mockito
+                .when(bookingService.getAllBookingsWithState(1L, BookingState.ALL, "cursor", 1))
+                .thenReturn(new BookingPageDto(List.of(bookingDto), "next"));
+
+        mvc.perform(get(API_PREFIX + "?state=ALL&cursor=cursor&size=1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$.length()", is(1L), Long.class));
+        Mockito.verify(bookingService, Mockito.times(1))
+                .getAllBookingsWithState(1L, BookingState.ALL, "cursor", 1);
+    }
+
+    @Test
+    void getAllBookings_whenSizeOutOfRange_thenBadRequest() throws Exception {
+        for (String path : List.of(API_PREFIX, API_PREFIX + "/owner")) {
+            for (String size : List.of("0", "-1", "101")) {
+                mvc.perform(get(path + "?size=" + size)
+                                .header("X-Sharer-User-Id", 1L)
+                                .characterEncoding(StandardCharsets.UTF_8)
+                                .accept(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isBadRequest())
+                        .andExpect(jsonPath("$.error", is("Validation exception")));
+            }
+        }
+
+        Mockito.verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void streamAllBookingsWithStateTest() throws Exception {
+        Mockito
+                .doAnswer(invocation -> {
+                    Consumer<BookingDto> consumer = invocation.getArgument(2);
+                    consumer.accept(bookingDto);
+                    consumer.accept(bookingDto);
+                    return null;
+                })
+                .when(bookingService)
+                .streamAllBookingsWithState(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(BookingState.ALL),
+                        ArgumentMatchers.any());
+
+        String line = mapper.writeValueAsString(bookingDto) + "\n";
+
+        mvc.perform(get(API_PREFIX)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line + line));
+        Mockito.verify(bookingService, Mockito.never())
+                .getAllBookingsWithState(ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                        ArgumentMatchers.any());
+    }
+
+    @Test
+    void countBookingsOfItemsForOwnerByStateTest() throws Exception {
+        BookingStateCountsDto counts = new BookingStateCountsDto(6, 1, 2, 3, 1, 0);
+
+        Mockito
+                .when(bookingService.countBookingsOfItemsForOwnerByState(1L))
+                .thenReturn(counts);
+
+        mvc.perform(get(API_PREFIX + "/owner/summary")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(counts.getAll()), Long.class))
+                .andExpect(jsonPath("$.future", is(counts.getFuture()), Long.class))
+                .andExpect(jsonPath("$.rejected", is(counts.getRejected()), Long.class));
+    }
+}
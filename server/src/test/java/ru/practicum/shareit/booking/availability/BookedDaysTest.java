@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class BookedDaysTest {
+    private BookedDays bookedDays;
+    private BookingIntervalTree tree;
+
+    private LocalDate origin;
+
+    @BeforeEach
+    public void beforeEach() {
+        origin = LocalDate.of(2030, 1, 1);
+        bookedDays = new BookedDays(origin);
+        tree = new BookingIntervalTree();
+    }
+
+    @Test
+    void freeDays_whenNothingBooked_thenAllDaysFree() {
+        Assertions.assertEquals(10, bookedDays.freeDays(origin, origin.plusDays(9)).size());
+    }
+
+    @Test
+    void freeDays_whenBookingEndsAtMidnight_thenEndDayFree() {
+        book(1L, 2, 4);
+
+        List<LocalDate> freeDays = bookedDays.freeDays(origin, origin.plusDays(5));
+
+        Assertions.assertEquals(List.of(origin, origin.plusDays(1), origin.plusDays(4), origin.plusDays(5)),
+                freeDays);
+    }
+
+    @Test
+    void freeDays_whenBookingCoversPartOfDay_thenDayBooked() {
+        tree.add(1L, origin.atTime(10, 0), origin.atTime(12, 0));
+        bookedDays.book(origin.atTime(10, 0), origin.atTime(12, 0));
+
+        Assertions.assertEquals(List.of(origin.plusDays(1)), bookedDays.freeDays(origin, origin.plusDays(1)));
+    }
+
+    @Test
+    void release_whenOtherBookingSharesDay_thenSharedDayStaysBooked() {
+        book(1L, 2, 4);
+        book(2L, 3, 6);
+
+        tree.remove(1L, origin.plusDays(2).atStartOfDay());
+        bookedDays.release(origin.plusDays(2).atStartOfDay(), origin.plusDays(4).atStartOfDay(), tree::overlaps);
+
+        List<LocalDate> freeDays = bookedDays.freeDays(origin, origin.plusDays(6));
+
+        Assertions.assertEquals(List.of(origin, origin.plusDays(1), origin.plusDays(2), origin.plusDays(6)), freeDays);
+    }
+
+    private void book(long bookingId, int fromDay, int toDay) {
+        tree.add(bookingId, origin.plusDays(fromDay).atStartOfDay(), origin.plusDays(toDay).atStartOfDay());
+        bookedDays.book(origin.plusDays(fromDay).atStartOfDay(), origin.plusDays(toDay).atStartOfDay());
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+class BookingIntervalTreeTest {
+    private BookingIntervalTree tree;
+
+    private LocalDateTime origin;
+
+    @BeforeEach
+    public void beforeEach() {
+        tree = new BookingIntervalTree();
+        origin = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        for (long i = 0; i < 100; i++) {
+            tree.add(i, origin.plusDays(i * 2), origin.plusDays(i * 2 + 1));
+        }
+    }
+
+    @Test
+    void overlaps_whenIntervalIntersectsBooking_thenTrue() {
+        Assertions.assertTrue(tree.overlaps(origin.plusDays(10).plusHours(12), origin.plusDays(12)));
+        Assertions.assertTrue(tree.overlaps(origin.minusDays(1), origin.plusHours(1)));
+    }
+
+    @Test
+    void overlaps_whenIntervalBetweenBookings_thenFalse() {
+        Assertions.assertFalse(tree.overlaps(origin.plusDays(11), origin.plusDays(12)));
+        Assertions.assertFalse(tree.overlaps(origin.minusDays(2), origin));
+        Assertions.assertFalse(tree.overlaps(origin.plusDays(199), origin.plusDays(300)));
+    }
+
+    @Test
+    void remove_whenBookingRemoved_thenIntervalIsFree() {
+        tree.remove(5L, origin.plusDays(10));
+
+        Assertions.assertEquals(99, tree.size());
+        Assertions.assertFalse(tree.overlaps(origin.plusDays(10), origin.plusDays(11)));
+        Assertions.assertTrue(tree.overlaps(origin.plusDays(12), origin.plusDays(13)));
+    }
+
+    @Test
+    void overlaps_whenLongBookingInLeftSubtree_thenTrue() {
+        tree.add(1000L, origin.minusDays(5), origin.plusDays(500));
+
+        Assertions.assertTrue(tree.overlaps(origin.plusDays(401), origin.plusDays(402)));
+    }
+
+    @Test
+    void removeEnded_whenBookingsEnded_thenOnlyLaterOnesKept() {
+        Assertions.assertEquals(50, tree.removeEnded(origin.plusDays(99)));
+
+        Assertions.assertEquals(50, tree.size());
+        Assertions.assertFalse(tree.overlaps(origin.minusDays(1), origin.plusDays(99)));
+        Assertions.assertTrue(tree.overlaps(origin.plusDays(100), origin.plusDays(101)));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+class ItemAvailabilityIndexTest {
+    private ItemAvailabilityIndex index;
+
+    private final Item item = new Item(1L, "item", "description", true, null, null);
+
+    private LocalDateTime origin;
+
+    @BeforeEach
+    public void beforeEach() {
+        index = new ItemAvailabilityIndex(Mockito.mock(BookingRepository.class));
+        origin = LocalDate.now().plusDays(1).atStartOfDay();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void tryReserve_whenOverlapping_thenOnlyFirstReserved() {
+        Assertions.assertTrue(index.tryReserve(booking(1L, 0, 2)));
+        Assertions.assertFalse(index.tryReserve(booking(2L, 1, 3)));
+        Assertions.assertTrue(index.tryReserve(booking(3L, 2, 3)));
+
+        Assertions.assertFalse(index.isAvailable(item.getId(), origin.plusDays(1), origin.plusDays(2)));
+    }
+
+    @Test
+    void tryReserve_whenTransactionRolledBack_thenIntervalFreed() {
+        TransactionSynchronizationManager.initSynchronization();
+        Assertions.assertTrue(index.tryReserve(booking(1L, 0, 2)));
+        Assertions.assertFalse(index.isAvailable(item.getId(), origin, origin.plusDays(1)));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        Assertions.assertTrue(index.isAvailable(item.getId(), origin, origin.plusDays(1)));
+        Assertions.assertEquals(3, index.getFreeDays(item.getId(), origin.toLocalDate(),
+                origin.toLocalDate().plusDays(2)).size());
+    }
+
+    @Test
+    void release_whenTransactionNotCommitted_thenIntervalKept() {
+        Booking booking = booking(1L, 0, 2);
+        index.tryReserve(booking);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.release(booking);
+
+        Assertions.assertFalse(index.isAvailable(item.getId(), origin, origin.plusDays(1)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        Assertions.assertTrue(index.isAvailable(item.getId(), origin, origin.plusDays(1)));
+    }
+
+    @Test
+    void evictEnded_whenAllBookingsEnded_thenItemDropped() {
+        Booking ended = booking(1L, -5, -3);
+        index.tryReserve(ended);
+        index.tryReserve(booking(2L, 3, 4));
+
+        index.evictEnded();
+
+        Assertions.assertTrue(index.isAvailable(item.getId(), ended.getStart(), ended.getEnd()));
+        Assertions.assertFalse(index.isAvailable(item.getId(), origin.plusDays(3), origin.plusDays(4)));
+        Assertions.assertEquals(List.of(origin.toLocalDate().plusDays(2), origin.toLocalDate().plusDays(4)),
+                index.getFreeDays(item.getId(), origin.toLocalDate().plusDays(2), origin.toLocalDate().plusDays(4)));
+
+        index.release(booking(2L, 3, 4));
+        index.evictEnded();
+
+        Assertions.assertTrue(index.isAvailable(item.getId(), origin.plusDays(3), origin.plusDays(4)));
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private Booking booking(Long id, int startShift, int endShift) {
+        return new Booking(id, origin.plusDays(startShift), origin.plusDays(endShift), item, null,
+                BookingStatus.WAITING);
+    }
+}
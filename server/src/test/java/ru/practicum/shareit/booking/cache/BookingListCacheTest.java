@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class BookingListCacheTest {
+    private BookingListCache cache;
+    private AtomicInteger loads;
+
+    private LocalDateTime bucketStart;
+
+    @BeforeEach
+    public void beforeEach() {
+        cache = new BookingListCache("PT10S", 2, 2);
+        loads = new AtomicInteger();
+        bucketStart = LocalDateTime.of(2030, 1, 1, 12, 0, 0);
+    }
+
+    @Test
+    void get_whenSameBucket_thenLoadedOnce() {
+        get(BookingRole.BOOKER, 1L, BookingState.CURRENT, bucketStart);
+        get(BookingRole.BOOKER, 1L, BookingState.CURRENT, bucketStart.plusSeconds(9));
+
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_whenBucketPassed_thenLoadedAgain() {
+        get(BookingRole.BOOKER, 1L, BookingState.CURRENT, bucketStart);
+        get(BookingRole.BOOKER, 1L, BookingState.CURRENT, bucketStart.plusSeconds(10));
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_whenOtherRoleOrUser_thenEntryKept() {
+        get(BookingRole.BOOKER, 1L, BookingState.ALL, bucketStart);
+        get(BookingRole.OWNER, 1L, BookingState.ALL, bucketStart);
+
+        cache.evict(BookingRole.OWNER, List.of(1L, 2L));
+        get(BookingRole.BOOKER, 1L, BookingState.ALL, bucketStart);
+        get(BookingRole.OWNER, 1L, BookingState.ALL, bucketStart);
+
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_whenEvictedWhileLoading_thenPageNotCached() {
+        cache.get(BookingRole.BOOKER, 1L, BookingState.ALL, null, null, bucketStart, () -> {
+            cache.evict(BookingRole.BOOKER, List.of(1L));
+            return load();
+        });
+        get(BookingRole.BOOKER, 1L, BookingState.ALL, bucketStart);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_whenMoreUsersThanLimit_thenLeastRecentEvicted() {
+        get(BookingRole.BOOKER, 1L, BookingState.ALL, bucketStart);
+        get(BookingRole.BOOKER, 2L, BookingState.ALL, bucketStart);
+        get(BookingRole.BOOKER, 1L, BookingState.ALL, bucketStart);
+        get(BookingRole.BOOKER, 3L, BookingState.ALL, bucketStart);
+
+        get(BookingRole.BOOKER, 1L, BookingState.ALL, bucketStart);
+        Assertions.assertEquals(3, loads.get());
+
+        get(BookingRole.BOOKER, 2L, BookingState.ALL, bucketStart);
+        Assertions.assertEquals(4, loads.get());
+    }
+
+    @Test
+    void get_whenHorizonIsZero_thenNeverCached() {
+        cache = new BookingListCache("PT0S", 2, 2);
+
+        get(BookingRole.BOOKER, 1L, BookingState.ALL, bucketStart);
+        get(BookingRole.BOOKER, 1L, BookingState.ALL, bucketStart);
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    private void get(BookingRole role, long userId, BookingState state, LocalDateTime now) {
+        cache.get(role, userId, state, null, null, now, this::load);
+    }
+
+    private BookingPageDto load() {
+        loads.incrementAndGet();
+        return new BookingPageDto(List.of(), null);
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.storage.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({BookingArchiveServiceImpl.class})
+@TestPropertySource(properties = "shareit.booking-archive.chunk-size=2")
+class BookingArchiveServiceTest {
+    @Autowired
+    private BookingArchiveService bookingArchiveService;
+
+    @MockBean
+    private BookingRepository bookingRepository;
+
+    @MockBean
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    private LocalDateTime newestEnd;
+
+    @BeforeEach
+    public void beforeEach() {
+        newestEnd = LocalDateTime.now().minusYears(2);
+
+        when(bookingRepository.findIdsEndedBeforeWithStatusNot(ArgumentMatchers.any(),
+                ArgumentMatchers.eq(BookingStatus.WAITING), ArgumentMatchers.any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+
+        when(archivedBookingRepository.findNewestEnd())
+                .thenReturn(Optional.of(newestEnd));
+    }
+
+    @Test
+    void archiveTest() {
+        Assertions.assertEquals(3, bookingArchiveService.archive());
+
+        verify(archivedBookingRepository).copyFromBookings(ArgumentMatchers.eq(List.of(1L, 2L)),
+                ArgumentMatchers.any());
+        verify(archivedBookingRepository).copyFromBookings(ArgumentMatchers.eq(List.of(3L)), ArgumentMatchers.any());
+        verify(bookingRepository).deleteAllByIds(List.of(1L, 2L));
+        verify(bookingRepository).deleteAllByIds(List.of(3L));
+        verify(transactionManager, times(2)).commit(ArgumentMatchers.any());
+    }
+
+    @Test
+    void archive_whenNothingEnded_thenNothingMoved() {
+        when(bookingRepository.findIdsEndedBeforeWithStatusNot(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any()))
+                .thenReturn(List.of());
+
+        Assertions.assertEquals(0, bookingArchiveService.archive());
+
+        verify(archivedBookingRepository, never()).copyFromBookings(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void mayContainTest() {
+        when(archivedBookingRepository.findNewestEnd())
+                .thenReturn(Optional.empty());
+        bookingArchiveService.archive();
+
+        Assertions.assertFalse(bookingArchiveService.mayContain(BookingState.ALL, null));
+
+        when(archivedBookingRepository.findNewestEnd())
+                .thenReturn(Optional.of(newestEnd));
+        bookingArchiveService.archive();
+
+        Assertions.assertTrue(bookingArchiveService.mayContain(BookingState.ALL, null));
+        Assertions.assertTrue(bookingArchiveService.mayContain(BookingState.PAST, newestEnd));
+        Assertions.assertFalse(bookingArchiveService.mayContain(BookingState.REJECTED, newestEnd.plusSeconds(1)));
+        Assertions.assertFalse(bookingArchiveService.mayContain(BookingState.CURRENT, null));
+        Assertions.assertFalse(bookingArchiveService.mayContain(BookingState.FUTURE, null));
+        Assertions.assertFalse(bookingArchiveService.mayContain(BookingState.WAITING, null));
+    }
+
+    @Test
+    void countTest() {
+        when(archivedBookingRepository.countByStatusOfOwner(1L))
+                .thenReturn(List.of(
+                        new Object[]{BookingStatus.APPROVED, 5L},
+                        new Object[]{BookingStatus.REJECTED, 2L},
+                        new Object[]{BookingStatus.CANCELED, 1L}
+                ));
+
+        Map<BookingState, Long> counts = bookingArchiveService.count(BookingRole.OWNER, 1L);
+
+        Assertions.assertEquals(Map.of(BookingState.ALL, 8L, BookingState.PAST, 5L, BookingState.REJECTED, 2L),
+                counts);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import com.querydsl.core.types.Predicate;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -7,19 +8,35 @@ import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingRole;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPageDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 import ru.practicum.shareit.exception.BookingUnavailable;
+import ru.practicum.shareit.exception.IllegalCursor;
 import ru.practicum.shareit.exception.IllegalOwner;
 import ru.practicum.shareit.exception.NotFound;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.outbox.OutboxEventType;
 import ru.practicum.shareit.service.ServiceTest;
+import ru.practicum.shareit.util.DateTimeCodec;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -40,8 +57,8 @@ class BookingServiceTest extends ServiceTest {
         BookingDto bookingDto = bookingService.createBooking(booker.getId(), bookingCreateDto);
 
         Assertions.assertEquals(bookingCreateDto.getItemId(), bookingDto.getItem().getId());
-        Assertions.assertEquals(bookingCreateDto.getStart(), bookingDto.getStart());
-        Assertions.assertEquals(bookingCreateDto.getEnd(), bookingDto.getEnd());
+        Assertions.assertEquals(bookingCreateDto.getStart(), DateTimeCodec.format(bookingDto.getStart()));
+        Assertions.assertEquals(bookingCreateDto.getEnd(), DateTimeCodec.format(bookingDto.getEnd()));
     }
 
     @Test
@@ -75,6 +92,64 @@ class BookingServiceTest extends ServiceTest {
         });
     }
 
+    @Test
+    void createBooking_whenItemAlreadyBooked_throwBookingUnavailable() {
+        BookingCreateDto bookingCreateDto = new BookingCreateDto(
+                itemsOfOwner1.getFirst().getId(),
+                originNow.plusDays(40).toString(),
+                originNow.plusDays(42).toString()
+        );
+        BookingCreateDto overlappingBookingCreateDto = new BookingCreateDto(
+                itemsOfOwner1.getFirst().getId(),
+                originNow.plusDays(41).toString(),
+                originNow.plusDays(43).toString()
+        );
+
+        bookingService.createBooking(booker.getId(), bookingCreateDto);
+
+        Assertions.assertThrows(BookingUnavailable.class, () -> {
+            bookingService.createBooking(booker.getId(), overlappingBookingCreateDto);
+        });
+    }
+
+    @Test
+    void createBookingsTest() {
+        when(itemRepository.findAllById(ArgumentMatchers.any()))
+                .thenReturn(itemsOfOwner1);
+        doAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            long id = 100;
+
+            for (Booking booking : bookings) {
+                booking.setId(id++);
+            }
+
+            return null;
+        }).when(bookingRepository).insertAll(ArgumentMatchers.any());
+
+        List<BookingCreateDto> bookingCreateDtos = List.of(
+                new BookingCreateDto(itemsOfOwner1.get(0).getId(), originNow.plusDays(60).toString(),
+                        originNow.plusDays(62).toString()),
+                new BookingCreateDto(itemsOfOwner1.get(0).getId(), originNow.plusDays(61).toString(),
+                        originNow.plusDays(63).toString()),
+                new BookingCreateDto(99L, originNow.plusDays(60).toString(), originNow.plusDays(62).toString()),
+                new BookingCreateDto(itemsOfOwner1.get(1).getId(), originNow.minusDays(1).toString(),
+                        originNow.plusDays(1).toString()),
+                new BookingCreateDto(itemsOfOwner1.get(1).getId(), originNow.plusDays(60).toString(),
+                        originNow.plusDays(62).toString())
+        );
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(booker.getId(), bookingCreateDtos);
+
+        Assertions.assertEquals(bookingCreateDtos.size(), results.size());
+        Assertions.assertEquals(100L, results.get(0).getBooking().getId());
+        Assertions.assertNotNull(results.get(1).getError());
+        Assertions.assertNotNull(results.get(2).getError());
+        Assertions.assertNotNull(results.get(3).getError());
+        Assertions.assertEquals(101L, results.get(4).getBooking().getId());
+        Assertions.assertNull(results.get(4).getError());
+    }
+
     @Test
     void processBookingByOwnerTest() {
         Booking booking = bookingsForItemsOfOwner1.getLast();
@@ -89,6 +164,47 @@ class BookingServiceTest extends ServiceTest {
         );
 
         Assertions.assertEquals(BookingStatus.REJECTED, bookingDto.getStatus());
+        verify(outboxService).add(OutboxEventType.BOOKING_REJECTED, booking.getId(), bookingDto);
+    }
+
+    @Test
+    void processBookingByOwner_whenBookingMissing_thenThrowNotFound() {
+        when(bookingRepository.findById(999L))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThrows(NotFound.class, () -> {
+            bookingService.processBookingByOwner(ownerOfItems1.getId(), true, 999L);
+        });
+    }
+
+    @Test
+    void processBookingsByOwnerTest() {
+        Booking booking = bookingsForItemsOfOwner1.getLast();
+
+        when(bookingRepository.findAllWithItemAndBookerOfOwnerWithStatus(ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(booking));
+        when(bookingRepository.updateStatusOfOwnerBookings(ArgumentMatchers.anyLong(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(1);
+
+        List<BookingDto> bookingDtos = bookingService.processBookingsByOwner(
+                ownerOfItems1.getId(),
+                false,
+                new BookingBulkDecisionDto(List.of(booking.getId(), 999L), null)
+        );
+
+        Assertions.assertEquals(1, bookingDtos.size());
+        Assertions.assertEquals(BookingStatus.REJECTED, bookingDtos.getFirst().getStatus());
+    }
+
+    @Test
+    void processBookingsByOwner_whenIdsAndItemSet_throwBookingUnavailable() {
+        BookingBulkDecisionDto decision = new BookingBulkDecisionDto(List.of(1L), 1L);
+
+        Assertions.assertThrows(BookingUnavailable.class, () -> {
+            bookingService.processBookingsByOwner(ownerOfItems1.getId(), true, decision);
+        });
     }
 
     @Test
@@ -102,7 +218,7 @@ class BookingServiceTest extends ServiceTest {
             bookingService.processBookingByOwner(
                     ownerOfItems1.getId(),
                     false,
-                    bookingsForItemsOfOwner1.getLast().getId()
+                    booking.getId()
             );
         });
     }
@@ -132,8 +248,8 @@ class BookingServiceTest extends ServiceTest {
         Assertions.assertEquals(booking.getStatus(), bookingDto.getStatus());
         Assertions.assertEquals(booking.getBooker().getId(), bookingDto.getBooker().getId());
         Assertions.assertEquals(booking.getItem().getId(), bookingDto.getItem().getId());
-        Assertions.assertEquals(booking.getStart().toString(), bookingDto.getStart());
-        Assertions.assertEquals(booking.getEnd().toString(), bookingDto.getEnd());
+        Assertions.assertEquals(booking.getStart(), bookingDto.getStart());
+        Assertions.assertEquals(booking.getEnd(), bookingDto.getEnd());
     }
 
     @Test
@@ -148,7 +264,8 @@ class BookingServiceTest extends ServiceTest {
     @Test
     void getAllBookingsWithStateAllTest() {
         List<BookingDto> allBookingsOfItemsForOwner
-                = bookingService.getAllBookingsWithState(booker.getId(), BookingState.ALL);
+                = bookingService.getAllBookingsWithState(booker.getId(), BookingState.ALL, null, null)
+                .getBookings();
 
         Assertions.assertEquals(3, allBookingsOfItemsForOwner.size());
         Assertions.assertEquals(bookingsForItemsOfOwner1.get(0).getId(), allBookingsOfItemsForOwner.get(0).getId());
@@ -164,15 +281,42 @@ class BookingServiceTest extends ServiceTest {
 
         for (BookingState state : states) {
             Assertions.assertDoesNotThrow(() -> {
-                bookingService.getAllBookingsWithState(booker.getId(), state);
+                bookingService.getAllBookingsWithState(booker.getId(), state, null, null);
             });
         }
     }
 
+    @Test
+    void getAllBookingsWithState_whenPageIsFull_thenReturnNextCursor() {
+        BookingPageDto page = bookingService.getAllBookingsWithState(booker.getId(), BookingState.ALL, null, 3);
+        BookingCursor nextCursor = BookingCursor.decode(page.getNextCursor());
+
+        Assertions.assertEquals(3, page.getBookings().size());
+        Assertions.assertEquals(bookingsForItemsOfOwner1.getLast().getId(), nextCursor.getId());
+        Assertions.assertEquals(bookingsForItemsOfOwner1.getLast().getEnd(), nextCursor.getEnd());
+    }
+
+    @Test
+    void getAllBookingsWithState_whenPageIsNotFull_thenNoNextCursor() {
+        String cursor = BookingCursor.of(bookingsForItemsOfOwner1.getFirst()).encode();
+
+        BookingPageDto page = bookingService.getAllBookingsWithState(booker.getId(), BookingState.ALL, cursor, 10);
+
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getAllBookingsWithState_whenCursorMalformed_throwIllegalCursor() {
+        Assertions.assertThrows(IllegalCursor.class, () -> {
+            bookingService.getAllBookingsWithState(booker.getId(), BookingState.ALL, "not a cursor", 10);
+        });
+    }
+
     @Test
     void getAllBookingsOfItemsForOwnerTest() {
         List<BookingDto> allBookingsOfItemsForOwner
-                = bookingService.getAllBookingsOfItemsForOwner(ownerOfItems1.getId(), BookingState.ALL);
+                = bookingService.getAllBookingsOfItemsForOwner(ownerOfItems1.getId(), BookingState.ALL, null, null)
+                .getBookings();
 
         Assertions.assertEquals(3, allBookingsOfItemsForOwner.size());
         Assertions.assertEquals(bookingsForItemsOfOwner1.get(0).getId(), allBookingsOfItemsForOwner.get(0).getId());
@@ -188,18 +332,143 @@ class BookingServiceTest extends ServiceTest {
 
         for (BookingState state : states) {
             Assertions.assertDoesNotThrow(() -> {
-                bookingService.getAllBookingsOfItemsForOwner(ownerOfItems1.getId(), state);
+                bookingService.getAllBookingsOfItemsForOwner(ownerOfItems1.getId(), state, null, null);
             });
         }
     }
 
     @Test
     void getAllBookingsOfItemsForOwner_whenItemsEmpty_thenThrowNotFound() {
-        when(itemRepository.findAllByOwnerId(ArgumentMatchers.anyLong()))
-                .thenReturn(List.of());
+        when(itemRepository.existsByOwnerId(ArgumentMatchers.anyLong()))
+                .thenReturn(false);
+
+        Assertions.assertThrows(NotFound.class, () -> {
+            bookingService.getAllBookingsOfItemsForOwner(ownerOfItems1.getId(), BookingState.ALL, null, null);
+        });
+    }
+
+    @Test
+    void streamAllBookingsWithStateTest() {
+        when(bookingRepository.streamAllWithItemAndBooker(ArgumentMatchers.any(Predicate.class), ArgumentMatchers.any()))
+                .thenAnswer((m) -> bookingsForItemsOfOwner1.stream());
+        List<BookingDto> streamed = new ArrayList<>();
+
+        bookingService.streamAllBookingsWithState(booker.getId(), BookingState.ALL, streamed::add);
+
+        Assertions.assertEquals(bookingsForItemsOfOwner1.size(), streamed.size());
+        Assertions.assertEquals(bookingsForItemsOfOwner1.getLast().getId(), streamed.getLast().getId());
+    }
+
+    @Test
+    void streamAllBookingsOfItemsForOwner_whenItemsEmpty_thenThrowNotFound() {
+        when(itemRepository.existsByOwnerId(ArgumentMatchers.anyLong()))
+                .thenReturn(false);
 
         Assertions.assertThrows(NotFound.class, () -> {
-            bookingService.getAllBookingsOfItemsForOwner(ownerOfItems1.getId(), BookingState.ALL);
+            bookingService.streamAllBookingsOfItemsForOwner(ownerOfItems1.getId(), BookingState.ALL, dto -> {
+            });
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void countBookingsByStateTest() {
+        Map<BookingState, Long> counts = new EnumMap<>(BookingState.class);
+
+        for (BookingState state : BookingState.values()) {
+            counts.put(state, (long) state.ordinal());
+        }
+
+        when(bookingRepository.countMatching(ArgumentMatchers.any(Predicate.class), ArgumentMatchers.anyMap()))
+                .thenAnswer((m) -> {
+                    Map<BookingState, ?> subsets = m.getArgument(1);
+                    Assertions.assertEquals(BookingState.values().length, subsets.size());
+                    return counts;
+                });
+
+        BookingStateCountsDto dto = bookingService.countBookingsByState(booker.getId());
+
+        Assertions.assertEquals(counts.get(BookingState.ALL), dto.getAll());
+        Assertions.assertEquals(counts.get(BookingState.CURRENT), dto.getCurrent());
+        Assertions.assertEquals(counts.get(BookingState.PAST), dto.getPast());
+        Assertions.assertEquals(counts.get(BookingState.FUTURE), dto.getFuture());
+        Assertions.assertEquals(counts.get(BookingState.WAITING), dto.getWaiting());
+        Assertions.assertEquals(counts.get(BookingState.REJECTED), dto.getRejected());
+    }
+
+    @Test
+    void countBookingsOfItemsForOwnerByState_whenItemsEmpty_thenThrowNotFound() {
+        when(itemRepository.existsByOwnerId(ArgumentMatchers.anyLong()))
+                .thenReturn(false);
+
+        Assertions.assertThrows(NotFound.class, () -> {
+            bookingService.countBookingsOfItemsForOwnerByState(ownerOfItems1.getId());
+        });
+    }
+
+    @Test
+    void getAllBookingsWithState_whenPolledRepeatedly_thenServedFromCacheUntilBookingCreated() {
+        for (int i = 0; i < 3; i++) {
+            bookingService.getAllBookingsWithState(booker.getId(), BookingState.CURRENT, null, null);
+        }
+
+        verify(bookingRepository, times(1))
+                .findAllWithItemAndBooker(ArgumentMatchers.any(Predicate.class), ArgumentMatchers.any(),
+                        ArgumentMatchers.any());
+
+        when(userRepository.findById(booker.getId()))
+                .thenReturn(Optional.of(booker));
+        bookingService.createBooking(booker.getId(), new BookingCreateDto(
+                itemsOfOwner1.getFirst().getId(),
+                originNow.plusDays(20).toString(),
+                originNow.plusDays(21).toString()
+        ));
+        bookingService.getAllBookingsWithState(booker.getId(), BookingState.CURRENT, null, null);
+
+        verify(bookingRepository, times(2))
+                .findAllWithItemAndBooker(ArgumentMatchers.any(Predicate.class), ArgumentMatchers.any(),
+                        ArgumentMatchers.any());
+    }
+
+    @Test
+    void getAllBookingsWithState_whenHistoryArchived_thenMergedByEndDescending() {
+        Booking archived = new Booking(10L, originNow.minusDays(401), originNow.minusDays(400),
+                itemsOfOwner1.getFirst(), booker, BookingStatus.APPROVED);
+
+        when(bookingArchiveService.mayContain(ArgumentMatchers.eq(BookingState.ALL), ArgumentMatchers.any()))
+                .thenReturn(true);
+        when(bookingArchiveService.findPage(BookingRole.BOOKER, booker.getId(), BookingState.ALL, null, null))
+                .thenReturn(List.of(archived));
+
+        List<BookingDto> bookings = bookingService
+                .getAllBookingsWithState(booker.getId(), BookingState.ALL, null, null)
+                .getBookings();
+
+        Assertions.assertEquals(bookingsForItemsOfOwner1.size() + 1, bookings.size());
+        Assertions.assertEquals(bookingsForItemsOfOwner1.getLast().getId(), bookings.getFirst().getId());
+        Assertions.assertEquals(archived.getId(), bookings.getLast().getId());
+    }
+
+    @Test
+    void getAllBookingsWithState_whenPageIsFull_thenArchiveAskedFromLastEnd() {
+        bookingService.getAllBookingsWithState(booker.getId(), BookingState.ALL, null, 3);
+
+        verify(bookingArchiveService).mayContain(BookingState.ALL, bookingsForItemsOfOwner1.getLast().getEnd());
+        verify(bookingArchiveService, never()).findPage(ArgumentMatchers.any(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void getBooking_whenArchived_thenFoundInArchive() {
+        Booking archived = new Booking(10L, originNow.minusDays(401), originNow.minusDays(400),
+                itemsOfOwner1.getFirst(), booker, BookingStatus.REJECTED);
+
+        when(bookingRepository.findById(archived.getId()))
+                .thenReturn(Optional.empty());
+        when(bookingArchiveService.findBooking(archived.getId()))
+                .thenReturn(Optional.of(archived));
+
+        BookingDto bookingDto = bookingService.getBooking(booker.getId(), archived.getId());
+
+        Assertions.assertEquals(BookingStatus.REJECTED, bookingDto.getStatus());
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.service.ServiceTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+
+@Nested
+@SpringJUnitConfig({ItemBookingSummaryServiceImpl.class})
+class ItemBookingSummaryServiceTest extends ServiceTest {
+    @Autowired
+    private ItemBookingSummaryService itemBookingSummaryService;
+
+    @Test
+    void getSummariesTest() {
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(originNow, itemIds());
+
+        Assertions.assertEquals(3, summaries.size());
+        Assertions.assertSame(summariesForItemsOfOwner1.getLast(), summaries.get(itemsOfOwner1.getLast().getId()));
+        Mockito.verify(bookingRepository, Mockito.never())
+                .findAllNearestNextBookingsForItems(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void getSummaries_whenSummaryExpired_thenRecomputeIt() {
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(originNow.plusDays(3),
+                itemIds());
+
+        ItemBookingSummary recomputed = summaries.get(itemsOfOwner1.getLast().getId());
+
+        Assertions.assertNotSame(summariesForItemsOfOwner1.getLast(), recomputed);
+        Assertions.assertSame(summariesForItemsOfOwner1.getFirst(), summaries.get(itemsOfOwner1.getFirst().getId()));
+        Mockito.verify(itemBookingSummaryRepository, Mockito.never()).saveAll(ArgumentMatchers.any());
+    }
+
+    @Test
+    void getSummaries_whenAtValidUntil_thenRecomputeIt() {
+        ItemBookingSummary summary = summariesForItemsOfOwner1.getLast();
+
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.getSummaries(summary.getValidUntil(),
+                itemIds());
+
+        Assertions.assertNotSame(summary, summaries.get(summary.getItemId()));
+    }
+
+    @Test
+    void refreshTest() {
+        itemBookingSummaryService.refresh(originNow, itemIds());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ItemBookingSummary>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(itemBookingSummaryRepository).saveAll(captor.capture());
+        List<ItemBookingSummary> saved = captor.getValue();
+
+        Assertions.assertEquals(3, saved.size());
+        Assertions.assertEquals(bookingsForItemsOfOwner1.get(0).getId(), saved.get(0).getLastBookingId());
+        Assertions.assertNull(saved.get(2).getLastBookingId());
+        Assertions.assertEquals(bookingsForItemsOfOwner1.get(2).getId(), saved.get(2).getNextBookingId());
+        Assertions.assertEquals(bookingsForItemsOfOwner1.get(1).getEnd(), saved.get(1).getValidUntil());
+    }
+
+    @Test
+    void refreshExpiredTest() {
+        when(itemBookingSummaryRepository.findExpiredItemIds(ArgumentMatchers.any()))
+                .thenReturn(List.of());
+
+        itemBookingSummaryService.refreshExpired();
+
+        Mockito.verify(itemBookingSummaryRepository, Mockito.never()).saveAll(ArgumentMatchers.any());
+    }
+
+    private List<Long> itemIds() {
+        return itemsOfOwner1.stream()
+                .map(Item::getId)
+                .toList();
+    }
+}
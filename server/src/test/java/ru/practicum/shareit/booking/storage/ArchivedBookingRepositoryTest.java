@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.ArchivedBooking;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@DataJpaTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ArchivedBookingRepositoryTest {
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private User booker;
+    private User owner;
+    private Item item;
+
+    private Booking oldApproved;
+    private Booking oldRejected;
+    private Booking oldWaiting;
+    private Booking recentApproved;
+
+    private LocalDateTime origin;
+
+    @BeforeEach
+    public void beforeEach() {
+        origin = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        booker = userRepository.save(new User(null, "booker", "booker@archive.test"));
+        owner = userRepository.save(new User(null, "owner", "owner@archive.test"));
+        item = itemRepository.save(new Item(null, "item", "d", true, owner, null));
+
+        oldApproved = book(400, BookingStatus.APPROVED);
+        oldRejected = book(390, BookingStatus.REJECTED);
+        oldWaiting = book(380, BookingStatus.WAITING);
+        recentApproved = book(10, BookingStatus.APPROVED);
+
+        List<Long> ids = bookingRepository.findIdsEndedBeforeWithStatusNot(origin.minusDays(365),
+                BookingStatus.WAITING, Limit.of(10));
+
+        Assertions.assertEquals(List.of(oldApproved.getId(), oldRejected.getId()), ids);
+        Assertions.assertEquals(2, archivedBookingRepository.copyFromBookings(ids, origin));
+        Assertions.assertEquals(2, bookingRepository.deleteAllByIds(ids));
+    }
+
+    @Test
+    void archiveTest() {
+        Assertions.assertEquals(List.of(oldWaiting.getId(), recentApproved.getId()), bookingRepository.findAll()
+                .stream()
+                .map(Booking::getId)
+                .sorted()
+                .toList());
+        Assertions.assertEquals(oldRejected.getEnd(), archivedBookingRepository.findNewestEnd().orElseThrow());
+        Assertions.assertEquals(origin, archivedBookingRepository.findById(oldApproved.getId())
+                .orElseThrow()
+                .getArchived());
+    }
+
+    @Test
+    void findPageOfBookerTest() {
+        List<ArchivedBooking> all = archivedBookingRepository.findPageOfBooker(booker.getId(), null, null, null,
+                Limit.unlimited());
+        List<ArchivedBooking> rejected = archivedBookingRepository.findPageOfBooker(booker.getId(),
+                BookingStatus.REJECTED, null, null, Limit.unlimited());
+        List<ArchivedBooking> afterCursor = archivedBookingRepository.findPageOfBooker(booker.getId(), null,
+                oldRejected.getEnd(), oldRejected.getId(), Limit.of(1));
+
+        Assertions.assertEquals(List.of(oldRejected.getId(), oldApproved.getId()), ids(all));
+        Assertions.assertEquals(item.getId(), all.getFirst().getItem().getId());
+        Assertions.assertEquals(List.of(oldRejected.getId()), ids(rejected));
+        Assertions.assertEquals(List.of(oldApproved.getId()), ids(afterCursor));
+        Assertions.assertTrue(archivedBookingRepository.findPageOfBooker(owner.getId(), null, null, null,
+                Limit.unlimited()).isEmpty());
+    }
+
+    @Test
+    void findPageOfOwnerTest() {
+        List<ArchivedBooking> past = archivedBookingRepository.findPageOfOwner(owner.getId(), BookingStatus.APPROVED,
+                null, null, Limit.of(10));
+
+        Assertions.assertEquals(List.of(oldApproved.getId()), ids(past));
+    }
+
+    @Test
+    void countByStatusOfOwnerTest() {
+        List<Object[]> counts = archivedBookingRepository.countByStatusOfOwner(owner.getId());
+
+        Assertions.assertEquals(2, counts.size());
+        Assertions.assertTrue(counts.stream().allMatch(row -> ((Number) row[1]).longValue() == 1L));
+    }
+
+    @Test
+    void existsByBookerIdAndItemIdAndStatusAndStartBeforeTest() {
+        Assertions.assertTrue(archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndStartBefore(
+                booker.getId(), item.getId(), BookingStatus.APPROVED, origin));
+        Assertions.assertFalse(archivedBookingRepository.existsByBookerIdAndItemIdAndStatusAndStartBefore(
+                owner.getId(), item.getId(), BookingStatus.APPROVED, origin));
+    }
+
+    private Booking book(int endDaysAgo, BookingStatus status) {
+        return bookingRepository.save(new Booking(null, origin.minusDays(endDaysAgo + 1),
+                origin.minusDays(endDaysAgo), item, booker, status));
+    }
+
+    private static List<Long> ids(List<ArchivedBooking> bookings) {
+        return bookings.stream()
+                .map(ArchivedBooking::getId)
+                .toList();
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.QBooking;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.User;
@@ -16,6 +17,7 @@ import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @DataJpaTest
@@ -26,6 +28,7 @@ class BookingRepositoryTest {
     private final UserRepository userRepository;
 
     private User booker;
+    private User owner;
 
     private List<Item> items;
 
@@ -38,7 +41,7 @@ class BookingRepositoryTest {
     @BeforeEach
     public void beforeEach() {
         booker = userRepository.save(new User(null, "booker", "booker@test.com"));
-        User owner = userRepository.save(new User(null, "owner", "owner@test.com"));
+        owner = userRepository.save(new User(null, "owner", "owner@test.com"));
 
         items = List.of(
                 itemRepository.save(new Item(null, "1", "d", true, owner, null)),
@@ -54,24 +57,21 @@ class BookingRepositoryTest {
                 origin.plusDays(1),
                 items.get(0),
                 booker,
-                BookingStatus.APPROVED
-        ));
+                BookingStatus.APPROVED));
         bookingInPast2 = bookingRepository.save(new Booking(
                 null,
                 origin.minusDays(5),
                 origin.plusDays(1),
                 items.get(1),
                 booker,
-                BookingStatus.APPROVED
-        ));
+                BookingStatus.APPROVED));
         bookingInFeature = bookingRepository.save(new Booking(
                 null,
                 origin.plusDays(3),
                 origin.plusDays(5),
                 items.get(2),
                 booker,
-                BookingStatus.APPROVED
-        ));
+                BookingStatus.APPROVED));
     }
 
     @AfterEach
@@ -120,4 +120,113 @@ class BookingRepositoryTest {
         Assertions.assertEquals(booker.getId(), booking.get().getBooker().getId());
         Assertions.assertEquals(BookingStatus.APPROVED, booking.get().getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByStatusInAndEndAfterTest() {
+        List<Booking> bookings = bookingRepository.findAllByStatusInAndEndAfter(
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED),
+                origin.plusDays(2)
+        );
+
+        Assertions.assertEquals(1, bookings.size());
+        Assertions.assertEquals(bookingInFeature.getId(), bookings.getFirst().getId());
+    }
+
+    @Test
+    void findAllWithItemOfUserWithStatusInAndEndAfterTest() {
+        User stranger = userRepository.save(new User(null, "stranger", "stranger@test.com"));
+        List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        List<Long> ofBooker = bookingRepository
+                .findAllWithItemOfUserWithStatusInAndEndAfter(booker.getId(), statuses, origin.plusDays(2))
+                .stream()
+                .map(Booking::getId)
+                .toList();
+        List<Long> ofOwner = bookingRepository
+                .findAllWithItemOfUserWithStatusInAndEndAfter(owner.getId(), statuses, origin)
+                .stream()
+                .map(Booking::getId)
+                .toList();
+
+        Assertions.assertEquals(List.of(bookingInFeature.getId()), ofBooker);
+        Assertions.assertEquals(3, ofOwner.size());
+        Assertions.assertTrue(bookingRepository
+                .findAllWithItemOfUserWithStatusInAndEndAfter(stranger.getId(), statuses, origin)
+                .isEmpty());
+    }
+
+    @Test
+    void findItemIdsOfOthersBookedByUserEndingAfterTest() {
+        Item ownItem = itemRepository.save(new Item(null, "4", "d", true, booker, null));
+        bookingRepository.save(new Booking(null, origin.plusDays(1), origin.plusDays(2), ownItem, booker,
+                BookingStatus.WAITING));
+
+        List<Long> itemIds = bookingRepository.findItemIdsOfOthersBookedByUserEndingAfter(booker.getId(),
+                origin.plusDays(2));
+
+        Assertions.assertEquals(List.of(items.get(2).getId()), itemIds);
+    }
+
+    @Test
+    void insertAllTest() {
+        List<Booking> bookings = List.of(
+                new Booking(null, origin.plusDays(20), origin.plusDays(21), items.get(0), booker,
+                        BookingStatus.WAITING),
+                new Booking(null, origin.plusDays(22), origin.plusDays(23), items.get(1), booker,
+                        BookingStatus.WAITING)
+        );
+
+        bookingRepository.insertAll(bookings);
+
+        Assertions.assertNotNull(bookings.get(0).getId());
+        Assertions.assertNotNull(bookings.get(1).getId());
+        Assertions.assertNotEquals(bookings.get(0).getId(), bookings.get(1).getId());
+        Assertions.assertTrue(bookingRepository.findById(bookings.get(1).getId()).isPresent());
+    }
+
+    @Test
+    void updateStatusOfOwnerBookingsTest() {
+        Booking waitingBooking = bookingRepository.save(new Booking(null, origin.plusDays(30), origin.plusDays(31),
+                items.get(0), booker, BookingStatus.WAITING));
+        List<Long> ids = List.of(waitingBooking.getId(), bookingInFeature.getId());
+
+        List<Booking> waitingBookings = bookingRepository.findAllWithItemAndBookerOfOwnerWithStatus(owner.getId(), ids,
+                BookingStatus.WAITING);
+
+        Assertions.assertEquals(List.of(waitingBooking.getId()), waitingBookings.stream().map(Booking::getId).toList());
+        Assertions.assertEquals(List.of(waitingBooking.getId()), bookingRepository
+                .findAllWithItemAndBookerOfItemWithStatus(items.get(0).getId(), BookingStatus.WAITING).stream()
+                .map(Booking::getId)
+                .toList());
+        Assertions.assertEquals(0, bookingRepository.updateStatusOfOwnerBookings(booker.getId(), ids,
+                BookingStatus.WAITING, BookingStatus.APPROVED));
+        Assertions.assertEquals(1, bookingRepository.updateStatusOfOwnerBookings(owner.getId(), ids,
+                BookingStatus.WAITING, BookingStatus.APPROVED));
+        Assertions.assertEquals(BookingStatus.APPROVED,
+                bookingRepository.findById(waitingBooking.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void countMatchingTest() {
+        bookingRepository.save(new Booking(null, origin.plusDays(30), origin.plusDays(31),
+                items.get(0), booker, BookingStatus.WAITING));
+
+        Map<String, Long> counts = bookingRepository.countMatching(
+                QBooking.booking.booker.id.eq(booker.getId()),
+                Map.of(
+                        "all", QBooking.booking.id.isNotNull(),
+                        "current", QBooking.booking.start.before(origin).and(QBooking.booking.end.after(origin)),
+                        "future", QBooking.booking.start.after(origin),
+                        "waiting", QBooking.booking.status.eq(BookingStatus.WAITING),
+                        "rejected", QBooking.booking.status.eq(BookingStatus.REJECTED)
+                ));
+
+        Assertions.assertEquals(4L, counts.get("all"));
+        Assertions.assertEquals(2L, counts.get("current"));
+        Assertions.assertEquals(2L, counts.get("future"));
+        Assertions.assertEquals(1L, counts.get("waiting"));
+        Assertions.assertEquals(0L, counts.get("rejected"));
+        Assertions.assertEquals(0L, bookingRepository.countMatching(QBooking.booking.booker.id.eq(owner.getId()),
+                Map.of("all", QBooking.booking.id.isNotNull())).get("all"));
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@DataJpaTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemBookingSummaryRepositoryTest {
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    private List<Item> items;
+
+    private LocalDateTime origin;
+
+    @BeforeEach
+    public void beforeEach() {
+        User owner = userRepository.save(new User(null, "owner", "owner@test.com"));
+
+        items = List.of(
+                itemRepository.save(new Item(null, "1", "d", true, owner, null)),
+                itemRepository.save(new Item(null, "2", "d", true, owner, null)),
+                itemRepository.save(new Item(null, "3", "d", true, owner, null))
+        );
+
+        origin = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(items.get(0).getId())
+                .validUntil(origin.minusHours(1))
+                .build());
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(items.get(1).getId())
+                .validUntil(origin.plusHours(1))
+                .build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        itemBookingSummaryRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findExpiredItemIdsTest() {
+        Assertions.assertEquals(List.of(items.get(0).getId()), itemBookingSummaryRepository.findExpiredItemIds(origin));
+    }
+
+    @Test
+    void findExpiredItemIds_whenAtValidUntil_thenExpired() {
+        Assertions.assertEquals(List.of(items.get(0).getId(), items.get(1).getId()),
+                itemBookingSummaryRepository.findExpiredItemIds(origin.plusHours(1)));
+    }
+
+    @Test
+    void findItemIdsWithoutSummaryTest() {
+        Assertions.assertEquals(List.of(items.get(2).getId()), itemBookingSummaryRepository.findItemIdsWithoutSummary());
+    }
+
+    @Test
+    void insertEmptyForItemsTest() {
+        Assertions.assertEquals(1, itemBookingSummaryRepository.insertEmptyForItems(List.of(items.get(2).getId())));
+        Assertions.assertTrue(itemBookingSummaryRepository.findItemIdsWithoutSummary().isEmpty());
+    }
+}
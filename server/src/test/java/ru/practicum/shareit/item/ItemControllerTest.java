@@ -8,24 +8,34 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.IllegalComment;
 import ru.practicum.shareit.exception.IllegalOwner;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.importer.CsvItemImportReader;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +47,9 @@ class ItemControllerTest {
     @MockBean
     private final ItemService itemService;
 
+    @MockBean
+    private final ItemImportService itemImportService;
+
     @Autowired
     private final ObjectMapper mapper;
 
@@ -65,6 +78,8 @@ class ItemControllerTest {
             true,
             null,
             null,
+            null,
+            0L,
             null
     );
 
@@ -169,6 +184,31 @@ class ItemControllerTest {
                 .addComment(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(), ArgumentMatchers.any());
     }
 
+    @Test
+    void importItemsFromCsvTest() throws Exception {
+        ItemImportResultDto imported = new ItemImportResultDto(2, itemDto, null);
+        ItemImportResultDto failed = new ItemImportResultDto(3, null, "Field 'name' can't be blank");
+        Mockito
+                .doAnswer(invocation -> {
+                    Consumer<List<ItemImportResultDto>> consumer = invocation.getArgument(2);
+                    consumer.accept(List.of(imported, failed));
+                    return null;
+                })
+                .when(itemImportService)
+                .importItems(ArgumentMatchers.eq(1L), ArgumentMatchers.any(CsvItemImportReader.class),
+                        ArgumentMatchers.any());
+
+        mvc.perform(post(API_PREFIX + "/import")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("name,description,available\nname,desc,true\n,desc,true\n")
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(imported) + "\n"
+                        + mapper.writeValueAsString(failed) + "\n"));
+    }
+
     @Test
     void getItemTest() throws Exception {
         Mockito
@@ -191,6 +231,96 @@ class ItemControllerTest {
                 .get(ArgumentMatchers.anyLong());
     }
 
+    @Test
+    void getItem_whenETagMatches_thenNotModified() throws Exception {
+        Mockito
+                .when(itemService.getETag(1L))
+                .thenReturn("\"abc\"");
+
+        mvc.perform(get(API_PREFIX + "/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().string(""));
+        Mockito.verify(itemService, Mockito.never()).get(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    void getItem_whenETagDiffers_thenItemWithETag() throws Exception {
+        Mockito
+                .when(itemService.getETag(1L))
+                .thenReturn("\"def\"");
+        Mockito
+                .when(itemService.get(1L))
+                .thenReturn(itemWithBookingAndCommentsDto);
+
+        mvc.perform(get(API_PREFIX + "/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"def\""))
+                .andExpect(jsonPath("$.id", is(itemWithBookingAndCommentsDto.getId()), Long.class));
+    }
+
+    @Test
+    void getCommentsTest() throws Exception {
+        Mockito
+                .when(itemService.getComments(1L, "cursor", 1))
+                .thenReturn(new CommentPageDto(List.of(commentDto), "next"));
+
+        mvc.perform(get(API_PREFIX + "/1/comments?cursor=cursor&size=1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$.length()", is(1L), Long.class))
+                .andExpect(jsonPath("$.[0].text", is(commentDto.getText())));
+        Mockito.verify(itemService, Mockito.times(1))
+                .getComments(1L, "cursor", 1);
+    }
+
+    @Test
+    void getComments_whenSizeOutOfRange_thenBadRequest() throws Exception {
+        for (String size : List.of("0", "-1", "101")) {
+            mvc.perform(get(API_PREFIX + "/1/comments?size=" + size)
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error", is("Validation exception")));
+        }
+
+        Mockito.verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void getItemAvailability_whenYearRequested_thenOk() throws Exception {
+        LocalDate from = LocalDate.of(2030, 1, 1);
+        LocalDate to = LocalDate.of(2030, 12, 31);
+        Mockito
+                .when(itemService.getAvailability(1L, from, to))
+                .thenReturn(new ItemAvailabilityDto(1L, from, to, List.of(from)));
+
+        mvc.perform(get(API_PREFIX + "/1/availability?from=" + from + "&to=" + to)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.freeDays[0]", is("2030-01-01")));
+    }
+
+    @Test
+    void getItemAvailability_whenRangeInvalid_thenBadRequest() throws Exception {
+        for (String range : List.of("from=2030-01-02&to=2030-01-01", "from=2030-01-01&to=2031-01-02")) {
+            mvc.perform(get(API_PREFIX + "/1/availability?" + range)
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error", is("Validation exception")));
+        }
+
+        Mockito.verifyNoInteractions(itemService);
+    }
+
     @Test
     void getAllItemsByOwnerTest() throws Exception {
         Mockito
@@ -217,7 +347,7 @@ class ItemControllerTest {
     @Test
     void searchItemsTest() throws Exception {
         Mockito
-                .when(itemService.search("word"))
+                .when(itemService.search("word", 0, 20, false))
                 .thenReturn(List.of(itemDto));
 
         mvc.perform(get(API_PREFIX + "/search?text=word")
@@ -231,6 +361,42 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].requestId", is(itemDto.getRequestId()), Long.class))
                 .andExpect(jsonPath("$.[0].available", is(itemDto.getAvailable()), Boolean.class));
         Mockito.verify(itemService, Mockito.times(1))
-                .search("word");
+                .search("word", 0, 20, false);
+    }
+
+    @Test
+    void searchItems_whenPageOutOfRange_thenBadRequest() throws Exception {
+        for (String page : List.of("from=-1", "size=0", "size=-5")) {
+            mvc.perform(get(API_PREFIX + "/search?text=word&" + page)
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error", is("Validation exception")));
+        }
+
+        mvc.perform(get(API_PREFIX + "/suggest?prefix=dri&size=0")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void suggestItemNamesTest() throws Exception {
+        Mockito
+                .when(itemService.suggest("dri", 10))
+                .thenReturn(List.of("Drill", "Drill press"));
+
+        mvc.perform(get(API_PREFIX + "/suggest?prefix=dri")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2L), Long.class))
+                .andExpect(jsonPath("$.[0]", is("Drill")))
+                .andExpect(jsonPath("$.[1]", is("Drill press")));
+        Mockito.verify(itemService, Mockito.times(1))
+                .suggest("dri", 10);
     }
 }
\ No newline at end of file
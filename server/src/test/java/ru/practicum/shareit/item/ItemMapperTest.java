@@ -34,7 +34,8 @@ class ItemMapperTest {
 
     @BeforeEach
     public void beforeEach() {
-        String dateTime = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).toString();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        String dateTime = now.toString();
         user = new User(1L, "name", "email");
         item = new Item(1L, "name", "desc", true, user, null);
         comments = List.of(
@@ -42,14 +43,14 @@ class ItemMapperTest {
                 new CommentDto(2L, "text", dateTime, "author"),
                 new CommentDto(3L, "text", dateTime, "author")
         );
-        lastBooking = new BookingOnlyDatesDto(1L, dateTime, dateTime);
-        nearestBooking = new BookingOnlyDatesDto(1L, dateTime, dateTime);
+        lastBooking = new BookingOnlyDatesDto(1L, now, now);
+        nearestBooking = new BookingOnlyDatesDto(1L, now, now);
     }
 
     @Test
     void toItemWithBookingDtoTest() throws IOException {
         ItemWithBookingAndCommentsDto itemWithBookingAndCommentsDto = itemMapper.toItemWithBookingDto(
-                item, lastBooking, nearestBooking, comments
+                item, lastBooking, nearestBooking, comments, 5L, "cursor"
         );
 
         JsonContent<ItemWithBookingAndCommentsDto> result
@@ -63,5 +64,7 @@ class ItemMapperTest {
         assertThat(result).extractingJsonPathNumberValue("$.nextBooking.id")
                 .isEqualTo(nearestBooking.getId().intValue());
         assertThat(result).extractingJsonPathNumberValue("$.comments.length()").isEqualTo(comments.size());
+        assertThat(result).extractingJsonPathNumberValue("$.commentCount").isEqualTo(5);
+        assertThat(result).extractingJsonPathStringValue("$.commentsCursor").isEqualTo("cursor");
     }
 }
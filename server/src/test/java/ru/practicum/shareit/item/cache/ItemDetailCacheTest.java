@@ -0,0 +1,121 @@
+package ru.practicum.shareit.item.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ItemDetailCacheTest {
+    private ItemDetailCache cache;
+    private AtomicInteger loads;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    public void beforeEach() {
+        cache = new ItemDetailCache("4KB");
+        loads = new AtomicInteger();
+        now = LocalDateTime.of(2030, 1, 1, 12, 0, 0);
+    }
+
+    @Test
+    void get_whenNoBookingBoundary_thenLoadedOnce() {
+        get(1L, now, null);
+        get(1L, now.plusDays(30), null);
+
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_whenBookingBoundaryPassed_thenLoadedAgain() {
+        get(1L, now, now.plusHours(1));
+        get(1L, now.plusHours(1).minusSeconds(1), now.plusHours(1));
+        get(1L, now.plusHours(1), now.plusHours(2));
+
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_whenItemEvicted_thenOthersKept() {
+        get(1L, now, null);
+        get(2L, now, null);
+
+        cache.evict(1L);
+        get(1L, now, null);
+        get(2L, now, null);
+        cache.evict(List.of(1L, 2L));
+
+        Assertions.assertEquals(3, loads.get());
+        Assertions.assertFalse(cache.contains(1L));
+        Assertions.assertFalse(cache.contains(2L));
+    }
+
+    @Test
+    void get_whenScanOfColdItems_thenWeightBoundedAndHotItemKept() {
+        for (int i = 0; i < 5; i++) {
+            get(1L, now, null);
+        }
+
+        for (long itemId = 100; itemId < 300; itemId++) {
+            get(itemId, now, null);
+            Assertions.assertTrue(cache.weight() <= 4096);
+        }
+
+        Assertions.assertTrue(cache.contains(1L));
+        Assertions.assertEquals(1 + 200, loads.get());
+    }
+
+    @Test
+    void get_whenCandidateLosesToLaterVictim_thenNoVictimEvicted() {
+        for (int i = 0; i < 4; i++) {
+            get(2L, now, null);
+            cache.evict(2L);
+        }
+
+        get(1L, now, null);
+        get(2L, now, null);
+        get(3L, now, null);
+        cache.evict(3L);
+
+        // the candidate needs the room of both cached items, the first is rated below it and the second above
+        long candidateWeight = 4096 - 40 - cache.weight() + ItemDetailCache.weigh(item(1L)) + 1;
+        ItemWithBookingAndCommentsDto candidate = item(3L);
+        candidate.setDescription("d".repeat((int) (candidateWeight - ItemDetailCache.weigh(candidate)) / 2
+                + candidate.getDescription().length() + 1));
+        cache.get(3L, now, () -> new ItemDetailCache.Detail(candidate, null));
+
+        Assertions.assertTrue(cache.contains(1L));
+        Assertions.assertTrue(cache.contains(2L));
+        Assertions.assertFalse(cache.contains(3L));
+    }
+
+    @Test
+    void weighTest() {
+        ItemWithBookingAndCommentsDto item = item(1L);
+
+        Assertions.assertTrue(ItemDetailCache.weigh(item) > 2L * item.getDescription().length());
+    }
+
+    private void get(Long itemId, LocalDateTime at, LocalDateTime validUntil) {
+        ItemWithBookingAndCommentsDto item = cache.get(itemId, at, () -> {
+            loads.incrementAndGet();
+            return new ItemDetailCache.Detail(item(itemId), validUntil);
+        });
+
+        Assertions.assertEquals(itemId, item.getId());
+    }
+
+    private static ItemWithBookingAndCommentsDto item(Long itemId) {
+        return ItemWithBookingAndCommentsDto.builder()
+                .id(itemId)
+                .name("item " + itemId)
+                .description("description of item " + itemId)
+                .available(true)
+                .comments(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.importer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class CsvItemImportReaderTest {
+    @Test
+    void read_whenQuotedFields_thenSeparatorsQuotesAndLineBreaksKept() {
+        List<ItemImportRow> rows = readAll("""
+                name,description,available,requestId
+                drill,"cordless, 18 V",true,
+                "saw ""Bosch""\","two
+                lines",FALSE,7
+                """);
+
+        Assertions.assertEquals(2, rows.size());
+        Assertions.assertEquals(2, rows.get(0).getLine());
+        Assertions.assertEquals("cordless, 18 V", rows.get(0).getItem().getDescription());
+        Assertions.assertNull(rows.get(0).getItem().getRequestId());
+        Assertions.assertEquals(3, rows.get(1).getLine());
+        Assertions.assertEquals("saw \"Bosch\"", rows.get(1).getItem().getName());
+        Assertions.assertEquals("two\nlines", rows.get(1).getItem().getDescription());
+        Assertions.assertFalse(rows.get(1).getItem().getAvailable());
+        Assertions.assertEquals(7L, rows.get(1).getItem().getRequestId());
+    }
+
+    @Test
+    void read_whenRowMalformed_thenRowFailedAndNextOnesRead() {
+        List<ItemImportRow> rows = readAll("""
+                Available,Name,Description
+                maybe,drill,d
+                true,saw
+                true,hammer,d
+                """);
+
+        Assertions.assertEquals(3, rows.size());
+        Assertions.assertEquals("Field 'available' should be true or false", rows.get(0).getError());
+        Assertions.assertEquals("Expected 3 fields but found 2", rows.get(1).getError());
+        Assertions.assertEquals("hammer", rows.get(2).getItem().getName());
+        Assertions.assertEquals(4, rows.get(2).getLine());
+    }
+
+    @Test
+    void read_whenColumnMissing_thenOnlyHeaderFailed() {
+        List<ItemImportRow> rows = readAll("""
+                name,available
+                drill,true
+                """);
+
+        Assertions.assertEquals(1, rows.size());
+        Assertions.assertEquals(1, rows.getFirst().getLine());
+        Assertions.assertEquals("Missing column 'description' in the header", rows.getFirst().getError());
+    }
+
+    @Test
+    void read_whenQuoteNotClosed_thenReadingStops() {
+        List<ItemImportRow> rows = readAll("""
+                name,description,available
+                drill,"d,true
+                saw,d,true
+                """);
+
+        Assertions.assertEquals(1, rows.size());
+        Assertions.assertEquals(2, rows.getFirst().getLine());
+        Assertions.assertNotNull(rows.getFirst().getError());
+    }
+
+    @Test
+    void read_whenLineTooLong_thenRowFailedAndNextOnesRead() {
+        List<ItemImportRow> rows = readAll("name,description,available\r\n"
+                + "drill," + "d".repeat(100_000) + ",true\r\n"
+                + "saw,d,true\r\n");
+
+        Assertions.assertEquals(2, rows.size());
+        Assertions.assertEquals(2, rows.get(0).getLine());
+        Assertions.assertEquals("Record is longer than 65536 characters", rows.get(0).getError());
+        Assertions.assertEquals(3, rows.get(1).getLine());
+        Assertions.assertEquals("saw", rows.get(1).getItem().getName());
+    }
+
+    private static List<ItemImportRow> readAll(String csv) {
+        CsvItemImportReader reader = new CsvItemImportReader(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        List<ItemImportRow> rows = new ArrayList<>();
+        ItemImportRow row;
+
+        while ((row = reader.read()) != null) {
+            rows.add(row);
+        }
+
+        return rows;
+    }
+}
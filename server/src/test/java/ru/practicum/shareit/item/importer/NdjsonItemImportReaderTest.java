@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class NdjsonItemImportReaderTest {
+    @Test
+    void read_whenLineMalformed_thenLineFailedAndNextOnesRead() {
+        String ndjson = """
+                {"name": "drill", "description": "d", "available": true}
+
+                {"name": "saw",
+                {"name": "hammer", "description": "d", "available": false, "requestId": 3}
+                """;
+        NdjsonItemImportReader reader = new NdjsonItemImportReader(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), new ObjectMapper());
+        List<ItemImportRow> rows = new ArrayList<>();
+        ItemImportRow row;
+
+        while ((row = reader.read()) != null) {
+            rows.add(row);
+        }
+
+        Assertions.assertEquals(3, rows.size());
+        Assertions.assertEquals("drill", rows.get(0).getItem().getName());
+        Assertions.assertEquals(3, rows.get(1).getLine());
+        Assertions.assertNotNull(rows.get(1).getError());
+        Assertions.assertEquals(4, rows.get(2).getLine());
+        Assertions.assertEquals(3L, rows.get(2).getItem().getRequestId());
+    }
+
+    @Test
+    void read_whenLineTooLong_thenLineFailedAndNextOnesRead() {
+        String ndjson = "{\"name\": \"" + "d".repeat(100_000) + "\"}\n"
+                + "{\"name\": \"saw\", \"description\": \"d\", \"available\": true}\n";
+        NdjsonItemImportReader reader = new NdjsonItemImportReader(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), new ObjectMapper());
+
+        ItemImportRow first = reader.read();
+        ItemImportRow second = reader.read();
+
+        Assertions.assertEquals("Line is longer than 65536 characters", first.getError());
+        Assertions.assertEquals(2, second.getLine());
+        Assertions.assertEquals("saw", second.getItem().getName());
+        Assertions.assertNull(reader.read());
+    }
+}
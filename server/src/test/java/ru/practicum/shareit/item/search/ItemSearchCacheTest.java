@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ItemSearchCacheTest {
+    private ItemSearchCache cache;
+    private MeterRegistry meterRegistry;
+    private AtomicInteger loads;
+    private AtomicLong nanos;
+
+    @BeforeEach
+    public void beforeEach() {
+        ItemSearchIndex index = new ItemSearchIndex(Mockito.mock(ItemRepository.class),
+                Mockito.mock(EntityManager.class), 0.3);
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+        nanos = new AtomicLong();
+        cache = new ItemSearchCache(index, meterRegistry, "PT10S", 2, nanos::get);
+    }
+
+    @Test
+    void get_whenSameNormalizedQuery_thenLoadedOnce() {
+        get("Дрель", false);
+        get("  дрели!", false);
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        Assertions.assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void get_whenFuzzyOrTtlPassed_thenLoadedAgain() {
+        get("дрель", false);
+        get("дрель", true);
+        nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+        get("дрель", false);
+
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_whenMaxEntriesExceeded_thenEldestDropped() {
+        get("дрель", false);
+        get("палатка", false);
+        get("лодка", false);
+        get("дрель", false);
+
+        Assertions.assertEquals(4, loads.get());
+        Assertions.assertEquals(2.0, meterRegistry.get("cache.size").gauge().value());
+    }
+
+    @Test
+    void evictMatching_whenItemTermsMatchQuery_thenOnlyThatQueryEvicted() {
+        get("дрель", false);
+        get("палатка", false);
+
+        cache.evictMatching(Set.of(), analyze("Дрель", "Ударная"));
+        get("дрель", false);
+        get("палатка", false);
+
+        Assertions.assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evictMatching_whenPreviousTermsMatchQuery_thenEvicted() {
+        get("палатка походная", false);
+        get("палт", true);
+
+        cache.evictMatching(analyze("Палатка", "Походная палатка"), analyze("Тент", "Навес от дождя"));
+        get("палатка походная", false);
+        get("палт", true);
+
+        Assertions.assertEquals(4, loads.get());
+    }
+
+    @Test
+    void evictMatching_whenOnlySomeQueryTermsMatch_thenKept() {
+        get("палатка походная", false);
+
+        cache.evictMatching(Set.of(), analyze("Палатка", "Пляжная"));
+        get("палатка походная", false);
+
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    private List<ItemDto> get(String text, boolean fuzzy) {
+        return cache.get(text, 0, 10, fuzzy, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+    }
+
+    private Set<String> analyze(String name, String description) {
+        return ItemSearchIndex.analyze(new Item(null, name, description, true, null, null));
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    private ItemSearchIndex index;
+
+    private final User owner1 = new User(1L, "owner 1", "owner1@mail.com");
+    private final User owner2 = new User(2L, "owner 2", "owner2@mail.com");
+
+    @BeforeEach
+    public void beforeEach() {
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        when(itemRepository.streamAllByAvailableIsTrueOrderById())
+                .thenReturn(Stream.of(
+                        item(1L, "Дрель", "Аккумуляторная дрель с двумя батареями", owner1),
+                        item(2L, "Шуруповерт", "Подойдет вместо дрели для мелких работ", owner1),
+                        item(3L, "Палатка", "Четырехместная палатка для походов", owner2),
+                        item(4L, "Cordless drill", "Drilling and screwdriving", owner2)
+                ));
+
+        index = new ItemSearchIndex(itemRepository, Mockito.mock(EntityManager.class), 0.3);
+        Assertions.assertFalse(index.isReady());
+        index.load();
+    }
+
+    @Test
+    void search_whenTermInNameAndDescription_thenNameRankedHigher() {
+        Assertions.assertTrue(index.isReady());
+        Assertions.assertEquals(List.of(1L, 2L), index.search("дрелью", 0, 10));
+        Assertions.assertEquals(List.of(4L), index.search("DRILLS", 0, 10));
+    }
+
+    @Test
+    void search_whenSeveralTerms_thenAllMustMatch() {
+        Assertions.assertEquals(List.of(1L), index.search("дрель аккумуляторная", 0, 10));
+        Assertions.assertEquals(List.of(), index.search("дрель палатка", 0, 10));
+        Assertions.assertEquals(List.of(), index.search("  ,.", 0, 10));
+    }
+
+    @Test
+    void search_whenLastTermIsPrefix_thenExpanded() {
+        Assertions.assertEquals(List.of(3L), index.search("пала", 0, 10));
+        Assertions.assertEquals(List.of(3L), index.search("палатка похо", 0, 10));
+        Assertions.assertEquals(List.of(), index.search("па", 0, 10));
+    }
+
+    @Test
+    void search_whenPaged_thenWindowOfRanking() {
+        Assertions.assertEquals(List.of(1L), index.search("дрель", 0, 1));
+        Assertions.assertEquals(List.of(2L), index.search("дрель", 1, 1));
+        Assertions.assertEquals(List.of(), index.search("дрель", 2, 1));
+        Assertions.assertEquals(List.of(), index.search("дрель", -1, 1));
+        Assertions.assertEquals(List.of(2L), index.search("дрель", 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void search_whenFuzzy_thenMisspelledTermsMatched() {
+        index.index(item(5L, "Perforator", "Rotary hammer", owner1));
+
+        Assertions.assertEquals(List.of(), index.search("pefrorator", 0, 10));
+        Assertions.assertEquals(List.of(5L), index.search("pefrorator", 0, 10, true));
+        Assertions.assertEquals(List.of(3L), index.search("палтка", 0, 10, true));
+        Assertions.assertEquals(List.of(), index.search("плита", 0, 10, true));
+    }
+
+    @Test
+    void search_whenFuzzyAndTermRemoved_thenNotMatched() {
+        index.remove(3L);
+
+        Assertions.assertEquals(List.of(), index.search("палтка", 0, 10, true));
+    }
+
+    @Test
+    void index_whenItemChanged_thenOldTermsDropped() {
+        index.index(item(1L, "Перфоратор", "Ударный перфоратор", owner1));
+
+        Assertions.assertEquals(List.of(2L), index.search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(1L), index.search("перфоратор", 0, 10));
+    }
+
+    @Test
+    void index_whenItemUnavailable_thenRemoved() {
+        Item item = item(3L, "Палатка", "Четырехместная палатка для походов", owner2);
+        item.setAvailable(false);
+
+        index.index(item);
+
+        Assertions.assertEquals(List.of(), index.search("палатка", 0, 10));
+    }
+
+    @Test
+    void removeTest() {
+        index.remove(1L);
+        index.removeAllOfOwner(owner2.getId());
+
+        Assertions.assertEquals(List.of(2L), index.search("дрель", 0, 10));
+        Assertions.assertEquals(List.of(), index.search("drill", 0, 10));
+    }
+
+    @Test
+    void load_whenItemUpdatedDuringLoad_thenUpdateKept() {
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        index = new ItemSearchIndex(itemRepository, Mockito.mock(EntityManager.class), 0.3);
+        when(itemRepository.streamAllByAvailableIsTrueOrderById())
+                .thenReturn(Stream.of(item(1L, "Дрель", "Ударная дрель", owner1),
+                                item(2L, "Палатка", "Палатка для походов", owner2))
+                        .peek(item -> {
+                            if (item.getId() == 1L) {
+                                index.index(item(2L, "Шатер", "Шатер для походов", owner2));
+                                index.remove(1L);
+                            }
+                        }));
+
+        index.load();
+
+        Assertions.assertEquals(List.of(2L), index.search("шатер", 0, 10));
+        Assertions.assertEquals(List.of(), index.search("палатка", 0, 10));
+        Assertions.assertEquals(List.of(), index.search("дрель", 0, 10));
+    }
+
+    private Item item(Long id, String name, String description, User owner) {
+        return new Item(id, name, description, true, owner, null);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.when;
+
+class ItemSuggestIndexTest {
+    private ItemSuggestIndex index;
+
+    private final User owner1 = new User(1L, "owner 1", "owner1@mail.com");
+    private final User owner2 = new User(2L, "owner 2", "owner2@mail.com");
+
+    @BeforeEach
+    public void beforeEach() {
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        when(itemRepository.streamAllByAvailableIsTrueOrderById())
+                .thenReturn(Stream.of(
+                        item(1L, "Дрель", owner1),
+                        item(2L, "Дрель ударная", owner1),
+                        item(3L, "дрель", owner2),
+                        item(4L, "Cordless  drill", owner2),
+                        item(5L, "Drill press", owner1)
+                ));
+
+        index = new ItemSuggestIndex(itemRepository, Mockito.mock(EntityManager.class), 3, 100, 100);
+        Assertions.assertFalse(index.isReady());
+        index.load();
+    }
+
+    @Test
+    void suggest_whenPrefix_thenNamesSharedByMoreItemsFirst() {
+        Assertions.assertTrue(index.isReady());
+        Assertions.assertEquals(List.of("Дрель", "Дрель ударная"), index.suggest("др", 10));
+        Assertions.assertEquals(List.of("Дрель"), index.suggest("  ДРЕ", 1));
+        Assertions.assertEquals(List.of("Дрель ударная"), index.suggest("дрель ", 10));
+        Assertions.assertEquals(List.of(), index.suggest("палатка", 10));
+        Assertions.assertEquals(List.of(), index.suggest(" ", 10));
+    }
+
+    @Test
+    void suggest_whenPrefixOfLaterWord_thenMatched() {
+        Assertions.assertEquals(List.of("Cordless drill", "Drill press"), index.suggest("drill", 10));
+        Assertions.assertEquals(List.of("Дрель ударная"), index.suggest("уда", 10));
+        Assertions.assertEquals(List.of("Drill press"), index.suggest("drill p", 10));
+    }
+
+    @Test
+    void suggest_whenMoreNamesThanTopK_thenBestKept() {
+        index.index(item(6L, "Drill bit", owner1));
+        index.index(item(7L, "Drill bit", owner2));
+        index.index(item(8L, "Drill stand", owner1));
+
+        Assertions.assertEquals(List.of("Drill bit", "Cordless drill", "Drill press"), index.suggest("d", 10));
+        Assertions.assertEquals(List.of("Drill bit", "Drill press", "Drill stand"), index.suggest("drill ", 10));
+    }
+
+    @Test
+    void index_whenItemChanged_thenOldNameDropped() {
+        index.index(item(5L, "Drilling machine", owner1));
+
+        Assertions.assertEquals(List.of("Cordless drill", "Drilling machine"), index.suggest("drill", 10));
+        Assertions.assertEquals(List.of(), index.suggest("press", 10));
+    }
+
+    @Test
+    void index_whenItemUnavailable_thenRemoved() {
+        Item item = item(4L, "Cordless drill", owner2);
+        item.setAvailable(false);
+
+        index.index(item);
+
+        Assertions.assertEquals(List.of("Drill press"), index.suggest("drill", 10));
+        Assertions.assertEquals(List.of(), index.suggest("cord", 10));
+    }
+
+    @Test
+    void removeTest() {
+        index.remove(2L);
+        index.removeAllOfOwner(owner2.getId());
+
+        Assertions.assertEquals(List.of("Дрель"), index.suggest("д", 10));
+        Assertions.assertEquals(List.of("Drill press"), index.suggest("d", 10));
+        Assertions.assertEquals(List.of(), index.suggest("cord", 10));
+    }
+
+    @Test
+    void remove_whenSharedPrefixesLeft_thenRemainingNamesFound() {
+        index.index(item(6L, "Drill bit", owner1));
+        index.index(item(7L, "Drills", owner1));
+
+        index.remove(5L);
+        index.remove(7L);
+
+        Assertions.assertEquals(List.of("Cordless drill", "Drill bit"), index.suggest("drill", 10));
+        Assertions.assertEquals(List.of("Drill bit"), index.suggest("drill b", 10));
+        Assertions.assertEquals(List.of(), index.suggest("drills", 10));
+    }
+
+    @Test
+    void load_whenItemUpdatedDuringLoad_thenUpdateKept() {
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        index = new ItemSuggestIndex(itemRepository, Mockito.mock(EntityManager.class), 3, 100, 100);
+        when(itemRepository.streamAllByAvailableIsTrueOrderById())
+                .thenReturn(Stream.of(item(1L, "Дрель", owner1), item(2L, "Drill press", owner1))
+                        .peek(item -> {
+                            if (item.getId() == 1L) {
+                                index.index(item(2L, "Drilling machine", owner1));
+                                index.remove(1L);
+                            }
+                        }));
+
+        index.load();
+
+        Assertions.assertEquals(List.of("Drilling machine"), index.suggest("drill", 10));
+        Assertions.assertEquals(List.of(), index.suggest("press", 10));
+        Assertions.assertEquals(List.of(), index.suggest("др", 10));
+    }
+
+    @Test
+    void index_whenMaxItemsReached_thenNewItemsLeftOut() {
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        when(itemRepository.streamAllByAvailableIsTrueOrderById())
+                .thenReturn(Stream.of(item(1L, "Дрель", owner1), item(2L, "Drill press", owner1)));
+        index = new ItemSuggestIndex(itemRepository, Mockito.mock(EntityManager.class), 3, 100, 2);
+        index.load();
+
+        index.index(item(3L, "Drill bit", owner2));
+        index.remove(2L);
+        Assertions.assertEquals(List.of(), index.suggest("drill", 10));
+
+        index.index(item(3L, "Drill bit", owner2));
+        Assertions.assertEquals(List.of("Drill bit"), index.suggest("drill", 10));
+    }
+
+    private Item item(Long id, String name, User owner) {
+        return new Item(id, name, "description of " + name, true, owner, null);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class TextAnalyzerTest {
+    @Test
+    void tokenize_whenMixedText_thenLowercaseLetterAndDigitRuns() {
+        Assertions.assertEquals(List.of("аккумуляторная", "дрель", "18v", "еще"),
+                TextAnalyzer.tokenize("Аккумуляторная ДРЕЛЬ, 18V (ещё)"));
+        Assertions.assertEquals(List.of(), TextAnalyzer.tokenize(null));
+    }
+
+    @Test
+    void stem_whenRussianInflections_thenSameStem() {
+        String stem = TextAnalyzer.stem("дрель");
+
+        Assertions.assertEquals(stem, TextAnalyzer.stem("дрели"));
+        Assertions.assertEquals(stem, TextAnalyzer.stem("дрелью"));
+        Assertions.assertEquals(TextAnalyzer.stem("палатка"), TextAnalyzer.stem("палатки"));
+        Assertions.assertEquals(TextAnalyzer.stem("новая"), TextAnalyzer.stem("новый"));
+    }
+
+    @Test
+    void stem_whenEnglishInflections_thenSameStem() {
+        Assertions.assertEquals(TextAnalyzer.stem("drill"), TextAnalyzer.stem("drills"));
+        Assertions.assertEquals(TextAnalyzer.stem("drill"), TextAnalyzer.stem("drilling"));
+        Assertions.assertEquals(TextAnalyzer.stem("ladder"), TextAnalyzer.stem("ladders"));
+        Assertions.assertEquals(TextAnalyzer.stem("battery"), TextAnalyzer.stem("batteries"));
+    }
+
+    @Test
+    void stem_whenShortOrNumericToken_thenUnchanged() {
+        Assertions.assertEquals("ab", TextAnalyzer.stem("ab"));
+        Assertions.assertEquals("18v", TextAnalyzer.stem("18v"));
+    }
+}
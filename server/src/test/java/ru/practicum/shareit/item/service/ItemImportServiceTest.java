@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.practicum.shareit.exception.NotFound;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.importer.CsvItemImportReader;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.service.ServiceTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.Mockito.when;
+
+@Nested
+@SpringJUnitConfig({ItemImportServiceImpl.class})
+@TestPropertySource(properties = "shareit.item-import.chunk-size=2")
+class ItemImportServiceTest extends ServiceTest {
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Test
+    void importItems_thenValidRowsInsertedByChunksAndFailedOnesReported() {
+        AtomicLong ids = new AtomicLong(100);
+        Mockito
+                .doAnswer(invocation -> {
+                    List<Item> items = invocation.getArgument(0);
+                    items.forEach(item -> item.setId(ids.incrementAndGet()));
+                    return null;
+                })
+                .when(itemRepository)
+                .insertAll(ArgumentMatchers.any());
+        when(itemRequestRepository.findAllById(ArgumentMatchers.any()))
+                .thenReturn(List.of(itemRequest));
+
+        List<List<ItemImportResultDto>> chunks = new ArrayList<>();
+        itemImportService.importItems(ownerOfItems1.getId(), csv("""
+                name,description,available,requestId
+                drill,d,true,
+                ,d,true,
+                saw,d,false,1
+                hammer,d,true,99
+                """), chunks::add);
+
+        Assertions.assertEquals(2, chunks.size());
+        Assertions.assertEquals(101L, chunks.get(0).get(0).getItem().getId());
+        Assertions.assertEquals("Field 'name' can't be blank", chunks.get(0).get(1).getError());
+        Assertions.assertEquals(4, chunks.get(1).get(0).getLine());
+        Assertions.assertEquals(102L, chunks.get(1).get(0).getItem().getId());
+        Assertions.assertEquals("Item request with id 99 not found.", chunks.get(1).get(1).getError());
+        Mockito.verify(itemRepository, Mockito.times(2)).insertAll(ArgumentMatchers.any());
+        Mockito.verify(itemBookingSummaryRepository).insertEmptyForItems(List.of(101L));
+        Mockito.verify(itemBookingSummaryRepository).insertEmptyForItems(List.of(102L));
+        Mockito.verify(outboxService, Mockito.times(2))
+                .add(ArgumentMatchers.eq(OutboxEventType.ITEM_CREATED), ArgumentMatchers.anyLong(),
+                        ArgumentMatchers.any());
+    }
+
+    @Test
+    void importItems_whenOwnerNotFound_thenThrowNotFound() {
+        when(userRepository.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThrows(NotFound.class,
+                () -> itemImportService.importItems(99L, csv("name,description,available\n"), chunks -> { }));
+        Mockito.verify(itemRepository, Mockito.never()).insertAll(ArgumentMatchers.any());
+    }
+
+    private static CsvItemImportReader csv(String content) {
+        return new CsvItemImportReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -4,16 +4,25 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.practicum.shareit.exception.IllegalCursor;
+import ru.practicum.shareit.exception.IllegalOwner;
+import ru.practicum.shareit.exception.NotFound;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPageDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingAndCommentsDto;
+import ru.practicum.shareit.item.storage.ItemValidator;
 import ru.practicum.shareit.service.ServiceTest;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -56,6 +65,37 @@ class ItemServiceTest extends ServiceTest {
         Assertions.assertNull(itemDto.getNextBooking());
     }
 
+    @Test
+    void getETagTest() {
+        Item item = itemsOfOwner1.getFirst();
+        ItemValidator validator = Mockito.mock(ItemValidator.class);
+        when(validator.getValidator()).thenReturn("0:1::", "1:1::");
+        when(validator.getExpired()).thenReturn(false);
+        when(itemRepository.findValidatorById(ArgumentMatchers.eq(item.getId()), ArgumentMatchers.any()))
+                .thenReturn(Optional.of(validator));
+
+        String eTag = itemService.getETag(item.getId());
+
+        Assertions.assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+        Assertions.assertNotEquals(eTag, itemService.getETag(item.getId()));
+    }
+
+    @Test
+    void getETag_whenBookingSummaryExpired_thenNoETag() {
+        Item item = itemsOfOwner1.getFirst();
+        ItemValidator validator = Mockito.mock(ItemValidator.class);
+        when(validator.getExpired()).thenReturn(true);
+        when(itemRepository.findValidatorById(ArgumentMatchers.eq(item.getId()), ArgumentMatchers.any()))
+                .thenReturn(Optional.of(validator));
+
+        Assertions.assertNull(itemService.getETag(item.getId()));
+    }
+
+    @Test
+    void getETag_whenItemNotFound_thenNotFound() {
+        Assertions.assertThrows(NotFound.class, () -> itemService.getETag(100L));
+    }
+
     @Test
     void updateTest() {
         Item item = itemsOfOwner1.getFirst();
@@ -73,6 +113,18 @@ class ItemServiceTest extends ServiceTest {
         Assertions.assertEquals(itemUpdateDto.getAvailable(), itemDto.getAvailable());
     }
 
+    @Test
+    void update_whenUserIsNotOwner_thenThrowIllegalOwner() {
+        when(userRepository.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(ownerOfItems2));
+
+        Assertions.assertThrows(IllegalOwner.class, () -> {
+            itemService.update(ownerOfItems2.getId(), itemsOfOwner1.getFirst().getId(),
+                    new ItemUpdateDto("new name", null, null));
+        });
+        Assertions.assertEquals("item", itemsOfOwner1.getFirst().getName());
+    }
+
     @Test
     void deleteTest() {
         Item item = itemsOfOwner1.getFirst();
@@ -90,7 +142,7 @@ class ItemServiceTest extends ServiceTest {
         when(itemRepository.search("word"))
                 .thenReturn(itemsOfOwner1);
 
-        List<ItemDto> items = itemService.search("word");
+        List<ItemDto> items = itemService.search("word", 0, 20, false);
 
         Assertions.assertEquals(itemsOfOwner1.size(), items.size());
     }
@@ -104,6 +156,59 @@ class ItemServiceTest extends ServiceTest {
         Assertions.assertNull(items.getLast().getLastBooking());
     }
 
+    @Test
+    void getByOwner_thenCommentsSummarized() {
+        List<ItemWithBookingAndCommentsDto> items = itemService.getByOwner(ownerOfItems1.getId());
+
+        Assertions.assertEquals(3L, items.get(0).getCommentCount());
+        Assertions.assertEquals(1, items.get(0).getComments().size());
+        Assertions.assertNotNull(items.get(0).getCommentsCursor());
+        Assertions.assertEquals(1L, items.get(1).getCommentCount());
+        Assertions.assertNull(items.get(1).getCommentsCursor());
+        Assertions.assertEquals(0L, items.get(2).getCommentCount());
+        Assertions.assertTrue(items.get(2).getComments().isEmpty());
+    }
+
+    @Test
+    void streamByOwnerTest() {
+        List<ItemWithBookingAndCommentsDto> items = new ArrayList<>();
+
+        itemService.streamByOwner(ownerOfItems1.getId(), items::add);
+
+        Assertions.assertEquals(itemsOfOwner1.size(), items.size());
+        Assertions.assertNotNull(items.getLast().getNextBooking());
+        Assertions.assertNull(items.getLast().getLastBooking());
+    }
+
+    @Test
+    void getAvailabilityTest() {
+        LocalDate from = originNow.toLocalDate().plusDays(1);
+
+        ItemAvailabilityDto availability = itemService.getAvailability(itemsOfOwner1.getFirst().getId(), from,
+                from.plusDays(6));
+
+        Assertions.assertEquals(7, availability.getFreeDays().size());
+        Assertions.assertEquals(from, availability.getFreeDays().getFirst());
+    }
+
+    @Test
+    void getCommentsTest() {
+        Long itemId = itemsOfOwner1.getFirst().getId();
+
+        CommentPageDto fullPage = itemService.getComments(itemId, null, 2);
+        CommentPageDto lastPage = itemService.getComments(itemId, fullPage.getNextCursor(), null);
+
+        Assertions.assertEquals(2, fullPage.getComments().size());
+        Assertions.assertNotNull(fullPage.getNextCursor());
+        Assertions.assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void getComments_whenCursorMalformed_thenThrowIllegalCursor() {
+        Assertions.assertThrows(IllegalCursor.class,
+                () -> itemService.getComments(itemsOfOwner1.getFirst().getId(), "not a cursor", null));
+    }
+
     @Test
     void addCommentTest() {
         when(bookingRepository.findFirstByBookerAndItemAndStatusAndStartBefore(
@@ -7,13 +7,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import ru.practicum.shareit.item.Comment;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @DataJpaTest
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -41,18 +45,6 @@ class CommentRepositoryTest {
         userRepository.deleteAll();
     }
 
-    @Test
-    void findAllByItemInTest() {
-        Comment comment1 = commentRepository.save(new Comment(null, "c1", LocalDateTime.now(), itemOwner, item1));
-        Comment comment2 = commentRepository.save(new Comment(null, "c2", LocalDateTime.now(), itemOwner, item2));
-
-        List<Comment> comments = commentRepository.findAllByItemIn(List.of(item1, item2));
-
-        Assertions.assertEquals(2, comments.size());
-        Assertions.assertTrue(comments.stream().anyMatch(comment -> comment.getId().equals(comment1.getId())));
-        Assertions.assertTrue(comments.stream().anyMatch(comment -> comment.getId().equals(comment2.getId())));
-    }
-
     @Test
     void findAllByItemIsTest() {
         commentRepository.save(new Comment(null, "c1", LocalDateTime.now(), itemOwner, item1));
@@ -62,4 +54,62 @@ class CommentRepositoryTest {
 
         Assertions.assertTrue(comments.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findLatestIdsForItemsTest() {
+        LocalDateTime now = LocalDateTime.now();
+        Comment oldest = commentRepository.save(new Comment(null, "c1", now.minusDays(3), itemOwner, item1));
+        Comment middle = commentRepository.save(new Comment(null, "c2", now.minusDays(2), itemOwner, item1));
+        Comment newest = commentRepository.save(new Comment(null, "c3", now.minusDays(1), itemOwner, item1));
+        Comment other = commentRepository.save(new Comment(null, "c4", now.minusDays(5), itemOwner, item2));
+
+        List<Long> ids = commentRepository.findLatestIdsForItems(List.of(item1.getId(), item2.getId()), 2);
+
+        Assertions.assertEquals(3, ids.size());
+        Assertions.assertTrue(ids.containsAll(List.of(newest.getId(), middle.getId(), other.getId())));
+        Assertions.assertFalse(ids.contains(oldest.getId()));
+    }
+
+    @Test
+    void findCommentCountsOfItemsTest() {
+        User author = userRepository.save(new User(null, "author", "author@test.com"));
+        comment(item1, itemOwner);
+        comment(item1, author);
+        comment(item2, author);
+
+        Assertions.assertEquals(Map.of(item1.getId(), 2L, item2.getId(), 1L), commentCounts());
+
+        commentRepository.decrementCommentCountsOfAuthor(author.getId());
+        userRepository.deleteById(author.getId());
+
+        Assertions.assertEquals(Map.of(item1.getId(), 1L), commentCounts());
+    }
+
+    @Test
+    void findPageOfItemTest() {
+        // the database keeps microseconds, a cursor built from nanoseconds would miss the rows it was read from
+        LocalDateTime created = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.MICROS);
+        Comment comment1 = commentRepository.save(new Comment(null, "c1", created, itemOwner, item1));
+        Comment comment2 = commentRepository.save(new Comment(null, "c2", created, itemOwner, item1));
+        Comment comment3 = commentRepository.save(new Comment(null, "c3", created.minusDays(1), itemOwner, item1));
+
+        List<Comment> firstPage = commentRepository.findPageOfItem(item1.getId(), null, null, Limit.of(2));
+        List<Comment> secondPage = commentRepository.findPageOfItem(item1.getId(), firstPage.getLast().getCreated(),
+                firstPage.getLast().getId(), Limit.of(2));
+
+        Assertions.assertEquals(List.of(comment2.getId(), comment1.getId()),
+                firstPage.stream().map(Comment::getId).toList());
+        Assertions.assertEquals(List.of(comment3.getId()), secondPage.stream().map(Comment::getId).toList());
+    }
+
+    private void comment(Item item, User author) {
+        commentRepository.save(new Comment(null, "comment", LocalDateTime.now(), author, item));
+        commentRepository.incrementCommentCountOfItem(item.getId());
+    }
+
+    private Map<Long, Long> commentCounts() {
+        return commentRepository.findCommentCountsOfItems(List.of(item1.getId(), item2.getId()))
+                .stream()
+                .collect(Collectors.toMap(row -> ((Number) row[0]).longValue(), row -> ((Number) row[1]).longValue()));
+    }
+}
@@ -7,6 +7,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.Comment;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
@@ -14,6 +17,7 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @DataJpaTest
@@ -22,6 +26,8 @@ class ItemRepositoryTest {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final CommentRepository commentRepository;
 
     private User itemOwner;
 
@@ -37,6 +43,20 @@ class ItemRepositoryTest {
         itemRequestRepository.deleteAll();
     }
 
+    @Test
+    public void insertAllTest() {
+        List<Item> items = List.of(
+                new Item(null, "n1", "d", true, itemOwner, null),
+                new Item(null, "n2", "d", false, itemOwner, null)
+        );
+
+        itemRepository.insertAll(items);
+
+        Assertions.assertNotNull(items.get(0).getId());
+        Assertions.assertNotEquals(items.get(0).getId(), items.get(1).getId());
+        Assertions.assertEquals(2, itemRepository.findAllByOwnerId(itemOwner.getId()).size());
+    }
+
     @Test
     public void saveTest() {
         Item item = new Item(null, "name", "desc", true, itemOwner, null);
@@ -73,6 +93,15 @@ class ItemRepositoryTest {
         Assertions.assertEquals(2, itemsOfOwner.size());
     }
 
+    @Test
+    public void existsByOwnerId_whenOwnerHasItem_thenTrue() {
+        itemRepository
+                .save(new Item(null, "item 1", "desc", true, itemOwner, null));
+
+        Assertions.assertTrue(itemRepository.existsByOwnerId(itemOwner.getId()));
+        Assertions.assertFalse(itemRepository.existsByOwnerId(itemOwner.getId() + 1));
+    }
+
     @Test
     public void findAllByRequestIn_whenRequestForOneItem_thenGetOneItems() {
         ItemRequest itemRequest
@@ -86,4 +115,92 @@ class ItemRepositoryTest {
 
         Assertions.assertEquals(1, itemsByRequest.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void updateOwnedItem_whenOwnerMatches_thenOnlyGivenFieldsUpdated() {
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, itemOwner, null));
+
+        Assertions.assertEquals(0, itemRepository.updateOwnedItem(item.getId(), itemOwner.getId() + 1,
+                "other", null, null));
+        Assertions.assertEquals(1, itemRepository.updateOwnedItem(item.getId(), itemOwner.getId(),
+                "new name", null, false));
+
+        Item updated = itemRepository.findById(item.getId()).orElseThrow();
+
+        Assertions.assertEquals("new name", updated.getName());
+        Assertions.assertEquals("desc", updated.getDescription());
+        Assertions.assertFalse(updated.getAvailable());
+    }
+
+    @Test
+    public void findValidatorById_whenItemUpdated_thenVersionBumpedAndValidatorChanged() {
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, itemOwner, null));
+        LocalDateTime now = LocalDateTime.now();
+        ItemValidator before = itemRepository.findValidatorById(item.getId(), now).orElseThrow();
+
+        itemRepository.updateOwnedItem(item.getId(), itemOwner.getId(), "new name", null, null);
+        ItemValidator after = itemRepository.findValidatorById(item.getId(), now).orElseThrow();
+
+        Assertions.assertFalse(before.getExpired());
+        Assertions.assertNotEquals(before.getValidator(), after.getValidator());
+        Assertions.assertEquals(1L, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+        Assertions.assertTrue(itemRepository.findValidatorById(item.getId() + 1, now).isEmpty());
+    }
+
+    @Test
+    public void findValidatorById_whenBookingSummaryExpired_thenExpired() {
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, itemOwner, null));
+        LocalDateTime now = LocalDateTime.now();
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .validUntil(now.minusMinutes(1))
+                .build());
+
+        Assertions.assertTrue(itemRepository.findValidatorById(item.getId(), now).orElseThrow().getExpired());
+        Assertions.assertFalse(itemRepository.findValidatorById(item.getId(), now.minusHours(1))
+                .orElseThrow().getExpired());
+    }
+
+    @Test
+    public void findValidatorById_whenSummaryValidUntilNow_thenExpired() {
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, itemOwner, null));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        ItemBookingSummary summary = itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(item.getId())
+                .validUntil(now)
+                .build());
+
+        Assertions.assertTrue(summary.isExpired(now));
+        Assertions.assertTrue(itemRepository.findValidatorById(item.getId(), now).orElseThrow().getExpired());
+        Assertions.assertEquals(List.of(item.getId()), itemBookingSummaryRepository.findExpiredItemIds(now));
+    }
+
+    @Test
+    public void findValidatorById_whenCommentedOrAuthorRenamed_thenValidatorChanged() {
+        User author = userRepository.save(new User(null, "author", "author@test.com"));
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, itemOwner, null));
+        LocalDateTime now = LocalDateTime.now();
+        String before = itemRepository.findValidatorById(item.getId(), now).orElseThrow().getValidator();
+
+        commentRepository.save(new Comment(null, "comment", now, author, item));
+        commentRepository.incrementCommentCountOfItem(item.getId());
+        String afterComment = itemRepository.findValidatorById(item.getId(), now).orElseThrow().getValidator();
+
+        userRepository.updateUser(author.getId(), "new name", null);
+        commentRepository.incrementVersionsOfItemsCommentedBy(author.getId());
+        String afterRename = itemRepository.findValidatorById(item.getId(), now).orElseThrow().getValidator();
+
+        Assertions.assertNotEquals(before, afterComment);
+        Assertions.assertNotEquals(afterComment, afterRename);
+    }
+
+    @Test
+    public void deleteOwnedItem_whenOwnerMatches_thenDeleted() {
+        Item item = itemRepository.save(new Item(null, "item", "desc", true, itemOwner, null));
+
+        Assertions.assertEquals(0, itemRepository.deleteOwnedItem(item.getId(), itemOwner.getId() + 1));
+        Assertions.assertTrue(itemRepository.existsById(item.getId()));
+        Assertions.assertEquals(1, itemRepository.deleteOwnedItem(item.getId(), itemOwner.getId()));
+        Assertions.assertFalse(itemRepository.existsById(item.getId()));
+    }
+}
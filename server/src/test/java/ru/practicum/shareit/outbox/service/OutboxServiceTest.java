@@ -0,0 +1,172 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.outbox.OutboxDelivery;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+import ru.practicum.shareit.outbox.dto.OutboxEventDto;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+import ru.practicum.shareit.outbox.storage.OutboxDeliveryRepository;
+import ru.practicum.shareit.outbox.storage.OutboxEventRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({OutboxServiceImpl.class, ObjectMapper.class})
+class OutboxServiceTest {
+    @Autowired
+    private OutboxService outboxService;
+
+    @MockBean
+    private OutboxEventRepository outboxEventRepository;
+
+    @MockBean
+    private OutboxDeliveryRepository outboxDeliveryRepository;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private OutboxSink outboxSink;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    public void beforeEach() {
+        List<OutboxEvent> pendingEvents = List.of(
+                new OutboxEvent(1L, OutboxEventType.ITEM_CREATED, 10L, "{\"id\":10}", now, null),
+                new OutboxEvent(2L, OutboxEventType.ITEM_UPDATED, 10L, "{\"id\":10}", now, null)
+        );
+
+        when(outboxSink.getName())
+                .thenReturn("test");
+        when(outboxDeliveryRepository.findAllBySinkAndNextAttemptLessThanEqualOrderById(ArgumentMatchers.eq("test"),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(delivery(11L, 1L, 0), delivery(12L, 2L, 2)));
+        when(outboxEventRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(pendingEvents);
+    }
+
+    @Test
+    void addTest() {
+        ArgumentCaptor<OutboxEvent> captor = ArgumentCaptor.forClass(OutboxEvent.class);
+        ArgumentCaptor<List<OutboxDelivery>> deliveriesCaptor = ArgumentCaptor.captor();
+        when(outboxEventRepository.save(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.<OutboxEvent>getArgument(0).toBuilder().id(7L).build());
+
+        outboxService.add(OutboxEventType.BOOKING_CREATED, 5L, Map.of("id", 5));
+
+        verify(outboxEventRepository).save(captor.capture());
+        Assertions.assertEquals(OutboxEventType.BOOKING_CREATED, captor.getValue().getType());
+        Assertions.assertEquals(5L, captor.getValue().getAggregateId());
+        Assertions.assertEquals("{\"id\":5}", captor.getValue().getPayload());
+        Assertions.assertNull(captor.getValue().getPublished());
+
+        verify(outboxDeliveryRepository).saveAll(deliveriesCaptor.capture());
+        Assertions.assertEquals(1, deliveriesCaptor.getValue().size());
+        Assertions.assertEquals(7L, deliveriesCaptor.getValue().getFirst().getEventId());
+        Assertions.assertEquals("test", deliveriesCaptor.getValue().getFirst().getSink());
+        Assertions.assertNotNull(deliveriesCaptor.getValue().getFirst().getNextAttempt());
+    }
+
+    @Test
+    void relayPendingTest() {
+        ArgumentCaptor<List<OutboxEventDto>> captor = ArgumentCaptor.captor();
+
+        Assertions.assertEquals(2, outboxService.relayPending());
+
+        verify(outboxSink).publish(captor.capture());
+        Assertions.assertEquals(List.of(1L, 2L), captor.getValue().stream().map(OutboxEventDto::getId).toList());
+        verify(outboxDeliveryRepository).markDelivered(ArgumentMatchers.eq(List.of(11L, 12L)), ArgumentMatchers.any());
+        verify(outboxEventRepository).markPublishedIfSettled(ArgumentMatchers.eq(List.of(1L, 2L)),
+                ArgumentMatchers.any());
+    }
+
+    @Test
+    void relayPending_whenClaimed_thenRetryScheduledByAttempts() {
+        ArgumentCaptor<LocalDateTime> firstRetry = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> thirdRetry = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        outboxService.relayPending();
+
+        verify(outboxDeliveryRepository).startAttempt(ArgumentMatchers.eq(List.of(11L)), firstRetry.capture());
+        verify(outboxDeliveryRepository).startAttempt(ArgumentMatchers.eq(List.of(12L)), thirdRetry.capture());
+        Assertions.assertEquals(firstRetry.getValue().plusSeconds(30), thirdRetry.getValue());
+        Assertions.assertTrue(firstRetry.getValue().isAfter(now));
+    }
+
+    @Test
+    void relayPending_whenSinkFails_thenEventsNotMarked() {
+        doThrow(new IllegalStateException("sink is down"))
+                .when(outboxSink).publish(ArgumentMatchers.any());
+
+        Assertions.assertEquals(0, outboxService.relayPending());
+        verify(outboxDeliveryRepository, never()).markDelivered(ArgumentMatchers.any(), ArgumentMatchers.any());
+        verify(outboxDeliveryRepository).markDeadLetteredAfter(ArgumentMatchers.eq(List.of(11L, 12L)),
+                ArgumentMatchers.any(), ArgumentMatchers.eq(10));
+        verify(outboxEventRepository, never()).markPublishedIfSettled(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void relayPending_whenOneSinkFails_thenOtherSinkDelivered() {
+        OutboxSink failingSink = Mockito.mock(OutboxSink.class);
+        when(failingSink.getName())
+                .thenReturn("failing");
+        when(outboxDeliveryRepository.findAllBySinkAndNextAttemptLessThanEqualOrderById(ArgumentMatchers.eq("failing"),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(delivery(21L, 1L, 2), delivery(22L, 2L, 2)));
+        doThrow(new IllegalStateException("sink is down"))
+                .when(failingSink).publish(ArgumentMatchers.any());
+        when(outboxDeliveryRepository.markDeadLetteredAfter(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.anyInt()))
+                .thenReturn(2);
+
+        OutboxService service = new OutboxServiceImpl(outboxEventRepository, outboxDeliveryRepository,
+                new ObjectMapper(), List.of(failingSink, outboxSink), transactionManager, 500, "P1D", "PT10S", 3);
+
+        Assertions.assertEquals(2, service.relayPending());
+        verify(outboxSink).publish(ArgumentMatchers.any());
+        verify(outboxDeliveryRepository).markDelivered(ArgumentMatchers.eq(List.of(11L, 12L)), ArgumentMatchers.any());
+        verify(outboxDeliveryRepository).markDeadLetteredAfter(ArgumentMatchers.eq(List.of(21L, 22L)),
+                ArgumentMatchers.any(), ArgumentMatchers.eq(3));
+        verify(outboxEventRepository, Mockito.times(2)).markPublishedIfSettled(ArgumentMatchers.eq(List.of(1L, 2L)),
+                ArgumentMatchers.any());
+    }
+
+    @Test
+    void relayPending_whenNothingPending_thenSinksNotCalled() {
+        when(outboxDeliveryRepository.findAllBySinkAndNextAttemptLessThanEqualOrderById(ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of());
+
+        Assertions.assertEquals(0, outboxService.relayPending());
+        verify(outboxSink, never()).publish(ArgumentMatchers.any());
+    }
+
+    @Test
+    void addMissingDeliveriesTest() {
+        outboxService.addMissingDeliveries();
+
+        verify(outboxDeliveryRepository).insertMissingForSink("test");
+    }
+
+    private OutboxDelivery delivery(Long id, Long eventId, int attempts) {
+        return new OutboxDelivery(id, eventId, "test", attempts, now, null, null);
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.outbox.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.outbox.OutboxDelivery;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@DataJpaTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class OutboxDeliveryRepositoryTest {
+    private final OutboxDeliveryRepository outboxDeliveryRepository;
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final LocalDateTime origin = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private OutboxEvent event;
+    private OutboxDelivery due;
+    private OutboxDelivery later;
+    private OutboxDelivery otherSink;
+
+    @BeforeEach
+    public void beforeEach() {
+        event = outboxEventRepository.save(new OutboxEvent(null, OutboxEventType.ITEM_CREATED, 1L, "{}", origin, null));
+        due = save("http", origin.minusSeconds(1));
+        later = save("http", origin.plusSeconds(10));
+        otherSink = save("file", origin.minusSeconds(1));
+    }
+
+    @Test
+    void findAllBySinkAndNextAttemptLessThanEqualOrderByIdTest() {
+        Assertions.assertEquals(List.of(due.getId()), ids(outboxDeliveryRepository
+                .findAllBySinkAndNextAttemptLessThanEqualOrderById("http", origin, Limit.of(10))));
+        Assertions.assertEquals(List.of(due.getId(), later.getId()), ids(outboxDeliveryRepository
+                .findAllBySinkAndNextAttemptLessThanEqualOrderById("http", origin.plusSeconds(10), Limit.of(10))));
+    }
+
+    @Test
+    void startAttemptAndMarkDeadLetteredTest() {
+        Assertions.assertEquals(1, outboxDeliveryRepository.startAttempt(List.of(due.getId()), origin.plusSeconds(20)));
+        Assertions.assertEquals(0, outboxDeliveryRepository.markDeadLetteredAfter(List.of(due.getId()), origin, 2));
+
+        outboxDeliveryRepository.startAttempt(List.of(due.getId()), origin.plusSeconds(40));
+        Assertions.assertEquals(1, outboxDeliveryRepository.markDeadLetteredAfter(List.of(due.getId()), origin, 2));
+
+        OutboxDelivery deadLettered = outboxDeliveryRepository.findById(due.getId()).orElseThrow();
+        Assertions.assertEquals(2, deadLettered.getAttempts());
+        Assertions.assertEquals(origin, deadLettered.getDeadLettered());
+        Assertions.assertNull(deadLettered.getNextAttempt());
+    }
+
+    @Test
+    void markPublishedIfSettledTest() {
+        outboxDeliveryRepository.markDelivered(List.of(due.getId(), otherSink.getId()), origin);
+        Assertions.assertEquals(0, outboxEventRepository.markPublishedIfSettled(List.of(event.getId()), origin));
+
+        outboxDeliveryRepository.markDelivered(List.of(later.getId()), origin);
+        Assertions.assertEquals(1, outboxEventRepository.markPublishedIfSettled(List.of(event.getId()), origin));
+        Assertions.assertEquals(1, outboxEventRepository.deletePublishedBefore(origin.plusSeconds(1)));
+        Assertions.assertEquals(0, outboxDeliveryRepository.count());
+    }
+
+    @Test
+    void insertMissingForSinkTest() {
+        Assertions.assertEquals(0, outboxDeliveryRepository.insertMissingForSink("http"));
+        Assertions.assertEquals(1, outboxDeliveryRepository.insertMissingForSink("application-event"));
+        Assertions.assertEquals(1, outboxDeliveryRepository
+                .findAllBySinkAndNextAttemptLessThanEqualOrderById("application-event", origin, Limit.of(10))
+                .size());
+    }
+
+    private OutboxDelivery save(String sink, LocalDateTime nextAttempt) {
+        return outboxDeliveryRepository.save(new OutboxDelivery(null, event.getId(), sink, 0, nextAttempt, null, null));
+    }
+
+    private static List<Long> ids(List<OutboxDelivery> deliveries) {
+        return deliveries.stream().map(OutboxDelivery::getId).toList();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.outbox.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.outbox.OutboxEventType;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@DataJpaTest
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class OutboxEventRepositoryTest {
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final LocalDateTime origin = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private List<OutboxEvent> events;
+
+    @BeforeEach
+    public void beforeEach() {
+        events = List.of(
+                save(OutboxEventType.ITEM_CREATED, origin.minusDays(2)),
+                save(OutboxEventType.ITEM_UPDATED, null),
+                save(OutboxEventType.ITEM_DELETED, null),
+                save(OutboxEventType.COMMENT_ADDED, null)
+        );
+    }
+
+    @Test
+    void markPublishedIfSettledAndPurgeTest() {
+        Assertions.assertEquals(2, outboxEventRepository.markPublishedIfSettled(
+                List.of(events.get(0).getId(), events.get(1).getId(), events.get(2).getId()), origin));
+
+        Assertions.assertEquals(List.of(events.get(3).getId()),
+                outboxEventRepository.findAll().stream()
+                        .filter(event -> event.getPublished() == null)
+                        .map(OutboxEvent::getId)
+                        .toList());
+        Assertions.assertEquals(1, outboxEventRepository.deletePublishedBefore(origin.minusDays(1)));
+        Assertions.assertEquals(3, outboxEventRepository.count());
+    }
+
+    private OutboxEvent save(OutboxEventType type, LocalDateTime published) {
+        return outboxEventRepository.save(new OutboxEvent(null, type, 1L, "{}", origin, published));
+    }
+}
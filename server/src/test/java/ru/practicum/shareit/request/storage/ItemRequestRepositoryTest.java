@@ -7,6 +7,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
@@ -19,6 +21,7 @@ import java.util.List;
 class ItemRequestRepositoryTest {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
 
     private User requestor1;
     private User requestor2;
@@ -42,6 +45,7 @@ class ItemRequestRepositoryTest {
 
     @AfterEach
     public void afterEach() {
+        itemRepository.deleteAll();
         itemRequestRepository.deleteAll();
         userRepository.deleteAll();
     }
@@ -62,4 +66,19 @@ class ItemRequestRepositoryTest {
         Assertions.assertEquals(1, requests.size());
         Assertions.assertEquals(requests.get(0).getId(), request1ByRequster2.getId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findValidatorById_whenAnsweringItemAdded_thenValidatorChanged() {
+        String before = itemRequestRepository.findValidatorById(request1ByRequster1.getId()).orElseThrow();
+
+        Item item = itemRepository.save(new Item(null, "item", "d", true, requestor2, request1ByRequster1));
+        String afterCreate = itemRequestRepository.findValidatorById(request1ByRequster1.getId()).orElseThrow();
+
+        itemRepository.updateOwnedItem(item.getId(), requestor2.getId(), "new name", null, null);
+        String afterUpdate = itemRequestRepository.findValidatorById(request1ByRequster1.getId()).orElseThrow();
+
+        Assertions.assertNotEquals(before, afterCreate);
+        Assertions.assertNotEquals(afterCreate, afterUpdate);
+        Assertions.assertTrue(itemRequestRepository.findValidatorById(-1L).isEmpty());
+    }
+}
@@ -2,27 +2,42 @@ package ru.practicum.shareit.service;
 
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Predicate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.cache.BookingListCache;
+import ru.practicum.shareit.booking.service.BookingArchiveService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryRepository;
 import ru.practicum.shareit.item.Comment;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.ParallelQueries;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -36,7 +51,16 @@ import static org.mockito.Mockito.when;
         UserMapper.class,
         CommentMapper.class,
         ItemRequestMapper.class,
-        ItemMapper.class})
+        ItemMapper.class,
+        ItemAvailabilityIndex.class,
+        BookingListCache.class,
+        ItemSearchIndex.class,
+        ItemSearchCache.class,
+        ItemSuggestIndex.class,
+        ItemDetailCache.class,
+        ParallelQueries.class,
+        SimpleMeterRegistry.class,
+        ItemBookingSummaryServiceImpl.class})
 public class ServiceTest {
     @Autowired
     private BookingMapper bookingMapper;
@@ -53,6 +77,15 @@ public class ServiceTest {
     @Autowired
     private ItemRequestMapper itemRequestMapper;
 
+    @Autowired
+    protected BookingListCache bookingListCache;
+
+    @Autowired
+    protected ItemDetailCache itemDetailCache;
+
+    @Autowired
+    protected ItemAvailabilityIndex itemAvailabilityIndex;
+
     @MockBean
     protected UserRepository userRepository;
 
@@ -68,6 +101,21 @@ public class ServiceTest {
     @MockBean
     protected BookingRepository bookingRepository;
 
+    @MockBean
+    protected ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @MockBean
+    protected EntityManager entityManager;
+
+    @MockBean
+    protected OutboxService outboxService;
+
+    @MockBean
+    protected BookingArchiveService bookingArchiveService;
+
+    @MockBean
+    protected PlatformTransactionManager transactionManager;
+
     protected User ownerOfItems1;
     protected User ownerOfItems2;
     protected User requestor;
@@ -78,6 +126,8 @@ public class ServiceTest {
 
     protected List<Booking> bookingsForItemsOfOwner1;
 
+    protected List<ItemBookingSummary> summariesForItemsOfOwner1;
+
     protected List<Comment> commentsForItemsOfOwner1;
 
     protected ItemRequest itemRequest;
@@ -86,6 +136,9 @@ public class ServiceTest {
 
     @BeforeEach
     public void beforeEach() {
+        bookingListCache.evictAll();
+        itemDetailCache.evictAll();
+        itemAvailabilityIndex.clear();
         originNow = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         ownerOfItems1 = new User(1L, "owner 1", "email");
         ownerOfItems2 = new User(2L, "owner 2", "email");
@@ -115,6 +168,18 @@ public class ServiceTest {
                         BookingStatus.WAITING)
         );
 
+        summariesForItemsOfOwner1 = List.of(
+                summaryWithLastBooking(bookingsForItemsOfOwner1.get(0)),
+                summaryWithLastBooking(bookingsForItemsOfOwner1.get(1)),
+                ItemBookingSummary.builder()
+                        .itemId(itemsOfOwner1.get(2).getId())
+                        .nextBookingId(bookingsForItemsOfOwner1.get(2).getId())
+                        .nextStart(bookingsForItemsOfOwner1.get(2).getStart())
+                        .nextEnd(bookingsForItemsOfOwner1.get(2).getEnd())
+                        .validUntil(bookingsForItemsOfOwner1.get(2).getStart())
+                        .build()
+        );
+
         commentsForItemsOfOwner1 = List.of(
                 new Comment(1L, "comment", originNow.minusDays(8), booker, itemsOfOwner1.get(0)),
                 new Comment(2L, "comment", originNow.minusDays(2), booker, itemsOfOwner1.get(1))
@@ -140,6 +205,10 @@ public class ServiceTest {
         when(bookingRepository.findAll(ArgumentMatchers.any(Predicate.class), ArgumentMatchers.any(OrderSpecifier.class)))
                 .thenReturn(bookingsForItemsOfOwner1);
 
+        when(bookingRepository.findAllWithItemAndBooker(ArgumentMatchers.any(Predicate.class), ArgumentMatchers.any(),
+                ArgumentMatchers.any()))
+                .thenReturn(bookingsForItemsOfOwner1);
+
         // save
         when(bookingRepository.save(ArgumentMatchers.any()))
                 .thenAnswer((m) -> m.getArgument(0));
@@ -156,17 +225,106 @@ public class ServiceTest {
         when(commentRepository.save(ArgumentMatchers.any()))
                 .thenAnswer((m) -> m.getArgument(0));
 
+        when(itemBookingSummaryRepository.saveAll(ArgumentMatchers.any()))
+                .thenAnswer((m) -> m.getArgument(0));
+
         // custom
         when(itemRepository.findAllByOwnerId(ArgumentMatchers.anyLong()))
                 .thenReturn(itemsOfOwner1);
 
+        when(itemRepository.streamAllByOwnerIdOrderById(ArgumentMatchers.anyLong()))
+                .thenAnswer((m) -> itemsOfOwner1.stream());
+
+        when(itemRepository.existsByOwnerId(ArgumentMatchers.anyLong()))
+                .thenReturn(true);
+
         when(bookingRepository.findAllLastBookingsForItems(ArgumentMatchers.any(), ArgumentMatchers.any()))
                 .thenReturn(bookingsForItemsOfOwner1.subList(0, 2));
 
         when(bookingRepository.findAllNearestNextBookingsForItems(ArgumentMatchers.any(), ArgumentMatchers.any()))
                 .thenReturn(bookingsForItemsOfOwner1.subList(2, 3));
 
+        when(itemBookingSummaryRepository.findAllById(ArgumentMatchers.any()))
+                .thenReturn(summariesForItemsOfOwner1);
+
+        when(commentRepository.findCommentCountsOfItems(ArgumentMatchers.any()))
+                .thenReturn(List.of(
+                        new Object[]{itemsOfOwner1.get(0).getId(), 3L},
+                        new Object[]{itemsOfOwner1.get(1).getId(), 1L}
+                ));
+
+        when(commentRepository.findLatestIdsForItems(ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenReturn(List.of(1L, 2L));
+
+        when(commentRepository.findAllByIdIn(ArgumentMatchers.any()))
+                .thenReturn(commentsForItemsOfOwner1);
+
+        when(commentRepository.findPageOfItem(ArgumentMatchers.anyLong(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(commentsForItemsOfOwner1);
+
         when(itemRepository.findAllByRequestIn(ArgumentMatchers.any()))
                 .thenReturn(List.of(itemsOfOwner2.getLast()));
+
+        // conditional updates
+        when(bookingRepository.findWithItemAndBookerById(ArgumentMatchers.anyLong()))
+                .thenAnswer((m) -> bookingsForItemsOfOwner1.stream()
+                        .filter(booking -> booking.getId().equals(m.getArgument(0)))
+                        .findFirst());
+
+        when(bookingRepository.updateStatusOfOwnerBookings(ArgumentMatchers.anyLong(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer((m) -> {
+                    List<Long> ids = m.getArgument(1);
+
+                    // a test re-stubbing with any() runs this answer once with null arguments
+                    if (ids == null) {
+                        return 0;
+                    }
+
+                    List<Booking> bookings = bookingsForItemsOfOwner1.stream()
+                            .filter(booking -> ids.contains(booking.getId()))
+                            .filter(booking -> booking.getItem().getOwner().getId().equals(m.getArgument(0)))
+                            .filter(booking -> booking.getStatus() == m.getArgument(2))
+                            .toList();
+                    bookings.forEach(booking -> booking.setStatus(m.getArgument(3)));
+                    return bookings.size();
+                });
+
+        when(itemRepository.updateOwnedItem(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer((m) -> {
+                    Item item = itemsOfOwner1.getFirst();
+
+                    if (!item.getId().equals(m.getArgument(0)) || !ownerOfItems1.getId().equals(m.getArgument(1))) {
+                        return 0;
+                    }
+
+                    item.setName(m.getArgument(2) == null ? item.getName() : m.getArgument(2));
+                    item.setDescription(m.getArgument(3) == null ? item.getDescription() : m.getArgument(3));
+                    item.setAvailable(m.getArgument(4) == null ? item.getAvailable() : m.getArgument(4));
+                    return 1;
+                });
+
+        when(itemRepository.deleteOwnedItem(ArgumentMatchers.anyLong(), ArgumentMatchers.anyLong()))
+                .thenAnswer((m) -> itemsOfOwner1.stream()
+                        .anyMatch(item -> item.getId().equals(m.getArgument(0))
+                                && item.getOwner().getId().equals(m.getArgument(1))) ? 1 : 0);
+
+        when(userRepository.updateUser(ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer((m) -> {
+                    ownerOfItems1.setName(m.getArgument(1) == null ? ownerOfItems1.getName() : m.getArgument(1));
+                    ownerOfItems1.setEmail(m.getArgument(2) == null ? ownerOfItems1.getEmail() : m.getArgument(2));
+                    return 1;
+                });
+    }
+
+    private ItemBookingSummary summaryWithLastBooking(Booking booking) {
+        return ItemBookingSummary.builder()
+                .itemId(booking.getItem().getId())
+                .lastBookingId(booking.getId())
+                .lastStart(booking.getStart())
+                .lastEnd(booking.getEnd())
+                .build();
     }
 }
@@ -0,0 +1,296 @@
+package ru.practicum.shareit.storage;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.QBooking;
+import ru.practicum.shareit.booking.storage.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.storage.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.storage.QueryPlanTest$CapturingStatementInspector")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class QueryPlanTest {
+    private static final String TABLE_SCAN = ".tableScan";
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "end", "id");
+
+    private static final long ID_OFFSET = 1_000_000L;
+    private static final int USERS = 200;
+    private static final int ITEMS_PER_USER = 10;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int REQUESTS_PER_USER = 5;
+    private static final int COMMENTS_PER_ITEM = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemBookingSummaryRepository itemBookingSummaryRepository;
+    private final ItemRepository itemRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+
+    private final LocalDateTime origin = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private final long userId = ID_OFFSET + 1;
+
+    @BeforeEach
+    public void beforeEach() {
+        int items = USERS * ITEMS_PER_USER;
+
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)",
+                rows(USERS, i -> new Object[]{ID_OFFSET + i, "user " + i, "user" + i + "@plan.test"}));
+
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)",
+                rows(USERS * REQUESTS_PER_USER, i -> new Object[]{
+                        ID_OFFSET + i,
+                        "request " + i,
+                        ID_OFFSET + 1 + i % USERS,
+                        Timestamp.valueOf(origin.minusHours(i))
+                }));
+
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                rows(items, i -> new Object[]{
+                        ID_OFFSET + i,
+                        "item " + i,
+                        "description " + i,
+                        i % 3 != 0,
+                        ID_OFFSET + 1 + (i - 1) / ITEMS_PER_USER,
+                        i % 4 == 0 ? ID_OFFSET + 1 + i % (USERS * REQUESTS_PER_USER) : null
+                }));
+
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                rows(items * BOOKINGS_PER_ITEM, i -> new Object[]{
+                        ID_OFFSET + i,
+                        Timestamp.valueOf(origin.plusDays(i % 60 - 30)),
+                        Timestamp.valueOf(origin.plusDays(i % 60 - 28)),
+                        ID_OFFSET + 1 + i % items,
+                        ID_OFFSET + 1 + i % USERS,
+                        i % 4
+                }));
+
+        jdbcTemplate.update("INSERT INTO bookings_archive " +
+                "(id, start_date, end_date, item_id, booker_id, status, archived) " +
+                "SELECT id, start_date, end_date, item_id, booker_id, status, CURRENT_TIMESTAMP FROM bookings");
+
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                rows(items * COMMENTS_PER_ITEM, i -> new Object[]{
+                        ID_OFFSET + i,
+                        "comment " + i,
+                        ID_OFFSET + 1 + i % items,
+                        ID_OFFSET + 1 + i % USERS,
+                        Timestamp.valueOf(origin.minusDays(i % 30))
+                }));
+    }
+
+    @Test
+    void findAllLastBookingsForItemsPlanTest() {
+        assertIndexedPlan(() -> bookingRepository.findAllLastBookingsForItems(origin, itemIds()),
+                origin, origin, itemIds());
+    }
+
+    @Test
+    void findAllNearestNextBookingsForItemsPlanTest() {
+        assertIndexedPlan(() -> bookingRepository.findAllNearestNextBookingsForItems(origin, itemIds()),
+                origin, itemIds());
+    }
+
+    @Test
+    void findFirstByBookerAndItemAndStatusAndStartBeforePlanTest() {
+        assertIndexedPlan(() -> bookingRepository.findFirstByBookerAndItemAndStatusAndStartBefore(
+                        entityManager.getReference(User.class, userId),
+                        entityManager.getReference(Item.class, ID_OFFSET + 1),
+                        BookingStatus.APPROVED,
+                        origin),
+                userId, ID_OFFSET + 1, BookingStatus.APPROVED.ordinal(), origin, 1);
+    }
+
+    @Test
+    void findAllByStatusInAndEndAfterPlanTest() {
+        assertIndexedPlan(() -> bookingRepository.findAllByStatusInAndEndAfter(
+                        List.of(BookingStatus.WAITING, BookingStatus.APPROVED), origin),
+                BookingStatus.WAITING.ordinal(), BookingStatus.APPROVED.ordinal(), origin);
+    }
+
+    @Test
+    void bookingsOfBookerPlanTest() {
+        assertIndexedPlan(() -> bookingRepository.findAllWithItemAndBooker(
+                        QBooking.booking.booker.id.eq(userId), KEYSET_SORT, 20),
+                userId, 20);
+    }
+
+    @Test
+    void bookingsOfOwnerPlanTest() {
+        assertIndexedPlan(() -> bookingRepository.findAllWithItemAndBooker(
+                        QBooking.booking.item.owner.id.eq(userId), KEYSET_SORT, 20),
+                userId, 20);
+    }
+
+    @Test
+    void archivedBookingsOfBookerPlanTest() {
+        assertIndexedPlan(() -> archivedBookingRepository.findPageOfBooker(
+                        userId, BookingStatus.APPROVED, origin, ID_OFFSET, Limit.of(20)),
+                userId, 1, 1, origin, origin, origin, ID_OFFSET, 20);
+    }
+
+    @Test
+    void archivedBookingsOfOwnerPlanTest() {
+        assertIndexedPlan(() -> archivedBookingRepository.findPageOfOwner(
+                        userId, BookingStatus.APPROVED, origin, ID_OFFSET, Limit.of(20)),
+                userId, 1, 1, origin, origin, origin, ID_OFFSET, 20);
+    }
+
+    @Test
+    void findExpiredItemIdsPlanTest() {
+        assertIndexedPlan(() -> itemBookingSummaryRepository.findExpiredItemIds(origin), origin);
+    }
+
+    @Test
+    void findAllByOwnerIdPlanTest() {
+        assertIndexedPlan(() -> itemRepository.findAllByOwnerId(userId), userId);
+    }
+
+    @Test
+    void existsByOwnerIdPlanTest() {
+        assertIndexedPlan(() -> itemRepository.existsByOwnerId(userId), userId, 1);
+    }
+
+    @Test
+    void findAllByRequestInPlanTest() {
+        assertIndexedPlan(() -> itemRepository.findAllByRequestIn(List.of(
+                        entityManager.getReference(ItemRequest.class, ID_OFFSET + 4),
+                        entityManager.getReference(ItemRequest.class, ID_OFFSET + 8))),
+                ID_OFFSET + 4, ID_OFFSET + 8);
+    }
+
+    @Test
+    void findLatestIdsForItemsPlanTest() {
+        List<Object> parameters = itemIds().stream()
+                .<Object>mapMulti((itemId, consumer) -> {
+                    consumer.accept(itemId);
+                    consumer.accept(10);
+                })
+                .toList();
+
+        assertIndexedPlan(() -> commentRepository.findLatestIdsForItems(itemIds(), 10), parameters);
+    }
+
+    @Test
+    void findCommentCountsOfItemsPlanTest() {
+        assertIndexedPlan(() -> commentRepository.findCommentCountsOfItems(itemIds()), itemIds());
+    }
+
+    @Test
+    void decrementCommentCountsOfAuthorPlanTest() {
+        assertIndexedPlan(() -> commentRepository.decrementCommentCountsOfAuthor(userId), userId, userId);
+    }
+
+    @Test
+    void findPageOfItemPlanTest() {
+        assertIndexedPlan(() -> commentRepository.findPageOfItem(ID_OFFSET + 1, origin, ID_OFFSET, Limit.of(20)),
+                ID_OFFSET + 1, origin, origin, origin, ID_OFFSET, 20);
+    }
+
+    @Test
+    void findAllByRequestorIsOrderByCreatedDescPlanTest() {
+        assertIndexedPlan(() -> itemRequestRepository.findAllByRequestorIsOrderByCreatedDesc(
+                entityManager.getReference(User.class, userId)), userId);
+    }
+
+    @Test
+    void findAllByRequestorNotOrderByCreatedDescPlanTest() {
+        String sql = captureSql(() -> itemRequestRepository.findAllByRequestorNotOrderByCreatedDesc(
+                entityManager.getReference(User.class, userId)));
+
+        // a negated predicate selects almost every row, a full read is the expected plan here
+        String plan = explain(sql, userId);
+
+        Assertions.assertTrue(plan.contains("REQUESTS"), plan);
+    }
+
+    // the parameters are bound in the order of the placeholders of the generated statement,
+    // collections expanded as Hibernate expands them
+    private void assertIndexedPlan(Runnable query, Object... parameters) {
+        String plan = explain(captureSql(query), parameters);
+        Assertions.assertFalse(plan.contains(TABLE_SCAN), () -> "Query falls back to a table scan:\n" + plan);
+    }
+
+    private String captureSql(Runnable query) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        query.run();
+
+        List<String> statements = List.copyOf(CapturingStatementInspector.STATEMENTS);
+        Assertions.assertEquals(1, statements.size(), () -> "Expected one statement, got " + statements);
+        return statements.getFirst();
+    }
+
+    private String explain(String sql, Object... parameters) {
+        Object[] flattened = Arrays.stream(parameters)
+                .flatMap(parameter -> parameter instanceof Collection<?> collection
+                        ? collection.stream()
+                        : Stream.of(parameter))
+                .toArray();
+
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, flattened));
+    }
+
+    private List<Long> itemIds() {
+        return LongStream.rangeClosed(ID_OFFSET + 1, ID_OFFSET + ITEMS_PER_USER)
+                .boxed()
+                .toList();
+    }
+
+    private static List<Object[]> rows(int count, RowFactory factory) {
+        List<Object[]> rows = new ArrayList<>(count);
+
+        for (int i = 1; i <= count; i++) {
+            rows.add(factory.create(i));
+        }
+
+        return rows;
+    }
+
+    private interface RowFactory {
+        Object[] create(int i);
+    }
+
+    // collects the statements Hibernate prepares, so the plans checked are those of the SQL it actually runs
+    public static class CapturingStatementInspector implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.cache.BookingListCache;
+import ru.practicum.shareit.booking.dto.BookingBulkDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingArchiveServiceImpl;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryServiceImpl;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemDetailCache;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.util.ParallelQueries;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({
+        BookingServiceImpl.class,
+        BookingArchiveServiceImpl.class,
+        ItemServiceImpl.class,
+        ItemBookingSummaryServiceImpl.class,
+        ItemAvailabilityIndex.class,
+        BookingListCache.class,
+        ItemSearchIndex.class,
+        ItemSearchCache.class,
+        ItemSuggestIndex.class,
+        ItemDetailCache.class,
+        ParallelQueries.class,
+        SimpleMeterRegistry.class,
+        BookingMapper.class,
+        CommentMapper.class,
+        ItemMapper.class,
+        UserMapper.class
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class StatementCountTest {
+    private static final int MANY = 30;
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final EntityManager entityManager;
+
+    @MockBean
+    private final OutboxService outboxService;
+
+    private final LocalDateTime origin = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private Statistics statistics;
+
+    private User bookerWithOneBooking;
+    private User bookerWithManyBookings;
+    private User ownerWithOneItem;
+    private User ownerWithManyItems;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        bookerWithOneBooking = userRepository.save(new User(null, "booker 1", "booker1@count.test"));
+        bookerWithManyBookings = userRepository.save(new User(null, "booker 2", "booker2@count.test"));
+        ownerWithOneItem = userRepository.save(new User(null, "owner 1", "owner1@count.test"));
+        ownerWithManyItems = userRepository.save(new User(null, "owner 2", "owner2@count.test"));
+
+        Item singleItem = itemRepository.save(new Item(null, "item", "d", true, ownerWithOneItem, null));
+        book(singleItem, bookerWithOneBooking, 0);
+        comment(singleItem, bookerWithOneBooking);
+
+        for (int i = 0; i < MANY; i++) {
+            User owner = i % 2 == 0
+                    ? ownerWithManyItems
+                    : userRepository.save(new User(null, "owner " + i, "owner" + i + "x@count.test"));
+            User author = userRepository.save(new User(null, "author " + i, "author" + i + "@count.test"));
+            Item item = itemRepository.save(new Item(null, "item " + i, "d", true, owner, null));
+
+            book(item, bookerWithManyBookings, i);
+            book(item, author, i);
+            comment(item, author);
+        }
+
+        entityManager.flush();
+    }
+
+    @Test
+    void getAllBookingsWithStateTest() {
+        long single = countStatements(() -> bookingService
+                .getAllBookingsWithState(bookerWithOneBooking.getId(), BookingState.ALL, null, null)
+                .getBookings());
+        long many = countStatements(() -> bookingService
+                .getAllBookingsWithState(bookerWithManyBookings.getId(), BookingState.ALL, null, MANY)
+                .getBookings());
+
+        Assertions.assertEquals(single, many);
+    }
+
+    @Test
+    void getAllBookingsOfItemsForOwnerTest() {
+        long single = countStatements(() -> bookingService
+                .getAllBookingsOfItemsForOwner(ownerWithOneItem.getId(), BookingState.ALL, null, null)
+                .getBookings());
+        long many = countStatements(() -> bookingService
+                .getAllBookingsOfItemsForOwner(ownerWithManyItems.getId(), BookingState.ALL, null, null)
+                .getBookings());
+
+        Assertions.assertEquals(single, many);
+    }
+
+    @Test
+    void streamAllBookingsWithStateTest() {
+        long single = countStatements(() -> {
+            List<BookingDto> bookings = new ArrayList<>();
+            bookingService.streamAllBookingsWithState(bookerWithOneBooking.getId(), BookingState.ALL, bookings::add);
+            return bookings;
+        });
+        long many = countStatements(() -> {
+            List<BookingDto> bookings = new ArrayList<>();
+            bookingService.streamAllBookingsWithState(bookerWithManyBookings.getId(), BookingState.ALL, bookings::add);
+            return bookings;
+        });
+
+        Assertions.assertEquals(single, many);
+    }
+
+    @Test
+    void getByOwnerTest() {
+        long single = countStatements(() -> itemService.getByOwner(ownerWithOneItem.getId()));
+        long many = countStatements(() -> itemService.getByOwner(ownerWithManyItems.getId()));
+
+        Assertions.assertEquals(single, many);
+    }
+
+    @Test
+    void processBookingsByOwnerTest() {
+        List<Long> singleIds = waitingBookingIds(ownerWithOneItem);
+        List<Long> manyIds = waitingBookingIds(ownerWithManyItems);
+
+        long single = countStatements(() -> bookingService.processBookingsByOwner(ownerWithOneItem.getId(), false,
+                new BookingBulkDecisionDto(singleIds, null)));
+        long many = countStatements(() -> bookingService.processBookingsByOwner(ownerWithManyItems.getId(), false,
+                new BookingBulkDecisionDto(manyIds, null)));
+
+        Assertions.assertTrue(manyIds.size() > 1);
+        Assertions.assertEquals(single, many);
+    }
+
+    private long countStatements(ListingCall call) {
+        entityManager.clear();
+        statistics.clear();
+
+        Assertions.assertFalse(call.fetch().isEmpty());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Long> waitingBookingIds(User owner) {
+        List<Long> ids = itemRepository.findAllByOwnerId(owner.getId()).stream()
+                .map(item -> bookingRepository.save(new Booking(null, origin.plusDays(100), origin.plusDays(101),
+                        item, bookerWithOneBooking, BookingStatus.WAITING)).getId())
+                .toList();
+        entityManager.flush();
+        return ids;
+    }
+
+    private void book(Item item, User booker, int shift) {
+        bookingRepository.save(new Booking(null, origin.plusDays(shift + 1), origin.plusDays(shift + 2),
+                item, booker, BookingStatus.APPROVED));
+    }
+
+    private void comment(Item item, User author) {
+        commentRepository.save(new Comment(null, "comment", origin, author, item));
+        commentRepository.incrementCommentCountOfItem(item.getId());
+    }
+
+    private interface ListingCall {
+        List<?> fetch();
+    }
+}
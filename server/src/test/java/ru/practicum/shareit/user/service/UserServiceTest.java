@@ -4,11 +4,21 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.mockito.ArgumentMatchers;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.exception.NotFound;
 import ru.practicum.shareit.service.ServiceTest;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
 @Nested
 @SpringJUnitConfig({UserServiceImpl.class})
 class UserServiceTest extends ServiceTest {
@@ -32,6 +42,18 @@ class UserServiceTest extends ServiceTest {
         Assertions.assertEquals(ownerOfItems1.getEmail(), userDto.getEmail());
     }
 
+    @Test
+    void getETagTest() {
+        when(userRepository.findVersionById(ownerOfItems1.getId()))
+                .thenReturn(Optional.of(0L), Optional.of(1L));
+
+        String eTag = userService.getETag(ownerOfItems1.getId());
+
+        Assertions.assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+        Assertions.assertNotEquals(eTag, userService.getETag(ownerOfItems1.getId()));
+        Assertions.assertThrows(NotFound.class, () -> userService.getETag(100L));
+    }
+
     @Test
     void updateTest() {
         UserDto userDto = userService.update(
@@ -43,6 +65,7 @@ class UserServiceTest extends ServiceTest {
         Assertions.assertEquals(ownerOfItems1.getId(), userDto.getId());
         Assertions.assertEquals("new name", userDto.getName());
         Assertions.assertEquals("new email", userDto.getEmail());
+        verify(commentRepository).incrementVersionsOfItemsCommentedBy(ownerOfItems1.getId());
     }
 
     @Test
@@ -54,4 +77,34 @@ class UserServiceTest extends ServiceTest {
         Assertions.assertEquals(ownerOfItems1.getName(), userDto.getName());
         Assertions.assertEquals(ownerOfItems1.getEmail(), userDto.getEmail());
     }
+
+    @Test
+    void delete_whenUserHasActiveBookings_thenIntervalsFreed() {
+        Booking booking = bookingsForItemsOfOwner1.getLast();
+        Long itemId = booking.getItem().getId();
+        itemAvailabilityIndex.tryReserve(booking);
+        Assertions.assertFalse(itemAvailabilityIndex.isAvailable(itemId, booking.getStart(), booking.getEnd()));
+
+        when(bookingRepository.findAllWithItemOfUserWithStatusInAndEndAfter(ArgumentMatchers.eq(booker.getId()),
+                ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(booking));
+
+        userService.delete(booker.getId());
+
+        Assertions.assertTrue(itemAvailabilityIndex.isAvailable(itemId, booking.getStart(), booking.getEnd()));
+    }
+
+    @Test
+    void delete_whenUserBookedItemsOfOthers_thenTheirSummariesRefreshed() {
+        Long itemId = itemsOfOwner2.getFirst().getId();
+
+        when(bookingRepository.findItemIdsOfOthersBookedByUserEndingAfter(ArgumentMatchers.eq(booker.getId()),
+                ArgumentMatchers.any()))
+                .thenReturn(List.of(itemId));
+
+        userService.delete(booker.getId());
+
+        verify(itemBookingSummaryRepository).saveAll(ArgumentMatchers.<List<ItemBookingSummary>>argThat(
+                summaries -> summaries.size() == 1 && summaries.getFirst().getItemId().equals(itemId)));
+    }
 }
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingOnlyDatesDto;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+class DateTimeCodecTest {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(DateTimeCodec.PATTERN);
+
+    @Test
+    void format_whenRandomDateTimes_thenSameAsFormatter() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateTime = LocalDateTime.of(1 + random.nextInt(9_999), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60),
+                    random.nextInt(1_000_000_000));
+
+            String formatted = DateTimeCodec.format(dateTime);
+
+            Assertions.assertEquals(FORMATTER.format(dateTime), formatted);
+            Assertions.assertEquals(dateTime.withNano(0), DateTimeCodec.parse(formatted));
+        }
+    }
+
+    @Test
+    void format_whenYearDoesNotFitLayout_thenFormatterUsed() {
+        LocalDateTime dateTime = LocalDateTime.of(12_345, 1, 2, 3, 4, 5);
+
+        Assertions.assertEquals(FORMATTER.format(dateTime), DateTimeCodec.format(dateTime));
+    }
+
+    @Test
+    void parse_whenMalformed_thenThrowDateTimeParseException() {
+        String[] malformed = {
+                "2030-01-01T10:00",
+                "2030-01-01 10:00:00",
+                "2030-0a-01T10:00:00",
+                "2030-02-32T10:00:00",
+                "2030-13-01T10:00:00",
+                "2030-01-01T24:00:01",
+                "0000-01-01T10:00:00",
+                "2030-01-01T10:00:00.5"
+        };
+
+        for (String text : malformed) {
+            Assertions.assertThrows(DateTimeParseException.class, () -> DateTimeCodec.parse(text), text);
+        }
+    }
+
+    @Test
+    void parse_whenFieldsAtOrPastTheirEnds_thenResolvedLikeFormatter() {
+        Assertions.assertEquals(LocalDateTime.of(2024, 2, 29, 10, 0), DateTimeCodec.parse("2024-02-30T10:00:00"));
+        Assertions.assertEquals(LocalDateTime.of(2023, 2, 28, 10, 0), DateTimeCodec.parse("2023-02-29T10:00:00"));
+        Assertions.assertEquals(LocalDateTime.of(2030, 4, 30, 10, 0), DateTimeCodec.parse("2030-04-31T10:00:00"));
+        Assertions.assertEquals(LocalDateTime.of(2031, 1, 1, 0, 0), DateTimeCodec.parse("2030-12-31T24:00:00"));
+
+        for (String year : new String[]{"0000", "0001", "1900", "2000", "2023", "2024", "9999"}) {
+            for (int month = 0; month <= 13; month++) {
+                for (int day = 0; day <= 32; day++) {
+                    for (String time : new String[]{"00:00:00", "23:59:59", "24:00:00", "24:00:01", "10:60:00"}) {
+                        String text = String.format("%s-%02d-%02dT%s", year, month, day, time);
+                        LocalDateTime expected = parseWithFormatter(text);
+
+                        if (expected == null) {
+                            Assertions.assertThrows(DateTimeParseException.class, () -> DateTimeCodec.parse(text),
+                                    text);
+                        } else {
+                            Assertions.assertEquals(expected, DateTimeCodec.parse(text), text);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void serializer_whenDtoWritten_thenFixedLayout() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 2, 3, 4, 0);
+        BookingOnlyDatesDto dto = new BookingOnlyDatesDto(1L, start, start.plusDays(1));
+
+        String json = objectMapper.writeValueAsString(dto);
+
+        Assertions.assertEquals("{\"id\":1,\"start\":\"2030-01-02T03:04:00\",\"end\":\"2030-01-03T03:04:00\"}", json);
+    }
+
+    // the point of the codec: writing a timestamp doesn't allocate, where formatting one costs about 136 bytes
+    @Test
+    void serializer_whenWriting_thenNoAllocation() throws IOException {
+        ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threadMXBean.isThreadAllocatedMemoryEnabled());
+
+        DateTimeCodec.Serializer serializer = new DateTimeCodec.Serializer();
+        LocalDateTime dateTime = LocalDateTime.of(2030, 1, 2, 3, 4, 5);
+        int writes = 100_000;
+
+        try (JsonGenerator generator = new JsonFactory().createGenerator(Writer.nullWriter())) {
+            generator.writeStartArray();
+
+            for (int i = 0; i < writes; i++) {
+                serializer.serialize(dateTime, generator, null);
+            }
+
+            long before = threadMXBean.getCurrentThreadAllocatedBytes();
+
+            for (int i = 0; i < writes; i++) {
+                serializer.serialize(dateTime, generator, null);
+            }
+
+            long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+            Assertions.assertTrue(allocated < writes, () -> allocated + " bytes allocated for " + writes + " writes");
+        }
+    }
+
+    @Test
+    void deserializerTest() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new SimpleModule()
+                .addDeserializer(LocalDateTime.class, new DateTimeCodec.Deserializer()));
+
+        Assertions.assertEquals(LocalDateTime.of(2030, 1, 2, 3, 4, 5),
+                objectMapper.readValue("\"2030-01-02T03:04:05\"", LocalDateTime.class));
+        Assertions.assertThrows(JsonProcessingException.class,
+                () -> objectMapper.readValue("\"2030-01-02\"", LocalDateTime.class));
+    }
+
+    private static LocalDateTime parseWithFormatter(String text) {
+        try {
+            return LocalDateTime.parse(text, FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
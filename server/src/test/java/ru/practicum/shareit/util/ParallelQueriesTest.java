@@ -0,0 +1,114 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class ParallelQueriesTest {
+    private final PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+    @AfterEach
+    public void afterEach() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    @Test
+    void fanOut_whenEnabled_thenSecondQueryRunsOnVirtualThreadInOwnTransaction() {
+        ParallelQueries parallelQueries = new ParallelQueries(transactionManager, true, "PT5S", 2, 10);
+
+        Assertions.assertEquals(List.of(false, true), runOnThreads(parallelQueries));
+        Mockito.verify(transactionManager, Mockito.times(1)).getTransaction(Mockito.any());
+    }
+
+    @Test
+    void fanOut_whenPoolTooSmallToLendConnection_thenSequentialOnCallerThread() {
+        ParallelQueries parallelQueries = new ParallelQueries(transactionManager, true, "PT5S", 8, 1);
+
+        Assertions.assertEquals(List.of(false, false), runOnThreads(parallelQueries));
+        Mockito.verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void fanOut_whenDisabled_thenSequentialOnCallerThread() {
+        ParallelQueries parallelQueries = new ParallelQueries(transactionManager, false, "PT5S", 2, 10);
+
+        Assertions.assertEquals(List.of(false, false), runOnThreads(parallelQueries));
+        Mockito.verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void fanOut_whenReadWriteTransactionActive_thenSequentialOnCallerThread() {
+        ParallelQueries parallelQueries = new ParallelQueries(transactionManager, true, "PT5S", 2, 10);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        Assertions.assertEquals(List.of(false, false), runOnThreads(parallelQueries));
+    }
+
+    @Test
+    void fanOut_whenTimedOut_thenFailsWithoutRerunAndPermitHeldUntilQueryEnds() throws InterruptedException {
+        ParallelQueries parallelQueries = new ParallelQueries(transactionManager, true, "PT0.05S", 1, 10);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicInteger secondRuns = new AtomicInteger();
+
+        Assertions.assertThrows(QueryTimeoutException.class, () -> parallelQueries.fanOut(
+                () -> "first",
+                () -> {
+                    secondRuns.incrementAndGet();
+                    await(finish);
+                    return "second";
+                },
+                List::of
+        ));
+        Assertions.assertEquals(1, secondRuns.get());
+        Mockito.verify(transactionManager).getTransaction(Mockito.argThat(definition -> definition.getTimeout() == 1));
+        Assertions.assertEquals(List.of(false, false), runOnThreads(parallelQueries));
+
+        finish.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!runOnThreads(parallelQueries).getLast() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertEquals(List.of(false, true), runOnThreads(parallelQueries));
+    }
+
+    @Test
+    void fanOut_whenQueryFails_thenExceptionPropagated() {
+        ParallelQueries parallelQueries = new ParallelQueries(transactionManager, true, "PT5S", 2, 10);
+        Supplier<String> failing = () -> {
+            throw new IllegalArgumentException("failed");
+        };
+
+        IllegalArgumentException e = Assertions.assertThrows(IllegalArgumentException.class,
+                () -> parallelQueries.fanOut(failing, () -> "second", List::of));
+        Assertions.assertEquals("failed", e.getMessage());
+    }
+
+    private static List<Boolean> runOnThreads(ParallelQueries parallelQueries) {
+        return parallelQueries.fanOut(
+                () -> Thread.currentThread().isVirtual(),
+                () -> Thread.currentThread().isVirtual(),
+                List::of
+        );
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
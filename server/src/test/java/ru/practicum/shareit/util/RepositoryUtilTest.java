@@ -12,7 +12,10 @@ import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 class RepositoryUtilTest {
 
@@ -62,4 +65,21 @@ class RepositoryUtilTest {
             RepositoryUtil.getItemRequestWithCheck(itemRequestRepository, 1L);
         });
     }
+
+    @Test
+    void findAllInChunks_whenValuesExceedChunkSize_thenQueryEachChunkAndMergeResults() {
+        List<Long> values = LongStream.range(0, RepositoryUtil.IN_CLAUSE_CHUNK_SIZE * 2 + 1).boxed().toList();
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        List<Long> result = RepositoryUtil.findAllInChunks(values, chunk -> {
+            chunkSizes.add(chunk.size());
+            return chunk;
+        });
+
+        Assertions.assertEquals(values, result);
+        Assertions.assertEquals(
+                List.of(RepositoryUtil.IN_CLAUSE_CHUNK_SIZE, RepositoryUtil.IN_CLAUSE_CHUNK_SIZE, 1),
+                chunkSizes
+        );
+    }
 }